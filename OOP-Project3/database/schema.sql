@@ -2,6 +2,8 @@
 -- CMPE343 Project 3
 
 -- Drop existing tables if they exist (in reverse order of dependencies)
+DROP TABLE IF EXISTS InvoiceJob;
+DROP TABLE IF EXISTS DeliverySlot;
 DROP TABLE IF EXISTS Message;
 DROP TABLE IF EXISTS CarrierRating;
 DROP TABLE IF EXISTS Coupon;
@@ -34,12 +36,20 @@ CREATE TABLE ProductInfo (
     discountPercent DECIMAL(5, 2) DEFAULT 0.00,
     stock DECIMAL(10, 2) NOT NULL DEFAULT 0.0,
     threshold DECIMAL(10, 2) NOT NULL DEFAULT 5.0,
+    -- Display price per kg (doubled while stock <= threshold), kept by MySQL for catalog sorting/filtering
+    effectivePrice DECIMAL(10, 2) GENERATED ALWAYS AS (CASE WHEN stock > 0 AND stock <= threshold THEN pricePerKg * 2 ELSE pricePerKg END) STORED,
     description TEXT,
     imagePath VARCHAR(255),
     imageUrl VARCHAR(500),
     imageData LONGBLOB,
+    -- Bumped whenever imageData changes; keys the client image cache
+    imageVersion INT NOT NULL DEFAULT 0,
     createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updatedAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+    updatedAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_product_name (productName),
+    INDEX idx_product_type_name (productType, productName),
+    INDEX idx_product_type_price (productType, effectivePrice),
+    INDEX idx_product_effective_price (effectivePrice)
 );
 
 -- Create OrderInfo table
@@ -58,11 +68,17 @@ CREATE TABLE OrderInfo (
     deliveryAddress TEXT NOT NULL,
     invoicePath VARCHAR(255),
     invoicePdf LONGBLOB,
+    invoiceHash CHAR(64),
     transactionLog LONGTEXT,
     couponCode VARCHAR(20),
     canCancelUntil TIMESTAMP,
+    updatedAt TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
     FOREIGN KEY (customerId) REFERENCES UserInfo(userId) ON DELETE CASCADE,
-    FOREIGN KEY (carrierId) REFERENCES UserInfo(userId) ON DELETE SET NULL
+    FOREIGN KEY (carrierId) REFERENCES UserInfo(userId) ON DELETE SET NULL,
+    INDEX idx_order_dispatch (status, carrierId, orderDate),
+    INDEX idx_order_updated (updatedAt),
+    INDEX idx_order_carrier_history (carrierId, status, deliveryDate),
+    INDEX idx_order_date (orderDate, orderId)
 );
 
 -- Create OrderItem table
@@ -117,6 +133,28 @@ CREATE TABLE Message (
     FOREIGN KEY (ownerId) REFERENCES UserInfo(userId) ON DELETE SET NULL
 );
 
+-- Create DeliverySlot table for delivery time window capacity
+CREATE TABLE DeliverySlot (
+    slotStart DATETIME PRIMARY KEY,
+    capacity INT NOT NULL,
+    reserved INT NOT NULL DEFAULT 0,
+    CHECK (reserved >= 0 AND reserved <= capacity)
+);
+
+-- Create InvoiceJob table for background invoice generation
+CREATE TABLE InvoiceJob (
+    jobId INT PRIMARY KEY AUTO_INCREMENT,
+    orderId INT NOT NULL UNIQUE,
+    status ENUM('Queued', 'Running', 'Done', 'Failed') NOT NULL DEFAULT 'Queued',
+    attempts INT NOT NULL DEFAULT 0,
+    invoicePath VARCHAR(255),
+    lastError VARCHAR(500),
+    createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updatedAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (orderId) REFERENCES OrderInfo(orderId) ON DELETE CASCADE,
+    INDEX idx_invoice_job_status (status, jobId)
+);
+
 -- Insert sample data for UserInfo (at least 25 rows)
 -- Passwords are hashed using SHA-256 (original passwords: owner123, customer123, carrier123)
 INSERT INTO UserInfo (username, password, role, fullName, email, phone, address) VALUES
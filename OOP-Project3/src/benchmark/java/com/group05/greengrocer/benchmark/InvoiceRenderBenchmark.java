@@ -0,0 +1,88 @@
+package com.group05.greengrocer.benchmark;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.group05.greengrocer.model.Order;
+import com.group05.greengrocer.model.OrderItem;
+import com.group05.greengrocer.model.Product;
+import com.group05.greengrocer.service.InvoiceRenderer;
+
+/**
+ * JMH benchmark for invoice rendering.
+ * Reports invoices per second; run with the gc profiler (as the benchmark
+ * profile does) to get bytes allocated per invoice (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InvoiceRenderBenchmark {
+    @Param({ "5", "40", "200" })
+    private int itemCount;
+
+    private Order order;
+    private InvoiceRenderer renderer;
+
+    /**
+     * Build a sample order with Turkish product names and a long address.
+     */
+    @Setup
+    public void setUp() {
+        renderer = InvoiceRenderer.getInstance();
+        order = new Order(1, "Bağdat Caddesi No: 123 Daire 4, Kadıköy, İstanbul");
+        order.setOrderId(1001);
+        order.setOrderDate(LocalDateTime.of(2025, 1, 15, 10, 30));
+        order.setDeliveryDate(LocalDateTime.of(2025, 1, 16, 14, 0));
+
+        String[] names = { "Domates", "Salatalık", "Şeftali", "Üzüm", "Çilek", "Ispanak", "Kabak", "Portakal" };
+        List<OrderItem> items = new ArrayList<>(itemCount);
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (int i = 0; i < itemCount; i++) {
+            Product product = new Product();
+            product.setProductName(names[i % names.length]);
+            OrderItem item = new OrderItem();
+            item.setProduct(product);
+            item.setQuantity(new BigDecimal("1.250"));
+            item.setUnitPrice(new BigDecimal("24.90"));
+            item.setSubtotal(new BigDecimal("31.13"));
+            subtotal = subtotal.add(item.getSubtotal());
+            items.add(item);
+        }
+        order.setItems(items);
+        order.setSubtotal(subtotal);
+        order.setVatAmount(subtotal.multiply(new BigDecimal("0.20")));
+        order.setDiscountAmount(new BigDecimal("10.00"));
+        order.setLoyaltyDiscount(BigDecimal.ZERO);
+        order.setTotalCost(subtotal.multiply(new BigDecimal("1.20")).subtract(order.getDiscountAmount()));
+    }
+
+    /**
+     * Render one invoice.
+     *
+     * @return The PDF bytes, returned so the work is not eliminated
+     * @throws IOException if rendering fails
+     */
+    @Benchmark
+    public byte[] render() throws IOException {
+        return renderer.render(order);
+    }
+}
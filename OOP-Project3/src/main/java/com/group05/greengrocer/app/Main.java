@@ -1,6 +1,12 @@
 package com.group05.greengrocer.app;
 
+import com.group05.greengrocer.service.DispatchScheduler;
+import com.group05.greengrocer.service.ImageMigrationService;
+import com.group05.greengrocer.service.InvoiceJobService;
+import com.group05.greengrocer.service.NewOrderFeed;
+import com.group05.greengrocer.util.AsyncExecutor;
 import com.group05.greengrocer.util.DatabaseAdapter;
+import com.group05.greengrocer.util.ImageLoader;
 
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
@@ -33,6 +39,7 @@ public class Main extends Application {
             System.err.println("3. Update DatabaseAdapter.java with your MySQL credentials");
         } else {
             System.out.println("Database connection successful. Migrations completed if needed.");
+            InvoiceJobService.getInstance().start();
         }
 
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/LoginView.fxml"));
@@ -50,13 +57,18 @@ public class Main extends Application {
 
     /**
      * Stop method called when application is closing.
-     * Closes database connection on application exit.
+     * Stops background service workers on application exit.
      * 
-     * @throws Exception if closing connection fails
+     * @throws Exception if shutdown fails
      */
     @Override
     public void stop() throws Exception {
-        DatabaseAdapter.getInstance().closeConnection();
+        AsyncExecutor.getInstance().shutdown();
+        ImageMigrationService.getInstance().shutdown();
+        DispatchScheduler.getInstance().shutdown();
+        NewOrderFeed.getInstance().shutdown();
+        InvoiceJobService.getInstance().shutdown();
+        ImageLoader.getInstance().shutdown();
         super.stop();
     }
 
@@ -18,13 +18,24 @@ import java.net.URL;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
 
+import com.group05.greengrocer.model.ClaimResult;
 import com.group05.greengrocer.model.Order;
+import com.group05.greengrocer.model.OrderChangeSet;
 import com.group05.greengrocer.model.User;
 import com.group05.greengrocer.repository.UserRepository;
 import com.group05.greengrocer.service.AuthService;
+import com.group05.greengrocer.service.NewOrderFeed;
 import com.group05.greengrocer.service.OrderService;
+import com.group05.greengrocer.service.RoutePlanner;
+import com.group05.greengrocer.service.UserDirectory;
+import com.group05.greengrocer.util.AsyncExecutor;
+import com.group05.greengrocer.util.Session;
 
 /**
  * Controller for the carrier view.
@@ -66,6 +77,15 @@ public class CarrierController implements Initializable {
     @FXML
     private Button selectMultipleButton;
 
+    @FXML
+    private Spinner<Integer> nextOrdersSpinner;
+
+    @FXML
+    private Button claimNextButton;
+
+    @FXML
+    private Button planRouteButton;
+
     @FXML
     private TableView<Order> currentOrdersTable;
 
@@ -105,19 +125,41 @@ public class CarrierController implements Initializable {
     @FXML
     private TableColumn<Order, String> deliveryDateColumn;
 
+    @FXML
+    private Button previousPageButton;
+
+    @FXML
+    private Label completedPageLabel;
+
+    @FXML
+    private Button nextPageButton;
+
+    private static final int COMPLETED_PAGE_SIZE = 25;
+
     private OrderService orderService;
     private AuthService authService;
     private UserRepository userRepository;
+    private UserDirectory userDirectory;
+    private UserNameCells userNameCells;
+    private AsyncExecutor asyncExecutor;
 
     private ObservableList<Order> availableOrders;
     private ObservableList<Order> currentOrders;
     private ObservableList<Order> completedOrders;
 
+    // Database time of the last dashboard refresh; null until the first load
+    private LocalDateTime dashboardWatermark;
+    private int completedPage;
+    private int completedPageCount = 1;
+
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         orderService = new OrderService();
         authService = new AuthService();
         userRepository = new UserRepository();
+        userDirectory = UserDirectory.getInstance();
+        userNameCells = UserNameCells.getInstance();
+        asyncExecutor = AsyncExecutor.getInstance();
 
         availableOrders = FXCollections.observableArrayList();
         currentOrders = FXCollections.observableArrayList();
@@ -128,7 +170,10 @@ public class CarrierController implements Initializable {
         }
 
         setupTables();
+        nextOrdersSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(1, 20, 5));
         loadData();
+        // New pending orders trigger an incremental refresh as soon as they appear
+        NewOrderFeed.getInstance().startWatching(orderIds -> AsyncExecutor.runOnFx(this::loadData));
 
         if (mainTabPane != null) {
             for (Tab tab : mainTabPane.getTabs()) {
@@ -142,15 +187,8 @@ public class CarrierController implements Initializable {
      */
     private void setupTables() {
         orderIdColumn1.setCellValueFactory(new PropertyValueFactory<>("orderId"));
-        customerNameColumn1.setCellValueFactory(cellData -> {
-            try {
-                User customer = userRepository.findById(cellData.getValue().getCustomerId());
-                return new javafx.beans.property.SimpleStringProperty(
-                        customer != null ? customer.getFullName() : "Unknown");
-            } catch (Exception e) {
-                return new javafx.beans.property.SimpleStringProperty("Unknown");
-            }
-        });
+        customerNameColumn1.setCellValueFactory(
+                cellData -> userNameCells.displayNameProperty(cellData.getValue().getCustomerId()));
         totalCostColumn1.setCellValueFactory(cellData -> new javafx.beans.property.SimpleDoubleProperty(
                 cellData.getValue().getTotalCost().doubleValue()).asObject());
         deliveryAddressColumn1.setCellValueFactory(new PropertyValueFactory<>("deliveryAddress"));
@@ -193,15 +231,8 @@ public class CarrierController implements Initializable {
         availableOrdersTable.setItems(availableOrders);
 
         orderIdColumn2.setCellValueFactory(new PropertyValueFactory<>("orderId"));
-        customerNameColumn2.setCellValueFactory(cellData -> {
-            try {
-                User customer = userRepository.findById(cellData.getValue().getCustomerId());
-                return new javafx.beans.property.SimpleStringProperty(
-                        customer != null ? customer.getFullName() : "Unknown");
-            } catch (Exception e) {
-                return new javafx.beans.property.SimpleStringProperty("Unknown");
-            }
-        });
+        customerNameColumn2.setCellValueFactory(
+                cellData -> userNameCells.displayNameProperty(cellData.getValue().getCustomerId()));
         totalCostColumn2.setCellValueFactory(cellData -> new javafx.beans.property.SimpleDoubleProperty(
                 cellData.getValue().getTotalCost().doubleValue()).asObject());
         deliveryAddressColumn2.setCellValueFactory(new PropertyValueFactory<>("deliveryAddress"));
@@ -246,15 +277,8 @@ public class CarrierController implements Initializable {
         currentOrdersTable.setItems(currentOrders);
 
         orderIdColumn3.setCellValueFactory(new PropertyValueFactory<>("orderId"));
-        customerNameColumn3.setCellValueFactory(cellData -> {
-            try {
-                User customer = userRepository.findById(cellData.getValue().getCustomerId());
-                return new javafx.beans.property.SimpleStringProperty(
-                        customer != null ? customer.getFullName() : "Unknown");
-            } catch (Exception e) {
-                return new javafx.beans.property.SimpleStringProperty("Unknown");
-            }
-        });
+        customerNameColumn3.setCellValueFactory(
+                cellData -> userNameCells.displayNameProperty(cellData.getValue().getCustomerId()));
         totalCostColumn3.setCellValueFactory(cellData -> new javafx.beans.property.SimpleDoubleProperty(
                 cellData.getValue().getTotalCost().doubleValue()).asObject());
         deliveryAddressColumn3.setCellValueFactory(new PropertyValueFactory<>("deliveryAddress"));
@@ -265,12 +289,173 @@ public class CarrierController implements Initializable {
     }
 
     /**
-     * Load data for all tables.
+     * Refresh the available and current orders.
+     * The first load fetches both lists in one query; later loads fetch only
+     * the orders changed since the previous load and merge them in, so a
+     * refresh costs little on slow connections.
      */
     private void loadData() {
-        availableOrders.setAll(orderService.getAvailableOrders());
-        currentOrders.setAll(orderService.getCarrierCurrentOrders());
-        completedOrders.setAll(orderService.getCarrierCompletedOrders());
+        LocalDateTime since = dashboardWatermark;
+        AsyncExecutor.onFx(asyncExecutor.submit("carrier.loadData", () -> {
+            OrderChangeSet changes = orderService.getCarrierDashboard(since);
+            List<Integer> customerIds = new ArrayList<>();
+            for (Order order : changes.getOrders()) {
+                if (order.getCustomerId() > 0) {
+                    customerIds.add(order.getCustomerId());
+                }
+            }
+            userDirectory.preload(customerIds);
+            return changes;
+        }), this::applyDashboard,
+                e -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to load orders: " + e.getMessage()));
+    }
+
+    /**
+     * Apply a dashboard refresh to the tables.
+     * Changed orders are updated in place where they still belong, so the
+     * order of the current orders (e.g. a planned route) is kept.
+     * 
+     * @param changes The snapshot or the changed orders
+     */
+    private void applyDashboard(OrderChangeSet changes) {
+        int carrierId = Session.getInstance().getCurrentUserId();
+        if (changes.isFullSnapshot()) {
+            List<Order> available = new ArrayList<>();
+            List<Order> current = new ArrayList<>();
+            for (Order order : changes.getOrders()) {
+                (isAvailable(order) ? available : current).add(order);
+            }
+            availableOrders.setAll(available);
+            currentOrders.setAll(current);
+            loadCompletedPage();
+        } else {
+            boolean completedChanged = false;
+            for (Order order : changes.getOrders()) {
+                boolean available = isAvailable(order);
+                boolean current = isCurrent(order, carrierId);
+                mergeOrder(availableOrders, order, available);
+                boolean wasCurrent = mergeOrder(currentOrders, order, current);
+                if (wasCurrent && !current && "Delivered".equals(order.getStatus())) {
+                    completedChanged = true;
+                }
+            }
+            if (completedChanged) {
+                loadCompletedPage();
+            }
+        }
+        if (changes.getAsOf() != null) {
+            dashboardWatermark = changes.getAsOf();
+        }
+    }
+
+    /**
+     * Check whether an order can be accepted by any carrier.
+     */
+    private static boolean isAvailable(Order order) {
+        return "Pending".equals(order.getStatus()) && order.getCarrierId() == null;
+    }
+
+    /**
+     * Check whether an order is in progress for a carrier.
+     */
+    private static boolean isCurrent(Order order, int carrierId) {
+        return order.getCarrierId() != null && order.getCarrierId() == carrierId
+                && ("Assigned".equals(order.getStatus()) || "InTransit".equals(order.getStatus()));
+    }
+
+    /**
+     * Merge a changed order into a table's items.
+     * 
+     * @param items   The table items
+     * @param order   The changed order
+     * @param belongs Whether the order belongs in this table now
+     * @return true if the table held the order before the merge
+     */
+    private static boolean mergeOrder(List<Order> items, Order order, boolean belongs) {
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).getOrderId() == order.getOrderId()) {
+                if (belongs) {
+                    items.set(i, order);
+                } else {
+                    items.remove(i);
+                }
+                return true;
+            }
+        }
+        if (belongs) {
+            int index = items.size();
+            for (int i = 0; i < items.size(); i++) {
+                LocalDateTime orderDate = items.get(i).getOrderDate();
+                if (orderDate != null && order.getOrderDate() != null && orderDate.isAfter(order.getOrderDate())) {
+                    index = i;
+                    break;
+                }
+            }
+            items.add(index, order);
+        }
+        return false;
+    }
+
+    /**
+     * Load the selected page of completed orders.
+     */
+    private void loadCompletedPage() {
+        int page = completedPage;
+        AsyncExecutor.onFx(asyncExecutor.submit(() -> {
+            int total = orderService.countCarrierCompletedOrders();
+            List<Order> orders = orderService.getCarrierCompletedOrders(page, COMPLETED_PAGE_SIZE);
+            List<Integer> customerIds = new ArrayList<>();
+            for (Order order : orders) {
+                customerIds.add(order.getCustomerId());
+            }
+            userDirectory.preload(customerIds);
+            return Map.entry(total, orders);
+        }), result -> {
+                    completedPageCount = Math.max(1, (result.getKey() + COMPLETED_PAGE_SIZE - 1) / COMPLETED_PAGE_SIZE);
+                    if (completedPage >= completedPageCount) {
+                        completedPage = completedPageCount - 1;
+                        loadCompletedPage();
+                        return;
+                    }
+                    if (page != completedPage) {
+                        return;
+                    }
+                    completedOrders.setAll(result.getValue());
+                    updatePageControls();
+                }, e -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to load completed orders: " + e.getMessage()));
+    }
+
+    /**
+     * Update the completed orders page label and buttons.
+     */
+    private void updatePageControls() {
+        completedPageLabel.setText("Page " + (completedPage + 1) + " of " + completedPageCount);
+        previousPageButton.setDisable(completedPage == 0);
+        nextPageButton.setDisable(completedPage >= completedPageCount - 1);
+    }
+
+    /**
+     * Handle previous page action for completed orders.
+     */
+    @FXML
+    private void handlePreviousPage() {
+        if (completedPage > 0) {
+            completedPage--;
+            updatePageControls();
+            loadCompletedPage();
+        }
+    }
+
+    /**
+     * Handle next page action for completed orders.
+     */
+    @FXML
+    private void handleNextPage() {
+        if (completedPage < completedPageCount - 1) {
+            completedPage++;
+            updatePageControls();
+            loadCompletedPage();
+        }
     }
 
     /**
@@ -285,15 +470,17 @@ public class CarrierController implements Initializable {
             return;
         }
 
-        if (orderService.assignOrderToCarrier(order.getOrderId())) {
-            showAlert(Alert.AlertType.INFORMATION, "Success",
-                    "Order " + order.getOrderId() + " assigned to you successfully!");
-            loadData(); // Refresh data
-        } else {
-            showAlert(Alert.AlertType.ERROR, "Error",
-                    "Failed to assign order. It may have been assigned to another carrier.");
-            loadData(); // Refresh to show updated status
-        }
+        asyncExecutor.submitThenOnFx(() -> orderService.assignOrderToCarrier(order.getOrderId()), assigned -> {
+            if (assigned) {
+                showAlert(Alert.AlertType.INFORMATION, "Success",
+                        "Order " + order.getOrderId() + " assigned to you successfully!");
+                loadData(); // Refresh data
+            } else {
+                showAlert(Alert.AlertType.ERROR, "Error",
+                        "Failed to assign order. It may have been assigned to another carrier.");
+                loadData(); // Refresh to show updated status
+            }
+        });
     }
 
     /**
@@ -370,27 +557,102 @@ public class CarrierController implements Initializable {
             return;
         }
 
-        int successCount = 0;
+        List<Integer> orderIds = new ArrayList<>();
         int skippedCount = 0;
         for (Order order : selectedOrders) {
             if (order.getDeliveryDate() != null && order.getDeliveryDate().isBefore(java.time.LocalDateTime.now())) {
                 skippedCount++;
                 continue;
             }
+            orderIds.add(order.getOrderId());
+        }
+
+        int skipped = skippedCount;
+        asyncExecutor.submitThenOnFx(() -> orderService.claimOrders(orderIds),
+                result -> showAssignResult(result, skipped));
+    }
 
-            if (orderService.assignOrderToCarrier(order.getOrderId())) {
-                successCount++;
+    /**
+     * Handle take next orders action.
+     * Takes the oldest available orders from the dispatch queue; carriers
+     * doing this at the same time get different orders.
+     */
+    @FXML
+    private void handleClaimNextOrders() {
+        int count = nextOrdersSpinner.getValue();
+        claimNextButton.setDisable(true);
+        AsyncExecutor.onFx(asyncExecutor.submit(() -> orderService.claimNextOrders(count)), result -> {
+            claimNextButton.setDisable(false);
+            if (result.isFailed()) {
+                showAlert(Alert.AlertType.ERROR, "Error",
+                        "Failed to take orders because the database could not be reached. Please try again.");
+                return;
+            }
+            if (result.getWon().isEmpty()) {
+                showAlert(Alert.AlertType.INFORMATION, "No Orders", "There are no available orders right now.");
+            } else {
+                showAlert(Alert.AlertType.INFORMATION, "Success",
+                        result.getWon().size() + " order(s) assigned to you: " + formatOrderIds(result.getWon()));
             }
+            loadData();
+        }, e -> {
+            claimNextButton.setDisable(false);
+            showAlert(Alert.AlertType.ERROR, "Error", "Failed to take orders: " + e.getMessage());
+        });
+    }
+
+    /**
+     * Handle plan route action.
+     * Reorders the current orders into a delivery route grouped by locality
+     * and shows the stop list.
+     */
+    @FXML
+    private void handlePlanRoute() {
+        if (currentOrders.isEmpty()) {
+            showAlert(Alert.AlertType.INFORMATION, "No Orders", "You have no current orders to plan a route for.");
+            return;
         }
 
+        List<Order> orders = new ArrayList<>(currentOrders);
+        RoutePlanner planner = RoutePlanner.getInstance();
+        planRouteButton.setDisable(true);
+        asyncExecutor.submitThenOnFx(() -> planner.plan(orders), route -> {
+            planRouteButton.setDisable(false);
+            currentOrders.setAll(route);
+
+            StringBuilder stops = new StringBuilder();
+            int stop = 1;
+            for (Order order : route) {
+                String locality = planner.localityOf(order.getDeliveryAddress());
+                stops.append(stop++).append(". Order #").append(order.getOrderId())
+                        .append(locality.isEmpty() ? "" : " [" + locality + "]")
+                        .append(" - ").append(order.getDeliveryAddress()).append('\n');
+            }
+            showAlert(Alert.AlertType.INFORMATION, "Delivery Route", stops.toString());
+        });
+    }
+
+    /**
+     * Show the outcome of a multi-order assignment and refresh the tables.
+     * 
+     * @param result       Orders won and lost by this carrier
+     * @param skippedCount Number of orders skipped because of past delivery dates
+     */
+    private void showAssignResult(ClaimResult result, int skippedCount) {
         if (skippedCount > 0) {
             showAlert(Alert.AlertType.WARNING, "Some Orders Skipped",
                     skippedCount + " order(s) were skipped because their delivery dates are in the past.");
         }
 
-        if (successCount > 0) {
-            showAlert(Alert.AlertType.INFORMATION, "Success",
-                    successCount + " order(s) assigned successfully!");
+        if (result.isFailed()) {
+            showAlert(Alert.AlertType.ERROR, "Error",
+                    "Failed to assign orders because the database could not be reached. Please try again.");
+        } else if (!result.getWon().isEmpty()) {
+            String message = result.getWon().size() + " order(s) assigned successfully!";
+            if (!result.getLost().isEmpty()) {
+                message += "\n\nAlready taken by other carriers: " + formatOrderIds(result.getLost());
+            }
+            showAlert(Alert.AlertType.INFORMATION, "Success", message);
             loadData(); // Refresh data
         } else {
             showAlert(Alert.AlertType.ERROR, "Error",
@@ -399,6 +661,23 @@ public class CarrierController implements Initializable {
         }
     }
 
+    /**
+     * Format order IDs for a message, e.g. "#12, #15".
+     * 
+     * @param orderIds The order IDs
+     * @return The formatted list
+     */
+    private static String formatOrderIds(Collection<Integer> orderIds) {
+        StringBuilder text = new StringBuilder();
+        for (Integer orderId : orderIds) {
+            if (text.length() > 0) {
+                text.append(", ");
+            }
+            text.append('#').append(orderId);
+        }
+        return text.toString();
+    }
+
     /**
      * Handle complete order action.
      * 
@@ -520,6 +799,7 @@ public class CarrierController implements Initializable {
      */
     @FXML
     private void handleLogout() {
+        NewOrderFeed.getInstance().stopWatching();
         authService.logout();
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/LoginView.fxml"));
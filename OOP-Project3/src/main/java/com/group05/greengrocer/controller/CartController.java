@@ -16,15 +16,22 @@ import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 
+import com.group05.greengrocer.model.InvoiceJob;
 import com.group05.greengrocer.model.Order;
 import com.group05.greengrocer.model.OrderItem;
+import com.group05.greengrocer.model.PriceBreakdown;
 import com.group05.greengrocer.model.Product;
 import com.group05.greengrocer.repository.ProductRepository;
 import com.group05.greengrocer.service.CouponService;
+import com.group05.greengrocer.service.DeliverySlotService;
+import com.group05.greengrocer.service.InvoiceJobService;
 import com.group05.greengrocer.service.LoyaltyService;
 import com.group05.greengrocer.service.OrderService;
+import com.group05.greengrocer.service.PricingEngine;
 import com.group05.greengrocer.service.ProductService;
+import com.group05.greengrocer.util.AsyncExecutor;
 
 /**
  * Controller for the cart view.
@@ -96,6 +103,7 @@ public class CartController implements Initializable {
     private ProductService productService;
     private CouponService couponService;
     private LoyaltyService loyaltyService;
+    private DeliverySlotService deliverySlotService;
 
     // Cart calculation values
     private BigDecimal subtotal = BigDecimal.ZERO;
@@ -104,10 +112,10 @@ public class CartController implements Initializable {
     private BigDecimal loyaltyDiscount = BigDecimal.ZERO;
     private BigDecimal total = BigDecimal.ZERO;
     private String appliedCouponCode = null;
+    private boolean loyaltyEligible = false;
 
     // Business rules
     private static final BigDecimal MIN_CART_VALUE = new BigDecimal("200.00"); // Minimum 200 TL
-    private static final BigDecimal VAT_RATE = new BigDecimal("0.20"); // 20% VAT
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -116,6 +124,7 @@ public class CartController implements Initializable {
         productService = new ProductService();
         couponService = new CouponService();
         loyaltyService = new LoyaltyService();
+        deliverySlotService = DeliverySlotService.getInstance();
         cartItems = FXCollections.observableArrayList();
 
         for (int i = 0; i < 24; i++) {
@@ -129,9 +138,58 @@ public class CartController implements Initializable {
         deliveryHourComboBox.setValue(10);
         deliveryMinuteComboBox.setValue(0);
 
+        setupDeliverySlots();
         setupTable();
     }
 
+    /**
+     * Show the remaining capacity of each delivery hour and disable full ones.
+     * Availability comes from the in-memory slot cache, which is refreshed in
+     * the background whenever the picker is opened.
+     */
+    private void setupDeliverySlots() {
+        deliveryHourComboBox.setButtonCell(new ListCell<>() {
+            @Override
+            protected void updateItem(Integer hour, boolean empty) {
+                super.updateItem(hour, empty);
+                setText(empty || hour == null ? null : String.format("%02d:00", hour));
+            }
+        });
+        refreshDeliverySlots();
+        deliveryDatePicker.valueProperty().addListener((obs, oldDate, newDate) -> refreshDeliverySlots());
+        deliveryHourComboBox.setOnShowing(e -> AsyncExecutor.onFx(deliverySlotService.refreshIfStale(),
+                loaded -> refreshDeliverySlots(), null));
+        AsyncExecutor.onFx(deliverySlotService.refreshIfStale(), loaded -> refreshDeliverySlots(), null);
+    }
+
+    /**
+     * Re-render the hour cells for the selected date.
+     * Setting a new cell factory makes the list rebuild its cells.
+     */
+    private void refreshDeliverySlots() {
+        LocalDate date = deliveryDatePicker.getValue();
+        deliveryHourComboBox.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(Integer hour, boolean empty) {
+                super.updateItem(hour, empty);
+                if (empty || hour == null) {
+                    setText(null);
+                    setDisable(false);
+                    return;
+                }
+                String label = String.format("%02d:00", hour);
+                if (date == null) {
+                    setText(label);
+                    setDisable(false);
+                    return;
+                }
+                int remaining = deliverySlotService.getRemaining(date.atTime(hour, 0));
+                setText(remaining > 0 ? label + " (" + remaining + " left)" : label + " (full)");
+                setDisable(remaining == 0);
+            }
+        });
+    }
+
     /**
      * Set cart items from customer controller.
      * 
@@ -154,6 +212,14 @@ public class CartController implements Initializable {
         }
         cartItems.setAll(items);
         updateTotal();
+
+        // Loyalty status does not change while the cart is open; look it up once
+        int customerId = com.group05.greengrocer.util.Session.getInstance().getCurrentUserId();
+        AsyncExecutor.getInstance().submitThenOnFx(() -> loyaltyService.isEligibleForLoyaltyDiscount(customerId),
+                eligible -> {
+                    loyaltyEligible = eligible;
+                    updateTotal();
+                });
     }
 
     /**
@@ -199,24 +265,11 @@ public class CartController implements Initializable {
      * Update total and all cost breakdown labels.
      */
     private void updateTotal() {
-        subtotal = BigDecimal.ZERO;
-        for (OrderItem item : cartItems) {
-            subtotal = subtotal.add(item.getSubtotal());
-        }
-
-        vatAmount = subtotal.multiply(VAT_RATE);
-
-        int completedOrdersCount = loyaltyService.getCompletedOrdersCount(
-                com.group05.greengrocer.util.Session.getInstance().getCurrentUserId());
-        loyaltyDiscount = BigDecimal.ZERO;
-        int threshold = com.group05.greengrocer.service.LoyaltyService.getLoyaltyThreshold();
-        BigDecimal discountPercent = com.group05.greengrocer.service.LoyaltyService.getLoyaltyDiscountPercent();
-        if (completedOrdersCount >= threshold) {
-            loyaltyDiscount = subtotal.multiply(discountPercent).divide(new BigDecimal("100"), 2,
-                    java.math.RoundingMode.HALF_UP);
-        }
-
-        total = subtotal.add(vatAmount).subtract(couponDiscount).subtract(loyaltyDiscount);
+        PriceBreakdown breakdown = PricingEngine.price(cartItems, couponDiscount, loyaltyEligible);
+        subtotal = breakdown.getSubtotal().toBigDecimal();
+        vatAmount = breakdown.getVatAmount().toBigDecimal();
+        loyaltyDiscount = breakdown.getLoyaltyDiscount().toBigDecimal();
+        total = breakdown.getTotal().toBigDecimal();
 
         subtotalLabel.setText("₺" + subtotal.setScale(2, java.math.RoundingMode.HALF_UP));
         vatLabel.setText("₺" + vatAmount.setScale(2, java.math.RoundingMode.HALF_UP));
@@ -289,6 +342,11 @@ public class CartController implements Initializable {
             return;
         }
 
+        if (deliverySlotService.getRemaining(deliveryDateTime) == 0) {
+            showError("The selected delivery time slot is full. Please choose another time.");
+            return;
+        }
+
         if (!showOrderSummary(address, deliveryDateTime)) {
             return;
         }
@@ -308,41 +366,71 @@ public class CartController implements Initializable {
         List<OrderItem> items = new ArrayList<>(cartItems);
         order.setItems(items);
 
-        try {
-            if (orderService.createOrderWithDetails(order, items, deliveryDateTime)) {
-                if (appliedCouponCode != null) {
-                    couponService.markCouponAsUsed(appliedCouponCode,
-                            com.group05.greengrocer.util.Session.getInstance().getCurrentUserId());
-                }
-
-                byte[] pdfBytes = orderService.generateInvoicePDF(order);
-                if (pdfBytes != null) {
-                    orderService.saveInvoicePDF(order.getOrderId(), pdfBytes);
-                    String invoicePath = "invoices/order_" + order.getOrderId() + ".pdf";
-                    java.io.File dir = new java.io.File("invoices");
-                    if (!dir.exists())
-                        dir.mkdirs();
-                    try (java.io.FileOutputStream fos = new java.io.FileOutputStream(invoicePath)) {
-                        fos.write(pdfBytes);
-                    } catch (java.io.IOException e) {
-                        System.err.println("Error saving invoice file: " + e.getMessage());
-                        e.printStackTrace();
+        int customerId = com.group05.greengrocer.util.Session.getInstance().getCurrentUserId();
+        String couponCode = appliedCouponCode;
+        checkoutButton.setDisable(true);
+
+        AsyncExecutor.onFx(AsyncExecutor.getInstance().submit(() -> placeOrder(order, items, deliveryDateTime,
+                couponCode, customerId)), invoice -> {
+                    checkoutButton.setDisable(false);
+                    if (invoice == null) {
+                        showError("Failed to create order. Please try again.");
+                        return;
                     }
-                    orderService.saveInvoicePath(order.getOrderId(), invoicePath);
-                    showInvoiceDownload(order.getOrderId(), invoicePath);
-                } else {
-                    showAlert(Alert.AlertType.ERROR, "Error", "Failed to generate invoice PDF.");
-                }
+                    AsyncExecutor.onFx(invoice, job -> {
+                        if (InvoiceJob.DONE.equals(job.getStatus())) {
+                            showInvoiceDownload(job.getOrderId(), job.getInvoicePath());
+                        } else {
+                            showAlert(Alert.AlertType.ERROR, "Error", "Failed to generate invoice PDF for order "
+                                    + order.getOrderId() + ". You can download it later from your order history.");
+                        }
+                    }, e -> showAlert(Alert.AlertType.INFORMATION, "Invoice", "The invoice for order "
+                            + order.getOrderId() + " is still being prepared. "
+                            + "You can download it later from your order history."));
+
+                    showAlert(Alert.AlertType.INFORMATION, "Success",
+                            "Order placed successfully! Order ID: " + order.getOrderId()
+                                    + "\nYour invoice is being prepared.");
+                    handleClose();
+                }, e -> {
+                    checkoutButton.setDisable(false);
+                    if (e instanceof IllegalArgumentException) {
+                        refreshDeliverySlots();
+                        showError(e.getMessage());
+                    } else {
+                        showError("Failed to create order: " + e.getMessage());
+                    }
+                });
+    }
 
-                showAlert(Alert.AlertType.INFORMATION, "Success",
-                        "Order placed successfully! Order ID: " + order.getOrderId());
-                handleClose();
-            } else {
-                showError("Failed to create order. Please try again.");
-            }
-        } catch (IllegalArgumentException e) {
-            showError(e.getMessage());
+    /**
+     * Create the order and its invoice job, consume the coupon and wake the
+     * invoice workers.
+     * Runs on a worker thread; must not touch any UI nodes. The invoice is
+     * generated in the background so checkout finishes once the order is
+     * committed.
+     * 
+     * @param order            The order to create
+     * @param items            The order items
+     * @param deliveryDateTime The requested delivery date and time
+     * @param couponCode       The applied coupon code, or null
+     * @param customerId       The ordering customer's ID
+     * @return A future completed when the invoice job finishes, or null if the
+     *         order was not created
+     */
+    private CompletableFuture<InvoiceJob> placeOrder(Order order, List<OrderItem> items,
+            LocalDateTime deliveryDateTime, String couponCode, int customerId) {
+        if (!orderService.createOrderWithDetails(order, items, deliveryDateTime)) {
+            return null;
         }
+        if (couponCode != null) {
+            couponService.markCouponAsUsed(couponCode, customerId);
+        }
+
+        InvoiceJobService invoiceJobService = InvoiceJobService.getInstance();
+        CompletableFuture<InvoiceJob> invoice = invoiceJobService.whenFinished(order.getOrderId());
+        invoiceJobService.wake();
+        return invoice;
     }
 
     /**
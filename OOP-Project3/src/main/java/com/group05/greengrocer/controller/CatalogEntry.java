@@ -0,0 +1,126 @@
+package com.group05.greengrocer.controller;
+
+import java.util.Objects;
+
+import com.group05.greengrocer.model.Product;
+
+/**
+ * A single row of the customer catalog list: either a product type header or
+ * a product.
+ * Product entries are equal when they share a view model and headers when
+ * they show the same group state, so list updates can be diffed.
+ */
+public class CatalogEntry {
+    private final String productType;
+    private final ProductViewModel viewModel;
+    private final int productCount;
+    private final boolean expanded;
+
+    /**
+     * Private constructor; use the factory methods.
+     */
+    private CatalogEntry(String productType, ProductViewModel viewModel, int productCount, boolean expanded) {
+        this.productType = productType;
+        this.viewModel = viewModel;
+        this.productCount = productCount;
+        this.expanded = expanded;
+    }
+
+    /**
+     * Create a header entry for a product type.
+     *
+     * @param productType  The product type
+     * @param productCount Number of products in the group
+     * @param expanded     Whether the group's products are shown
+     * @return The header entry
+     */
+    public static CatalogEntry header(String productType, int productCount, boolean expanded) {
+        return new CatalogEntry(productType, null, productCount, expanded);
+    }
+
+    /**
+     * Create a product entry.
+     *
+     * @param viewModel The product view model
+     * @return The product entry
+     */
+    public static CatalogEntry product(ProductViewModel viewModel) {
+        return new CatalogEntry(viewModel.getProduct().getProductType(), viewModel, 0, true);
+    }
+
+    /**
+     * Check whether this entry is a group header.
+     *
+     * @return true for headers, false for products
+     */
+    public boolean isHeader() {
+        return viewModel == null;
+    }
+
+    /**
+     * Get the product type of the group.
+     *
+     * @return The product type
+     */
+    public String getProductType() {
+        return productType;
+    }
+
+    /**
+     * Get the product shown by this entry.
+     *
+     * @return The product, or null for headers
+     */
+    public Product getProduct() {
+        return viewModel != null ? viewModel.getProduct() : null;
+    }
+
+    /**
+     * Get the view model of the product shown by this entry.
+     *
+     * @return The product view model, or null for headers
+     */
+    public ProductViewModel getViewModel() {
+        return viewModel;
+    }
+
+    /**
+     * Get the number of products in the group.
+     *
+     * @return The product count (headers only)
+     */
+    public int getProductCount() {
+        return productCount;
+    }
+
+    /**
+     * Check whether the group is expanded.
+     *
+     * @return true if the group's products are shown
+     */
+    public boolean isExpanded() {
+        return expanded;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CatalogEntry)) {
+            return false;
+        }
+        CatalogEntry other = (CatalogEntry) obj;
+        if (viewModel != null || other.viewModel != null) {
+            return viewModel == other.viewModel;
+        }
+        return productCount == other.productCount && expanded == other.expanded
+                && Objects.equals(productType, other.productType);
+    }
+
+    @Override
+    public int hashCode() {
+        return viewModel != null ? System.identityHashCode(viewModel)
+                : Objects.hash(productType, productCount, expanded);
+    }
+}
@@ -1,29 +1,40 @@
 package com.group05.greengrocer.controller;
 
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
-import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
+import com.group05.greengrocer.model.Money;
 import com.group05.greengrocer.model.OrderItem;
 import com.group05.greengrocer.model.Product;
+import com.group05.greengrocer.model.ProductQuery;
 import com.group05.greengrocer.service.AuthService;
+import com.group05.greengrocer.service.PricingEngine;
 import com.group05.greengrocer.service.ProductService;
+import com.group05.greengrocer.util.AsyncExecutor;
+import com.group05.greengrocer.util.InvoiceCache;
 
 import javafx.animation.KeyFrame;
+import javafx.animation.PauseTransition;
 import javafx.animation.Timeline;
 import javafx.util.Duration;
 
@@ -62,7 +73,7 @@ public class CustomerController {
     private Button messageOwnerButton;
 
     @FXML
-    private VBox productsContainer;
+    private ListView<CatalogEntry> productsList;
 
     @FXML
     private ComboBox<String> sortComboBox;
@@ -71,8 +82,17 @@ public class CustomerController {
     private AuthService authService;
     private com.group05.greengrocer.service.OrderService orderService;
     private Map<Integer, OrderItem> cart; // productId -> OrderItem
+    private static final int CATALOG_LIMIT_PER_TYPE = 500;
+    private static final Duration SEARCH_DEBOUNCE = Duration.millis(250);
     private Timeline autoRefreshTimeline;
-    private static final Map<String, javafx.scene.image.Image> imageCache = new HashMap<>();
+    private AsyncExecutor asyncExecutor;
+    private CompletableFuture<?> catalogLoad;
+    private long catalogGeneration; // bumped per load/search; older results are dropped
+    private String shownSearchKey; // search term and sort of the results on screen
+    private PauseTransition searchDebounce;
+    private Map<String, List<ProductViewModel>> shownCatalog = new LinkedHashMap<>();
+    private final Map<Integer, ProductViewModel> productViews = new HashMap<>(); // productId -> view model
+    private final Set<String> collapsedTypes = new HashSet<>();
 
     /**
      * Initialize the controller.
@@ -82,6 +102,7 @@ public class CustomerController {
         productService = new ProductService();
         authService = new AuthService();
         orderService = new com.group05.greengrocer.service.OrderService();
+        asyncExecutor = AsyncExecutor.getInstance();
         cart = new HashMap<>();
 
         if (authService.getCurrentUser() != null) {
@@ -89,15 +110,34 @@ public class CustomerController {
             welcomeLabel.setText("Welcome, " + authService.getCurrentUser().getFullName());
         }
 
-        sortComboBox.getItems().addAll("Name (A-Z)", "Name (Z-A)", "Price (Low-High)", "Price (High-Low)");
+        sortComboBox.getItems().addAll("Name (A-Z)", "Name (Z-A)", "Price (Low-High)", "Price (High-Low)",
+                "Stock (High-Low)");
         sortComboBox.setValue("Name (A-Z)");
         sortComboBox.setOnAction(e -> handleSortChange());
 
+        productsList.setCellFactory(list -> new ProductListCell(this::handleAddToCart, this::toggleProductType));
+        productsList.setPlaceholder(new Label("No products found."));
+        productsList.setFocusTraversable(false);
+
+        setupSearchAsYouType();
+
         loadProductsByType();
+        asyncExecutor.submit("customer.searchIndex", productService::rebuildSearchIndex);
 
         setupAutoRefresh();
     }
 
+    /**
+     * Run the search while the user types.
+     * Each keystroke restarts a short pause; the search only runs once typing
+     * stops, so a burst of keystrokes costs one search.
+     */
+    private void setupSearchAsYouType() {
+        searchDebounce = new PauseTransition(SEARCH_DEBOUNCE);
+        searchDebounce.setOnFinished(e -> handleSearch());
+        searchField.textProperty().addListener((obs, oldText, newText) -> searchDebounce.playFromStart());
+    }
+
     /**
      * Setup automatic refresh of product prices and stocks every 5 seconds.
      * This avoids recreating the entire UI, which improves performance.
@@ -116,56 +156,23 @@ public class CustomerController {
      * This prevents the "heavy" feeling and flickering.
      */
     private void updateProductDataOnly() {
-        List<Product> freshProducts = productService.getAvailableProducts();
-        Map<Integer, Product> freshMap = new HashMap<>();
-        for (Product p : freshProducts) {
-            freshMap.put(p.getProductId(), p);
-        }
-
-        for (javafx.scene.Node titledNode : productsContainer.getChildren()) {
-            if (titledNode instanceof TitledPane) {
-                TitledPane tp = (TitledPane) titledNode;
-                if (tp.getContent() instanceof VBox) {
-                    VBox content = (VBox) tp.getContent();
-                    for (javafx.scene.Node rowNode : content.getChildren()) {
-                        if (rowNode instanceof HBox) {
-                            HBox row = (HBox) rowNode;
-                            if (row.getUserData() instanceof Product) {
-                                Product p = (Product) row.getUserData();
-                                Product fresh = freshMap.get(p.getProductId());
-                                if (fresh != null) {
-                                    updateRowLabels(p, fresh, row);
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        }
+        CompletableFuture<List<Product>> future = asyncExecutor.submit("customer.availableProducts",
+                productService::getAvailableProducts);
+        AsyncExecutor.onFx(future, this::applyFreshProducts, null);
     }
 
     /**
-     * Helper to update labels in a row without DB calls.
+     * Apply freshly loaded product data to the shown products.
+     * Each product is found through the productId index and only changed
+     * properties are written; bound cells update themselves.
+     * 
+     * @param freshProducts The latest available products
      */
-    private void updateRowLabels(Product local, Product fresh, HBox row) {
-        local.setStock(fresh.getStock());
-        local.setThreshold(fresh.getThreshold());
-        local.setPricePerKg(fresh.getPricePerKg());
-
-        for (javafx.scene.Node node : row.getChildren()) {
-            if (node instanceof Label) {
-                Label label = (Label) node;
-                Object userData = label.getUserData();
-                if ("price".equals(userData)) {
-                    BigDecimal displayPrice = productService.getDisplayPrice(local);
-                    String priceText = "₺" + displayPrice + "/kg";
-                    if (displayPrice.compareTo(local.getPricePerKg()) > 0) {
-                        priceText += " (2x)";
-                    }
-                    label.setText(priceText);
-                } else if ("stock".equals(userData)) {
-                    label.setText("Stock: " + local.getStock() + " kg");
-                }
+    private void applyFreshProducts(List<Product> freshProducts) {
+        for (Product fresh : freshProducts) {
+            ProductViewModel viewModel = productViews.get(fresh.getProductId());
+            if (viewModel != null) {
+                viewModel.update(fresh, productService.getDisplayPrice(fresh));
             }
         }
     }
@@ -175,88 +182,209 @@ public class CustomerController {
      */
     @FXML
     private void handleRefresh() {
-        if (searchField.getText().trim().isEmpty()) {
+        String searchTerm = searchField.getText().trim();
+        if (searchTerm.isEmpty()) {
             loadProductsByType();
+            asyncExecutor.submit("customer.searchIndex", productService::rebuildSearchIndex);
         } else {
-            handleSearch();
+            runSearch(searchTerm, true);
         }
     }
 
     /**
-     * Load products grouped by type using TitledPane.
+     * Load products grouped by type into the catalog list.
+     * The whole catalog is fetched with one query on a worker thread; the list
+     * entries are built on the FX thread once the data arrives.
      */
     private void loadProductsByType() {
-        productsContainer.getChildren().clear();
+        long generation = cancelCatalogLoad();
+        shownSearchKey = null;
 
-        List<String> types = productService.getProductTypes();
+        ProductQuery query = buildCatalogQuery();
+        CompletableFuture<Map<String, List<Product>>> future = asyncExecutor.submit(
+                () -> productService.getCatalog(query));
+        catalogLoad = future;
 
-        for (String type : types) {
-            List<Product> products = productService.getProductsByType(type);
-            if (!products.isEmpty()) {
-                TitledPane titledPane = createProductTypePane(type, products);
-                productsContainer.getChildren().add(titledPane);
+        AsyncExecutor.onFx(future, catalog -> showCatalog(catalog, generation),
+                e -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to load products: " + e.getMessage()));
+    }
+
+    /**
+     * Cancel a catalog load or search that is still running and start a new
+     * generation, so a stale result never replaces a newer one even if it
+     * already finished.
+     * 
+     * @return The generation of the load about to start
+     */
+    private long cancelCatalogLoad() {
+        if (catalogLoad != null && !catalogLoad.isDone()) {
+            catalogLoad.cancel(true);
+        }
+        return ++catalogGeneration;
+    }
+
+    /**
+     * Show products grouped by type in the catalog list.
+     * View models of products that stay on screen are reused and updated in
+     * place, and the list is diffed rather than replaced.
+     * 
+     * @param productsByType Products keyed by product type, in display order
+     * @param generation     The load generation that produced the products
+     */
+    private void showCatalog(Map<String, List<Product>> productsByType, long generation) {
+        if (generation != catalogGeneration) {
+            return;
+        }
+        Map<String, List<ProductViewModel>> viewModelsByType = new LinkedHashMap<>();
+        Map<Integer, ProductViewModel> previousViews = new HashMap<>(productViews);
+        productViews.clear();
+        for (Map.Entry<String, List<Product>> entry : productsByType.entrySet()) {
+            List<ProductViewModel> viewModels = new ArrayList<>();
+            for (Product product : entry.getValue()) {
+                ProductViewModel viewModel = previousViews.get(product.getProductId());
+                if (viewModel != null && sameListing(viewModel.getProduct(), product)) {
+                    viewModel.update(product, productService.getDisplayPrice(product));
+                } else {
+                    viewModel = new ProductViewModel(product, productService.getDisplayPrice(product));
+                }
+                productViews.put(product.getProductId(), viewModel);
+                viewModels.add(viewModel);
             }
+            viewModelsByType.put(entry.getKey(), viewModels);
         }
+        shownCatalog = viewModelsByType;
+        rebuildCatalogEntries();
+    }
+
+    /**
+     * Check whether a shown product can keep its row for fresh data.
+     * Price and stock are bound; name, type, description and image are not,
+     * so a change to any of them gets a new row. A replaced stored image
+     * shows up as a new image version.
+     */
+    private static boolean sameListing(Product shown, Product fresh) {
+        return shown == fresh
+                || (Objects.equals(shown.getProductName(), fresh.getProductName())
+                        && Objects.equals(shown.getProductType(), fresh.getProductType())
+                        && Objects.equals(shown.getDescription(), fresh.getDescription())
+                        && Objects.equals(shown.getImageUrl(), fresh.getImageUrl())
+                        && shown.getImageVersion() == fresh.getImageVersion()
+                        && (shown.getImageData() == null) == (fresh.getImageData() == null));
     }
 
     /**
-     * Create a TitledPane for a product type.
+     * Flatten the shown catalog into list entries, skipping the products of
+     * collapsed groups.
+     */
+    private void rebuildCatalogEntries() {
+        List<CatalogEntry> entries = new ArrayList<>();
+        for (Map.Entry<String, List<ProductViewModel>> entry : shownCatalog.entrySet()) {
+            boolean expanded = !collapsedTypes.contains(entry.getKey());
+            entries.add(CatalogEntry.header(entry.getKey(), entry.getValue().size(), expanded));
+            if (expanded) {
+                for (ProductViewModel viewModel : entry.getValue()) {
+                    entries.add(CatalogEntry.product(viewModel));
+                }
+            }
+        }
+        applyEntries(entries);
+    }
+
+    /**
+     * Bring the list items in line with the target entries using in-place
+     * inserts and removals, so unchanged rows keep their cells and scroll
+     * position. Falls back to a single replace when little is shared or the
+     * shared rows changed order.
      * 
-     * @param type     The product type
-     * @param products The list of products for this type
-     * @return The TitledPane containing products
+     * @param entries The entries to show, in order
      */
-    private TitledPane createProductTypePane(String type, List<Product> products) {
-        List<Product> sortedProducts = sortProducts(new ArrayList<>(products));
+    private void applyEntries(List<CatalogEntry> entries) {
+        ObservableList<CatalogEntry> items = productsList.getItems();
+        Set<CatalogEntry> target = new HashSet<>(entries);
+        int shared = 0;
+        for (CatalogEntry item : items) {
+            if (target.contains(item)) {
+                shared++;
+            }
+        }
+        if (shared * 2 < Math.max(items.size(), entries.size())) {
+            items.setAll(entries);
+            return;
+        }
 
-        VBox content = new VBox(10);
-        content.setPadding(new javafx.geometry.Insets(10));
+        items.removeIf(item -> !target.contains(item));
+        Set<CatalogEntry> kept = new HashSet<>(items);
+        int next = 0;
+        for (CatalogEntry entry : entries) {
+            if (kept.contains(entry)) {
+                if (!items.get(next).equals(entry)) {
+                    items.setAll(entries);
+                    return;
+                }
+                next++;
+            }
+        }
 
-        for (Product product : sortedProducts) {
-            HBox productRow = createProductRow(product);
-            content.getChildren().add(productRow);
+        // Kept rows are in target order; insert each run of new entries
+        int i = 0;
+        while (i < entries.size()) {
+            if (i < items.size() && items.get(i).equals(entries.get(i))) {
+                i++;
+                continue;
+            }
+            int end = i + 1;
+            while (end < entries.size() && !kept.contains(entries.get(end))) {
+                end++;
+            }
+            items.addAll(i, entries.subList(i, end));
+            i = end;
         }
+    }
 
-        TitledPane titledPane = new TitledPane(type, content);
-        titledPane.setExpanded(true);
-        return titledPane;
+    /**
+     * Expand or collapse a product type group.
+     * 
+     * @param productType The product type whose header was clicked
+     */
+    private void toggleProductType(String productType) {
+        if (!collapsedTypes.remove(productType)) {
+            collapsedTypes.add(productType);
+        }
+        rebuildCatalogEntries();
     }
 
     /**
-     * Sort products based on selected sort option.
+     * Build the catalog query for the selected sort option.
+     * Sorting, filtering and the per-type row limit are applied by the database.
      * 
-     * @param products The list of products to sort
-     * @return The sorted list of products
+     * @return The catalog query
      */
-    private List<Product> sortProducts(List<Product> products) {
+    private ProductQuery buildCatalogQuery() {
+        ProductQuery query = new ProductQuery();
+        query.setLimit(CATALOG_LIMIT_PER_TYPE);
+
         String sortOption = sortComboBox.getValue();
         if (sortOption == null) {
             sortOption = "Name (A-Z)";
         }
-
         switch (sortOption) {
-            case "Name (A-Z)":
-                products.sort((p1, p2) -> p1.getProductName().compareToIgnoreCase(p2.getProductName()));
-                break;
             case "Name (Z-A)":
-                products.sort((p1, p2) -> p2.getProductName().compareToIgnoreCase(p1.getProductName()));
+                query.setSortKey(ProductQuery.SortKey.NAME_DESC);
                 break;
             case "Price (Low-High)":
-                products.sort((p1, p2) -> {
-                    BigDecimal price1 = productService.getDisplayPrice(p1);
-                    BigDecimal price2 = productService.getDisplayPrice(p2);
-                    return price1.compareTo(price2);
-                });
+                query.setSortKey(ProductQuery.SortKey.PRICE_ASC);
                 break;
             case "Price (High-Low)":
-                products.sort((p1, p2) -> {
-                    BigDecimal price1 = productService.getDisplayPrice(p1);
-                    BigDecimal price2 = productService.getDisplayPrice(p2);
-                    return price2.compareTo(price1);
-                });
+                query.setSortKey(ProductQuery.SortKey.PRICE_DESC);
+                break;
+            case "Stock (High-Low)":
+                query.setSortKey(ProductQuery.SortKey.STOCK_DESC);
+                break;
+            default:
+                query.setSortKey(ProductQuery.SortKey.NAME_ASC);
                 break;
         }
-        return products;
+        return query;
     }
 
     /**
@@ -271,109 +399,13 @@ public class CustomerController {
         }
     }
 
-    /**
-     * Create a row for a product with add to cart functionality.
-     * 
-     * @param product The product to create a row for
-     * @return The HBox containing the product row
-     */
-    private HBox createProductRow(Product product) {
-        HBox row = new HBox(10);
-        row.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
-
-        row.setUserData(product);
-
-        javafx.scene.image.ImageView imageView = null;
-        try {
-            javafx.scene.image.Image image = null;
-            // 1. Try BLOB (Priority)
-            if (product.getImageData() != null && product.getImageData().length > 0) {
-                image = new javafx.scene.image.Image(new ByteArrayInputStream(product.getImageData()), 100, 100, true,
-                        true);
-            }
-            // 2. Try URL (Fallback & Migration)
-            else if (product.getImageUrl() != null && !product.getImageUrl().isEmpty()) {
-                if (imageCache.containsKey(product.getImageUrl())) {
-                    image = imageCache.get(product.getImageUrl());
-                } else {
-                    image = new javafx.scene.image.Image(product.getImageUrl(), 100, 100, true, true, true);
-                    imageCache.put(product.getImageUrl(), image);
-
-                    // Migration: Download and Save as BLOB (Background)
-                    final String url = product.getImageUrl();
-                    final Product p = product;
-                    new Thread(() -> {
-                        try {
-                            java.net.URL imageUrl = new java.net.URL(url);
-                            try (java.io.InputStream in = imageUrl.openStream()) {
-                                byte[] bytes = in.readAllBytes(); // Java 9+
-                                p.setImageData(bytes);
-                                // Update DB
-                                new com.group05.greengrocer.service.ProductService().updateProduct(p);
-                                System.out.println("Migrated image to BLOB for: " + p.getProductName());
-                            }
-                        } catch (Exception ex) {
-                            // Silent fail for migration
-                        }
-                    }).start();
-                }
-            }
-
-            if (image != null) {
-                imageView = new javafx.scene.image.ImageView(image);
-                imageView.setFitWidth(100);
-                imageView.setFitHeight(100);
-                imageView.setPreserveRatio(true);
-                imageView.setSmooth(true);
-                imageView.setCache(true);
-            }
-        } catch (Exception e) {
-            System.err.println("Error loading image: " + e.getMessage());
-        }
-
-        Label nameLabel = new Label(product.getProductName());
-        nameLabel.setPrefWidth(200);
-
-        BigDecimal displayPrice = productService.getDisplayPrice(product);
-        String priceText = "₺" + displayPrice + "/kg";
-        if (displayPrice.compareTo(product.getPricePerKg()) > 0) {
-            priceText += " (2x)";
-        }
-        Label priceLabel = new Label(priceText);
-        priceLabel.setPrefWidth(120);
-        priceLabel.setUserData("price");
-
-        Label stockLabel = new Label("Stock: " + product.getStock() + " kg");
-        stockLabel.setPrefWidth(120);
-        stockLabel.setUserData("stock");
-
-        TextField quantityField = new TextField();
-        quantityField.setPromptText("kg");
-        quantityField.setPrefWidth(80);
-
-        Button addButton = new Button("Add to Cart");
-        addButton.setOnAction(e -> handleAddToCart(product, quantityField, row));
-
-        if (imageView != null) {
-            imageView.setStyle("-fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.3), 5, 0, 0, 2);");
-            row.getChildren().addAll(imageView, nameLabel, priceLabel, stockLabel, quantityField, addButton);
-        } else {
-            Label placeholderLabel = new Label("📦");
-            placeholderLabel.setStyle("-fx-font-size: 30px; -fx-padding: 10px;");
-            row.getChildren().addAll(placeholderLabel, nameLabel, priceLabel, stockLabel, quantityField, addButton);
-        }
-        return row;
-    }
-
     /**
      * Handle add to cart action.
      * 
      * @param product       The product to add to cart
      * @param quantityField The quantity input field
-     * @param productRow    The product row HBox for refreshing
      */
-    @FXML
-    private void handleAddToCart(Product product, TextField quantityField, HBox productRow) {
+    private void handleAddToCart(Product product, TextField quantityField) {
         String quantityStr = quantityField.getText().trim();
 
         if (!com.group05.greengrocer.util.Validation.isValidQuantity(quantityStr)) {
@@ -411,78 +443,109 @@ public class CustomerController {
         quantityField.clear();
         showAlert(Alert.AlertType.INFORMATION, "Success", "Product added to cart!");
 
-        refreshProductRow(product, productRow);
+        refreshProduct(product);
     }
 
     /**
-     * Refresh a single product row with updated price and stock.
+     * Refresh a single product with updated price and stock.
      * 
      * @param product The product to refresh
-     * @param row     The product row HBox to update
      */
-    private void refreshProductRow(Product product, HBox row) {
-        Product freshProduct = productService.getProductById(product.getProductId());
-        if (freshProduct == null) {
-            return;
-        }
-
-        // Update product object
-        product.setStock(freshProduct.getStock());
-        product.setThreshold(freshProduct.getThreshold());
-        product.setPricePerKg(freshProduct.getPricePerKg());
-
-        // Find and update price and stock labels
-        for (javafx.scene.Node node : row.getChildren()) {
-            if (node instanceof Label) {
-                Label label = (Label) node;
-                Object userData = label.getUserData();
-
-                if ("price".equals(userData)) {
-                    // Update price label
-                    BigDecimal displayPrice = productService.getDisplayPrice(product);
-                    String priceText = "₺" + displayPrice + "/kg";
-                    if (displayPrice.compareTo(product.getPricePerKg()) > 0) {
-                        priceText += " (2x)";
-                    }
-                    label.setText(priceText);
-                } else if ("stock".equals(userData)) {
-                    // Update stock label
-                    label.setText("Stock: " + product.getStock() + " kg");
-                }
+    private void refreshProduct(Product product) {
+        asyncExecutor.submitThenOnFx(() -> productService.getProductById(product.getProductId()), freshProduct -> {
+            ProductViewModel viewModel = productViews.get(product.getProductId());
+            if (freshProduct != null && viewModel != null) {
+                viewModel.update(freshProduct, productService.getDisplayPrice(freshProduct));
             }
-        }
+        });
     }
 
     /**
      * Handle search action.
+     * Runs immediately from the search button, or after the debounce pause
+     * while typing.
      */
     @FXML
     private void handleSearch() {
+        searchDebounce.stop();
         String searchTerm = searchField.getText().trim();
 
-        productsContainer.getChildren().clear();
-
         if (searchTerm.isEmpty()) {
             loadProductsByType();
             return;
         }
 
-        List<Product> products = productService.searchProducts(searchTerm);
+        runSearch(searchTerm, false);
+    }
 
-        if (products.isEmpty()) {
-            Label noResultsLabel = new Label("No products found.");
-            productsContainer.getChildren().add(noResultsLabel);
-        } else {
-            Map<String, List<Product>> groupedProducts = new HashMap<>();
-            for (Product product : products) {
-                groupedProducts.computeIfAbsent(product.getProductType(), k -> new ArrayList<>()).add(product);
+    /**
+     * Search the product index on a worker thread and show the results.
+     * 
+     * @param searchTerm   The search text
+     * @param rebuildIndex Whether to reload the index from the database first
+     */
+    private void runSearch(String searchTerm, boolean rebuildIndex) {
+        String sortOption = sortComboBox.getValue();
+        String searchKey = searchTerm + '\u0000' + sortOption;
+        if (!rebuildIndex && searchKey.equals(shownSearchKey)) {
+            // Back to what is on screen; drop any newer search still running
+            cancelCatalogLoad();
+            return;
+        }
+        long generation = cancelCatalogLoad();
+        CompletableFuture<Map<String, List<Product>>> future = asyncExecutor.submit(() -> {
+            if (rebuildIndex) {
+                productService.rebuildSearchIndex();
             }
+            return groupSearchResults(productService.searchProducts(searchTerm), sortOption);
+        });
+        catalogLoad = future;
 
-            for (Map.Entry<String, List<Product>> entry : groupedProducts.entrySet()) {
-                TitledPane titledPane = createProductTypePane(entry.getKey(), entry.getValue());
-                productsContainer.getChildren().add(titledPane);
+        AsyncExecutor.onFx(future, catalog -> {
+            showCatalog(catalog, generation);
+            if (generation == catalogGeneration) {
+                shownSearchKey = searchKey;
+            }
+        }, e -> showAlert(Alert.AlertType.ERROR, "Error", "Search failed: " + e.getMessage()));
+    }
+
+    /**
+     * Sort search results and group them by product type.
+     * The default sort keeps the relevance order from the index; other options
+     * sort in memory, pricing each product once.
+     * 
+     * @param results    Search results, best match first
+     * @param sortOption The selected sort option
+     * @return Products keyed by product type, in display order
+     */
+    private static Map<String, List<Product>> groupSearchResults(List<Product> results, String sortOption) {
+        List<Product> sorted = new ArrayList<>(results);
+        Comparator<Product> byName = Comparator.comparing(Product::getProductName, String.CASE_INSENSITIVE_ORDER);
+        if (sortOption != null) {
+            switch (sortOption) {
+                case "Name (Z-A)":
+                    sorted.sort(byName.reversed());
+                    break;
+                case "Price (Low-High)":
+                case "Price (High-Low)":
+                    Map<Integer, Money> prices = PricingEngine.snapshot(sorted);
+                    Comparator<Product> byPrice = PricingEngine.byUnitPrice(prices);
+                    sorted.sort((sortOption.equals("Price (Low-High)") ? byPrice : byPrice.reversed())
+                            .thenComparing(byName));
+                    break;
+                case "Stock (High-Low)":
+                    sorted.sort(Comparator.comparing(Product::getStock).reversed().thenComparing(byName));
+                    break;
+                default:
+                    break;
             }
         }
+
+        Map<String, List<Product>> grouped = new LinkedHashMap<>();
+        for (Product product : sorted) {
+            grouped.computeIfAbsent(product.getProductType(), k -> new ArrayList<>()).add(product);
+        }
+        return grouped;
     }
 
     /**
@@ -602,21 +665,29 @@ public class CustomerController {
                 return;
             }
 
-            String result = authService.updateProfile(fullName,
+            // Keep the dialog open until the update is saved in the background
+            e.consume();
+            okButton.setDisable(true);
+            AsyncExecutor.onFx(asyncExecutor.submit(() -> authService.updateProfile(fullName,
                     email.isEmpty() ? null : email,
                     phone.isEmpty() ? null : phone,
-                    address.isEmpty() ? null : address);
-
-            if (!"SUCCESS".equals(result)) {
-                showAlert(Alert.AlertType.ERROR, "Update Failed", result);
-                e.consume();
-            } else {
-                showAlert(Alert.AlertType.INFORMATION, "Success",
-                        "Profile updated successfully!");
-                if (authService.getCurrentUser() != null) {
-                    welcomeLabel.setText("Welcome, " + authService.getCurrentUser().getFullName());
-                }
-            }
+                    address.isEmpty() ? null : address)), result -> {
+                        okButton.setDisable(false);
+                        if (!"SUCCESS".equals(result)) {
+                            showAlert(Alert.AlertType.ERROR, "Update Failed", result);
+                            return;
+                        }
+                        dialog.setResult(null);
+                        dialog.close();
+                        showAlert(Alert.AlertType.INFORMATION, "Success",
+                                "Profile updated successfully!");
+                        if (authService.getCurrentUser() != null) {
+                            welcomeLabel.setText("Welcome, " + authService.getCurrentUser().getFullName());
+                        }
+                    }, error -> {
+                        okButton.setDisable(false);
+                        showAlert(Alert.AlertType.ERROR, "Update Failed", error.getMessage());
+                    });
         });
 
         dialog.setResultConverter(buttonType -> null);
@@ -682,9 +753,20 @@ public class CustomerController {
      */
     @FXML
     private void handleViewOrderHistory() {
-        try {
-            List<com.group05.greengrocer.model.Order> orders = orderService.getCustomerOrders();
+        AsyncExecutor.onFx(asyncExecutor.submit(orderService::getCustomerOrders), this::showOrderHistory,
+                error -> {
+                    showAlert(Alert.AlertType.ERROR, "Error", "Failed to load order history: " + error.getMessage());
+                    error.printStackTrace();
+                });
+    }
 
+    /**
+     * Show the order history dialog.
+     * 
+     * @param orders The customer's orders
+     */
+    private void showOrderHistory(List<com.group05.greengrocer.model.Order> orders) {
+        try {
             Dialog<Void> dialog = new Dialog<>();
             dialog.setTitle("My Orders");
             dialog.setHeaderText("Order History");
@@ -789,12 +871,17 @@ public class CustomerController {
 
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                if (orderService.cancelOrderByCustomer(order.getOrderId())) {
-                    showAlert(Alert.AlertType.INFORMATION, "Success", "Order cancelled successfully.");
-                    handleViewOrderHistory();
-                } else {
-                    showAlert(Alert.AlertType.ERROR, "Error", "Failed to cancel order. It may be too late to cancel.");
-                }
+                AsyncExecutor.onFx(asyncExecutor.submit(() -> orderService.cancelOrderByCustomer(order.getOrderId())),
+                        cancelled -> {
+                            if (cancelled) {
+                                showAlert(Alert.AlertType.INFORMATION, "Success", "Order cancelled successfully.");
+                                handleViewOrderHistory();
+                            } else {
+                                showAlert(Alert.AlertType.ERROR, "Error",
+                                        "Failed to cancel order. It may be too late to cancel.");
+                            }
+                        }, error -> showAlert(Alert.AlertType.ERROR, "Error",
+                                "Failed to cancel order: " + error.getMessage()));
             }
         });
     }
@@ -837,13 +924,16 @@ public class CustomerController {
 
         dialog.showAndWait().ifPresent(result -> {
             com.group05.greengrocer.service.RatingService ratingService = new com.group05.greengrocer.service.RatingService();
-            if (ratingService.rateCarrier(order.getOrderId(), order.getCarrierId(),
-                    com.group05.greengrocer.util.Session.getInstance().getCurrentUserId(),
-                    result.getKey(), result.getValue())) {
-                showAlert(Alert.AlertType.INFORMATION, "Success", "Thank you for your rating!");
-            } else {
-                showAlert(Alert.AlertType.ERROR, "Error", "Failed to submit rating.");
-            }
+            int customerId = com.group05.greengrocer.util.Session.getInstance().getCurrentUserId();
+            AsyncExecutor.onFx(asyncExecutor.submit(() -> ratingService.rateCarrier(order.getOrderId(),
+                    order.getCarrierId(), customerId, result.getKey(), result.getValue())), rated -> {
+                        if (rated) {
+                            showAlert(Alert.AlertType.INFORMATION, "Success", "Thank you for your rating!");
+                        } else {
+                            showAlert(Alert.AlertType.ERROR, "Error", "Failed to submit rating.");
+                        }
+                    }, error -> showAlert(Alert.AlertType.ERROR, "Error",
+                            "Failed to submit rating: " + error.getMessage()));
         });
     }
 
@@ -853,73 +943,91 @@ public class CustomerController {
      * @param order The order to download invoice for
      */
     private void handleDownloadInvoice(com.group05.greengrocer.model.Order order) {
-        java.io.File invoiceFile = null;
+        AsyncExecutor.onFx(asyncExecutor.submit(() -> {
+            try {
+                return prepareInvoiceFile(order);
+            } catch (Exception e) {
+                throw new java.util.concurrent.CompletionException(e);
+            }
+        }), invoiceFile -> {
+            // Inform the user (Do not auto-open to prevent crashes)
+            if (invoiceFile != null) {
+                showAlert(Alert.AlertType.INFORMATION, "Invoice Saved",
+                        "Invoice generated successfully.\nLocation: " + invoiceFile.toAbsolutePath());
+            } else {
+                showAlert(Alert.AlertType.WARNING, "Not Found", "Could not generate invoice file.");
+            }
+        }, error -> {
+            error.printStackTrace();
+            showAlert(Alert.AlertType.ERROR, "Error", "Failed to recover invoice: " + error.getMessage());
+        });
+    }
 
-        // 1. Try to find existing file from path
-        if (order.getInvoicePath() != null && !order.getInvoicePath().isEmpty()) {
-            invoiceFile = new java.io.File(order.getInvoicePath());
+    /**
+     * Make the invoice file of an order available locally.
+     * Runs on a worker thread. A file that already holds the stored invoice
+     * is left as it is.
+     * 
+     * @param order The order
+     * @return The invoice file, or null if it could not be generated
+     * @throws IOException if the file cannot be written
+     */
+    private java.nio.file.Path prepareInvoiceFile(com.group05.greengrocer.model.Order order) throws IOException {
+        InvoiceCache invoiceCache = InvoiceCache.getInstance();
+        java.nio.file.Path invoiceFile = java.nio.file.Paths.get("invoices", "order_" + order.getOrderId() + ".pdf");
+
+        // 1. Keep a file that already matches the stored invoice, otherwise copy
+        // the cached version of the order row's invoice without the database
+        String invoiceHash = order.getInvoiceHash();
+        if (invoiceHash != null && java.nio.file.Files.isRegularFile(invoiceFile)
+                && invoiceHash.equals(InvoiceCache.hashOf(invoiceFile))) {
+            return invoiceFile;
+        }
+        if (invoiceCache.copyTo(order.getOrderId(), invoiceHash, invoiceFile)) {
+            return invoiceFile;
         }
 
-        // 2. If file doesn't exist locally, try to recover
-        if (invoiceFile == null || !invoiceFile.exists()) {
-            try {
-                // A. Check if PDF exists in DB (BLOB)
-                byte[] pdfBytes = orderService.getInvoicePDF(order.getOrderId());
-
-                // B. If not in DB, Regenerate it on the fly
-                if (pdfBytes == null) {
-                    // Ensure items are loaded
-                    if (order.getItems() == null || order.getItems().isEmpty()) {
-                        com.group05.greengrocer.model.Order fullOrder = orderService.getOrderById(order.getOrderId());
-                        if (fullOrder != null) {
-                            order.setItems(fullOrder.getItems());
-                            // Sync other fields if necessary
-                            order.setDeliveryAddress(fullOrder.getDeliveryAddress());
-                            order.setOrderDate(fullOrder.getOrderDate());
-                            order.setDeliveryDate(fullOrder.getDeliveryDate());
-                        }
-                    }
-                    pdfBytes = orderService.generateInvoicePDF(order);
-
-                    // Save to DB for future
-                    if (pdfBytes != null) {
-                        orderService.saveInvoicePDF(order.getOrderId(), pdfBytes);
-                    }
+        // 2. A. Check if PDF exists in DB (BLOB)
+        byte[] pdfBytes = orderService.getInvoicePDF(order.getOrderId());
+
+        // B. If not in DB, Regenerate it on the fly
+        if (pdfBytes == null) {
+            // Ensure items are loaded
+            if (order.getItems() == null || order.getItems().isEmpty()) {
+                com.group05.greengrocer.model.Order fullOrder = orderService.getOrderById(order.getOrderId());
+                if (fullOrder != null) {
+                    order.setItems(fullOrder.getItems());
+                    // Sync other fields if necessary
+                    order.setDeliveryAddress(fullOrder.getDeliveryAddress());
+                    order.setOrderDate(fullOrder.getOrderDate());
+                    order.setDeliveryDate(fullOrder.getDeliveryDate());
                 }
+            }
+            pdfBytes = orderService.generateInvoicePDF(order);
 
-                // C. Write bytes to local file
-                if (pdfBytes != null) {
-                    String fileName = "invoices/order_" + order.getOrderId() + ".pdf";
-                    java.io.File dir = new java.io.File("invoices");
-                    if (!dir.exists())
-                        dir.mkdirs();
-
-                    try (java.io.FileOutputStream fos = new java.io.FileOutputStream(fileName)) {
-                        fos.write(pdfBytes);
-                    }
-
-                    invoiceFile = new java.io.File(fileName);
-
-                    // Update path in DB if it was missing
-                    if (order.getInvoicePath() == null || order.getInvoicePath().isEmpty()) {
-                        orderService.saveInvoicePath(order.getOrderId(), fileName);
-                        order.setInvoicePath(fileName);
-                    }
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
-                showAlert(Alert.AlertType.ERROR, "Error", "Failed to recover invoice: " + e.getMessage());
-                return;
+            // Save to DB for future
+            if (pdfBytes != null) {
+                orderService.saveInvoicePDF(order.getOrderId(), pdfBytes);
             }
         }
 
-        // 3. Inform the user (Do not auto-open to prevent crashes)
-        if (invoiceFile != null && invoiceFile.exists()) {
-            showAlert(Alert.AlertType.INFORMATION, "Invoice Saved",
-                    "Invoice generated successfully.\nLocation: " + invoiceFile.getAbsolutePath());
-        } else {
-            showAlert(Alert.AlertType.WARNING, "Not Found", "Could not generate invoice file.");
+        if (pdfBytes == null) {
+            return null;
         }
+
+        // C. Cache the bytes and write the local file
+        invoiceCache.put(order.getOrderId(), pdfBytes);
+        order.setInvoiceHash(InvoiceCache.hashOf(pdfBytes));
+        java.nio.file.Files.createDirectories(invoiceFile.getParent());
+        java.nio.file.Files.write(invoiceFile, pdfBytes);
+
+        // Update path in DB if it was missing
+        if (order.getInvoicePath() == null || order.getInvoicePath().isEmpty()) {
+            String fileName = "invoices/" + invoiceFile.getFileName();
+            orderService.saveInvoicePath(order.getOrderId(), fileName);
+            order.setInvoicePath(fileName);
+        }
+        return invoiceFile;
     }
 
     /**
@@ -956,13 +1064,16 @@ public class CustomerController {
 
         dialog.showAndWait().ifPresent(result -> {
             com.group05.greengrocer.service.MessageService messageService = new com.group05.greengrocer.service.MessageService();
-            if (messageService.sendMessageToOwner(
-                    com.group05.greengrocer.util.Session.getInstance().getCurrentUserId(),
-                    result.getKey(), result.getValue())) {
-                showAlert(Alert.AlertType.INFORMATION, "Success", "Message sent successfully!");
-            } else {
-                showAlert(Alert.AlertType.ERROR, "Error", "Failed to send message.");
-            }
+            int customerId = com.group05.greengrocer.util.Session.getInstance().getCurrentUserId();
+            AsyncExecutor.onFx(asyncExecutor.submit(() -> messageService.sendMessageToOwner(customerId,
+                    result.getKey(), result.getValue())), sent -> {
+                        if (sent) {
+                            showAlert(Alert.AlertType.INFORMATION, "Success", "Message sent successfully!");
+                        } else {
+                            showAlert(Alert.AlertType.ERROR, "Error", "Failed to send message.");
+                        }
+                    }, error -> showAlert(Alert.AlertType.ERROR, "Error",
+                            "Failed to send message: " + error.getMessage()));
         });
     }
 }
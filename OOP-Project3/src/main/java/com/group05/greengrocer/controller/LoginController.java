@@ -13,6 +13,7 @@ import java.io.IOException;
 
 import com.group05.greengrocer.model.User;
 import com.group05.greengrocer.service.AuthService;
+import com.group05.greengrocer.util.AsyncExecutor;
 import com.group05.greengrocer.util.Validation;
 
 /**
@@ -60,17 +61,25 @@ public class LoginController {
             return;
         }
 
-        if (authService.login(username, password)) {
-            String role = authService.getCurrentUser().getRole();
-            try {
-                navigateToRoleView(role);
-            } catch (IOException e) {
-                showError("Error loading dashboard: " + e.getMessage());
-                e.printStackTrace();
-            }
-        } else {
-            showError("Invalid username or password.");
-        }
+        loginButton.setDisable(true);
+        AsyncExecutor.onFx(AsyncExecutor.getInstance().submit(() -> authService.login(username, password)),
+                success -> {
+                    loginButton.setDisable(false);
+                    if (success) {
+                        String role = authService.getCurrentUser().getRole();
+                        try {
+                            navigateToRoleView(role);
+                        } catch (IOException e) {
+                            showError("Error loading dashboard: " + e.getMessage());
+                            e.printStackTrace();
+                        }
+                    } else {
+                        showError("Invalid username or password.");
+                    }
+                }, e -> {
+                    loginButton.setDisable(false);
+                    showError("Login failed: " + e.getMessage());
+                });
     }
 
     /**
@@ -6,6 +6,7 @@ import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.geometry.Insets;
+import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.chart.BarChart;
@@ -22,16 +23,31 @@ import java.io.IOException;
 import java.math.BigDecimal;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.group05.greengrocer.model.Order;
 import com.group05.greengrocer.model.Product;
 import com.group05.greengrocer.model.User;
 import com.group05.greengrocer.service.AuthService;
+import com.group05.greengrocer.service.DeliverySlotService;
+import com.group05.greengrocer.service.DispatchScheduler;
+import com.group05.greengrocer.service.ImageMigrationService;
+import com.group05.greengrocer.service.InvoiceExportService;
 import com.group05.greengrocer.service.OwnerService;
 import com.group05.greengrocer.service.ProductService;
+import com.group05.greengrocer.service.UserDirectory;
+import com.group05.greengrocer.util.AsyncExecutor;
+import com.group05.greengrocer.util.ImageCache;
 
 /**
  * Controller for the owner view.
@@ -46,6 +62,36 @@ public class OwnerController implements Initializable {
     @FXML
     private TabPane mainTabPane;
 
+    @FXML
+    private Tab productsTab;
+
+    @FXML
+    private Tab carriersTab;
+
+    @FXML
+    private Tab allOrdersTab;
+
+    @FXML
+    private Tab messagesTab;
+
+    @FXML
+    private ToggleButton autoDispatchToggle;
+
+    @FXML
+    private Label dispatchMetricsLabel;
+
+    @FXML
+    private Button exportInvoicesButton;
+
+    @FXML
+    private Label imageMetricsLabel;
+
+    @FXML
+    private Tab couponsTab;
+
+    @FXML
+    private Tab ratingsTab;
+
     @FXML
     private TableView<Product> productsTable;
 
@@ -185,6 +231,9 @@ public class OwnerController implements Initializable {
     private com.group05.greengrocer.service.MessageService messageService;
     private com.group05.greengrocer.service.CouponService couponService;
     private com.group05.greengrocer.service.RatingService ratingService;
+    private AsyncExecutor asyncExecutor;
+    private UserDirectory userDirectory;
+    private UserNameCells userNameCells;
 
     private ObservableList<Product> products;
     private ObservableList<User> carriers;
@@ -192,6 +241,9 @@ public class OwnerController implements Initializable {
     private ObservableList<com.group05.greengrocer.model.Message> messages;
     private ObservableList<com.group05.greengrocer.model.Coupon> coupons;
     private ObservableList<com.group05.greengrocer.model.CarrierRating> ratings;
+    private final Map<Tab, Runnable> tabLoaders = new HashMap<>();
+    private final Set<Tab> loadedTabs = new HashSet<>();
+    private long reportGeneration;
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -202,6 +254,9 @@ public class OwnerController implements Initializable {
         messageService = new com.group05.greengrocer.service.MessageService();
         couponService = new com.group05.greengrocer.service.CouponService();
         ratingService = new com.group05.greengrocer.service.RatingService();
+        asyncExecutor = AsyncExecutor.getInstance();
+        userDirectory = UserDirectory.getInstance();
+        userNameCells = UserNameCells.getInstance();
 
         products = FXCollections.observableArrayList();
         carriers = FXCollections.observableArrayList();
@@ -215,15 +270,228 @@ public class OwnerController implements Initializable {
         }
 
         setupTables();
-        loadData();
-
-        checkLowStockProducts();
 
         if (mainTabPane != null) {
             for (Tab tab : mainTabPane.getTabs()) {
                 tab.setClosable(false);
             }
         }
+
+        setupLazyTabs();
+        setupAutoDispatch();
+        loadInto(products, productsTable, "owner.products", productService::getAllProducts, () -> {
+            checkLowStockProducts();
+            updateImageMetrics();
+        });
+        loadedTabs.add(productsTab);
+        ensureTabLoaded(mainTabPane.getSelectionModel().getSelectedItem());
+    }
+
+    /**
+     * Register the loader of each tab and load a tab's data the first time it
+     * is selected. Products are always loaded up front for the low stock
+     * warning.
+     */
+    private void setupLazyTabs() {
+        tabLoaders.put(productsTab, () -> loadInto(products, productsTable, "owner.products",
+                productService::getAllProducts, this::updateImageMetrics));
+        tabLoaders.put(carriersTab, () -> loadInto(carriers, carriersTable, "owner.carriers",
+                ownerService::getAllCarriers, null));
+        tabLoaders.put(allOrdersTab, this::loadAllOrders);
+        tabLoaders.put(messagesTab, this::loadMessages);
+        tabLoaders.put(couponsTab, () -> {
+            loadCoupons();
+            loadLoyaltyStandards();
+        });
+        tabLoaders.put(ratingsTab, this::loadRatings);
+
+        mainTabPane.getSelectionModel().selectedItemProperty()
+                .addListener((obs, oldTab, newTab) -> ensureTabLoaded(newTab));
+    }
+
+    /**
+     * Reflect the dispatcher state, refresh the metrics after each automatic
+     * assignment run and the orders after runs that assigned any.
+     */
+    private void setupAutoDispatch() {
+        DispatchScheduler dispatcher = DispatchScheduler.getInstance();
+        autoDispatchToggle.setSelected(dispatcher.isRunning());
+        updateDispatchMetrics();
+        dispatcher.setOnDispatched(assigned -> AsyncExecutor.runOnFx(() -> {
+            updateDispatchMetrics();
+            if (assigned > 0 && loadedTabs.contains(allOrdersTab)) {
+                loadAllOrders();
+            }
+        }));
+    }
+
+    /**
+     * Handle auto dispatch toggle action.
+     */
+    @FXML
+    private void handleToggleAutoDispatch() {
+        DispatchScheduler dispatcher = DispatchScheduler.getInstance();
+        if (autoDispatchToggle.isSelected()) {
+            dispatcher.start();
+        } else {
+            dispatcher.stop();
+        }
+        updateDispatchMetrics();
+    }
+
+    /**
+     * Show the dispatcher state and metrics.
+     */
+    private void updateDispatchMetrics() {
+        DispatchScheduler dispatcher = DispatchScheduler.getInstance();
+        dispatchMetricsLabel.setText(dispatcher.isRunning()
+                ? "Auto dispatch on: " + dispatcher.getMetricsSummary()
+                : "Automatic carrier assignment is off.");
+    }
+
+    /**
+     * Show the progress of the product image migration and the decoded image
+     * cache usage.
+     */
+    private void updateImageMetrics() {
+        imageMetricsLabel.setText("Image migration: " + ImageMigrationService.getInstance().getProgressSummary()
+                + "\nImage cache: " + ImageCache.getInstance().getStatsSummary());
+    }
+
+    /**
+     * Handle export invoices action.
+     * Writes the invoices of the chosen orders to a ZIP file in the background.
+     */
+    @FXML
+    private void handleExportInvoices() {
+        Dialog<javafx.util.Pair<javafx.util.Pair<java.time.LocalDate, java.time.LocalDate>, String>> dialog = new Dialog<>();
+        dialog.setTitle("Export Invoices");
+        dialog.setHeaderText("Export the invoices of orders placed in a date range");
+
+        DatePicker fromPicker = new DatePicker(java.time.LocalDate.now().withDayOfMonth(1));
+        DatePicker toPicker = new DatePicker(java.time.LocalDate.now());
+        ComboBox<String> statusCombo = new ComboBox<>(FXCollections.observableArrayList(
+                "All", "Pending", "Assigned", "InTransit", "Delivered", "Cancelled"));
+        statusCombo.setValue("All");
+
+        VBox content = new VBox(10);
+        content.setPadding(new Insets(20));
+        content.getChildren().addAll(
+                new Label("From:"), fromPicker,
+                new Label("To:"), toPicker,
+                new Label("Status:"), statusCombo);
+
+        dialog.getDialogPane().setContent(content);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+        dialog.setResultConverter(buttonType -> {
+            if (buttonType == ButtonType.OK) {
+                return new javafx.util.Pair<>(new javafx.util.Pair<>(fromPicker.getValue(), toPicker.getValue()),
+                        statusCombo.getValue());
+            }
+            return null;
+        });
+
+        dialog.showAndWait().ifPresent(result -> {
+            java.time.LocalDate from = result.getKey().getKey();
+            java.time.LocalDate to = result.getKey().getValue();
+            if (from == null || to == null || to.isBefore(from)) {
+                showAlert(Alert.AlertType.ERROR, "Invalid Input", "Please choose a valid date range.");
+                return;
+            }
+            String status = "All".equals(result.getValue()) ? null : result.getValue();
+            java.io.File zipFile = new java.io.File("invoices", "invoices_" + from + "_" + to
+                    + (status != null ? "_" + status : "") + ".zip");
+
+            exportInvoicesButton.setDisable(true);
+            AsyncExecutor.onFx(asyncExecutor.submit(() -> {
+                zipFile.getParentFile().mkdirs();
+                try (java.io.OutputStream out = new java.io.BufferedOutputStream(
+                        new java.io.FileOutputStream(zipFile))) {
+                    return InvoiceExportService.getInstance().export(from, to, status, out);
+                } catch (IOException | java.sql.SQLException e) {
+                    throw new java.util.concurrent.CompletionException(e);
+                }
+            }), count -> {
+                exportInvoicesButton.setDisable(false);
+                showAlert(Alert.AlertType.INFORMATION, "Invoices Exported",
+                        count + " invoice(s) exported.\nLocation: " + zipFile.getAbsolutePath());
+            }, error -> {
+                exportInvoicesButton.setDisable(false);
+                error.printStackTrace();
+                showAlert(Alert.AlertType.ERROR, "Error", "Failed to export invoices: " + error.getMessage());
+            });
+        });
+    }
+
+    /**
+     * Handle slot capacity action.
+     * Sets the capacity used for delivery slots that have none yet and,
+     * optionally, the capacity of one slot.
+     */
+    @FXML
+    private void handleSlotCapacity() {
+        DeliverySlotService deliverySlotService = DeliverySlotService.getInstance();
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Slot Capacity");
+        dialog.setHeaderText("Set how many orders a one-hour delivery slot accepts");
+
+        Spinner<Integer> defaultSpinner = new Spinner<>(1, 500, DeliverySlotService.getDefaultCapacity());
+        defaultSpinner.setEditable(true);
+        DatePicker slotDatePicker = new DatePicker();
+        ComboBox<Integer> slotHourCombo = new ComboBox<>();
+        for (int hour = 0; hour < 24; hour++) {
+            slotHourCombo.getItems().add(hour);
+        }
+        slotHourCombo.setPromptText("Hour");
+        Spinner<Integer> slotSpinner = new Spinner<>(0, 500, DeliverySlotService.getDefaultCapacity());
+        slotSpinner.setEditable(true);
+
+        VBox content = new VBox(10);
+        content.setPadding(new Insets(20));
+        content.getChildren().addAll(
+                new Label("Default capacity (slots without their own):"), defaultSpinner,
+                new Label("Single slot (optional):"), new HBox(10, slotDatePicker, slotHourCombo),
+                new Label("Capacity of that slot:"), slotSpinner);
+
+        dialog.getDialogPane().setContent(content);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+        dialog.showAndWait().filter(buttonType -> buttonType == ButtonType.OK).ifPresent(buttonType -> {
+            DeliverySlotService.setDefaultCapacity(defaultSpinner.getValue());
+            java.time.LocalDate slotDate = slotDatePicker.getValue();
+            Integer slotHour = slotHourCombo.getValue();
+            if (slotDate == null || slotHour == null) {
+                showAlert(Alert.AlertType.INFORMATION, "Slot Capacity",
+                        "Default capacity set to " + DeliverySlotService.getDefaultCapacity() + ".");
+                return;
+            }
+            java.time.LocalDateTime slotStart = slotDate.atTime(slotHour, 0);
+            int capacity = slotSpinner.getValue();
+            asyncExecutor.submitThenOnFx(() -> deliverySlotService.setCapacity(slotStart, capacity), saved -> {
+                if (saved) {
+                    showAlert(Alert.AlertType.INFORMATION, "Slot Capacity",
+                            "Capacity of the " + slotStart + " slot set to " + capacity + ".");
+                } else {
+                    showAlert(Alert.AlertType.ERROR, "Error", "Failed to save the slot capacity.");
+                }
+            });
+        });
+    }
+
+    /**
+     * Load a tab's data unless it is already loaded.
+     * 
+     * @param tab The tab about to be shown
+     */
+    private void ensureTabLoaded(Tab tab) {
+        if (tab == null || !loadedTabs.add(tab)) {
+            return;
+        }
+        Runnable loader = tabLoaders.get(tab);
+        if (loader != null) {
+            loader.run();
+        }
     }
 
     /**
@@ -258,29 +526,11 @@ public class OwnerController implements Initializable {
      */
     private void setupAllOrdersTable() {
         allOrderIdColumn.setCellValueFactory(new PropertyValueFactory<>("orderId"));
-        allCustomerColumn.setCellValueFactory(cellData -> {
-            try {
-                com.group05.greengrocer.model.User customer = ownerService
-                        .getUserById(cellData.getValue().getCustomerId());
-                return new javafx.beans.property.SimpleStringProperty(
-                        customer != null ? customer.getFullName() : "Unknown");
-            } catch (Exception e) {
-                return new javafx.beans.property.SimpleStringProperty("Unknown");
-            }
-        });
-        allCarrierColumn.setCellValueFactory(cellData -> {
-            try {
-                if (cellData.getValue().getCarrierId() != null) {
-                    com.group05.greengrocer.model.User carrier = ownerService
-                            .getUserById(cellData.getValue().getCarrierId());
-                    return new javafx.beans.property.SimpleStringProperty(
-                            carrier != null ? carrier.getFullName() : "Unknown");
-                }
-                return new javafx.beans.property.SimpleStringProperty("Not assigned");
-            } catch (Exception e) {
-                return new javafx.beans.property.SimpleStringProperty("Unknown");
-            }
-        });
+        allCustomerColumn.setCellValueFactory(
+                cellData -> userNameCells.displayNameProperty(cellData.getValue().getCustomerId()));
+        allCarrierColumn.setCellValueFactory(cellData -> cellData.getValue().getCarrierId() != null
+                ? userNameCells.displayNameProperty(cellData.getValue().getCarrierId())
+                : new javafx.beans.property.SimpleStringProperty("Not assigned"));
         allStatusColumn.setCellValueFactory(new PropertyValueFactory<>("status"));
         allTotalColumn.setCellValueFactory(cellData -> new javafx.beans.property.SimpleDoubleProperty(
                 cellData.getValue().getTotalCost().doubleValue()).asObject());
@@ -296,16 +546,8 @@ public class OwnerController implements Initializable {
      */
     private void setupMessagesTable() {
         messageIdColumn.setCellValueFactory(new PropertyValueFactory<>("messageId"));
-        messageCustomerColumn.setCellValueFactory(cellData -> {
-            try {
-                com.group05.greengrocer.model.User customer = ownerService
-                        .getUserById(cellData.getValue().getCustomerId());
-                return new javafx.beans.property.SimpleStringProperty(
-                        customer != null ? customer.getFullName() : "Unknown");
-            } catch (Exception e) {
-                return new javafx.beans.property.SimpleStringProperty("Unknown");
-            }
-        });
+        messageCustomerColumn.setCellValueFactory(
+                cellData -> userNameCells.displayNameProperty(cellData.getValue().getCustomerId()));
         messageSubjectColumn.setCellValueFactory(new PropertyValueFactory<>("subject"));
         messageDateColumn.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
                 cellData.getValue().getCreatedAt() != null ? cellData.getValue().getCreatedAt().toString() : ""));
@@ -340,16 +582,8 @@ public class OwnerController implements Initializable {
      */
     private void setupCouponsTable() {
         couponIdColumn.setCellValueFactory(new PropertyValueFactory<>("couponId"));
-        couponCustomerColumn.setCellValueFactory(cellData -> {
-            try {
-                com.group05.greengrocer.model.User customer = ownerService
-                        .getUserById(cellData.getValue().getCustomerId());
-                return new javafx.beans.property.SimpleStringProperty(
-                        customer != null ? customer.getFullName() : "Unknown");
-            } catch (Exception e) {
-                return new javafx.beans.property.SimpleStringProperty("Unknown");
-            }
-        });
+        couponCustomerColumn.setCellValueFactory(
+                cellData -> userNameCells.displayNameProperty(cellData.getValue().getCustomerId()));
         couponCodeColumn.setCellValueFactory(new PropertyValueFactory<>("couponCode"));
         couponDiscountColumn.setCellValueFactory(cellData -> {
             java.math.BigDecimal discount = cellData.getValue().getDiscountAmount();
@@ -368,26 +602,10 @@ public class OwnerController implements Initializable {
      */
     private void setupRatingsTable() {
         ratingIdColumn.setCellValueFactory(new PropertyValueFactory<>("ratingId"));
-        ratingCarrierColumn.setCellValueFactory(cellData -> {
-            try {
-                com.group05.greengrocer.model.User carrier = ownerService
-                        .getUserById(cellData.getValue().getCarrierId());
-                return new javafx.beans.property.SimpleStringProperty(
-                        carrier != null ? carrier.getFullName() : "Unknown");
-            } catch (Exception e) {
-                return new javafx.beans.property.SimpleStringProperty("Unknown");
-            }
-        });
-        ratingCustomerColumn.setCellValueFactory(cellData -> {
-            try {
-                com.group05.greengrocer.model.User customer = ownerService
-                        .getUserById(cellData.getValue().getCustomerId());
-                return new javafx.beans.property.SimpleStringProperty(
-                        customer != null ? customer.getFullName() : "Unknown");
-            } catch (Exception e) {
-                return new javafx.beans.property.SimpleStringProperty("Unknown");
-            }
-        });
+        ratingCarrierColumn.setCellValueFactory(
+                cellData -> userNameCells.displayNameProperty(cellData.getValue().getCarrierId()));
+        ratingCustomerColumn.setCellValueFactory(
+                cellData -> userNameCells.displayNameProperty(cellData.getValue().getCustomerId()));
         ratingValueColumn.setCellValueFactory(new PropertyValueFactory<>("rating"));
         ratingCommentColumn.setCellValueFactory(new PropertyValueFactory<>("comment"));
         ratingDateColumn.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
@@ -396,16 +614,57 @@ public class OwnerController implements Initializable {
     }
 
     /**
-     * Load data for all tables.
+     * Reload data after a change.
+     * The selected tab is reloaded now; the other tabs are marked stale and
+     * reload when next selected.
      */
     private void loadData() {
-        products.setAll(productService.getAllProducts());
-        carriers.setAll(ownerService.getAllCarriers());
-        loadAllOrders();
-        loadMessages();
-        loadCoupons();
-        loadRatings();
-        loadLoyaltyStandards();
+        loadedTabs.clear();
+        ensureTabLoaded(mainTabPane.getSelectionModel().getSelectedItem());
+    }
+
+    /**
+     * Fetch a list on a worker thread and publish it to a table's backing list
+     * on the FX thread. The table shows a progress indicator while loading.
+     * 
+     * @param <T>     The row type
+     * @param target  The observable list to replace
+     * @param table   The table showing the list
+     * @param key     De-duplication key for identical in-flight loads
+     * @param loader  Service call returning the rows
+     * @param onLoaded Optional action run on the FX thread after the rows are set
+     */
+    private <T> void loadInto(ObservableList<T> target, TableView<T> table, String key, Supplier<List<T>> loader,
+            Runnable onLoaded) {
+        table.setPlaceholder(new ProgressIndicator());
+        AsyncExecutor.onFx(asyncExecutor.submit(key, loader), rows -> {
+            table.setPlaceholder(new Label("No content in table"));
+            target.setAll(rows);
+            if (onLoaded != null) {
+                onLoaded.run();
+            }
+        }, e -> {
+            table.setPlaceholder(new Label("Failed to load data"));
+            System.err.println("Error loading " + key + ": " + e.getMessage());
+            e.printStackTrace();
+        });
+    }
+
+    /**
+     * Wrap a loader so the names of the users its rows reference are cached
+     * with one batch query before the rows reach the table.
+     * 
+     * @param <T>     The row type
+     * @param loader  Service call returning the rows
+     * @param userIds The user IDs referenced by a row (nulls are ignored)
+     * @return The wrapped loader
+     */
+    private <T> Supplier<List<T>> withUserNames(Supplier<List<T>> loader, Function<T, Stream<Integer>> userIds) {
+        return () -> {
+            List<T> rows = loader.get();
+            userDirectory.preload(rows.stream().flatMap(userIds).collect(Collectors.toSet()));
+            return rows;
+        };
     }
 
     /**
@@ -434,44 +693,34 @@ public class OwnerController implements Initializable {
      * Load all orders.
      */
     private void loadAllOrders() {
-        try {
-            allOrders.setAll(orderService.getAllOrders());
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        loadInto(allOrders, allOrdersTable, "owner.orders",
+                withUserNames(orderService::getAllOrders, o -> Stream.of(o.getCustomerId(), o.getCarrierId())),
+                null);
     }
 
     /**
      * Load messages.
      */
     private void loadMessages() {
-        try {
-            messages.setAll(ownerService.getAllMessages());
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        loadInto(messages, messagesTable, "owner.messages",
+                withUserNames(ownerService::getAllMessages, m -> Stream.of(m.getCustomerId())), null);
     }
 
     /**
      * Load coupons.
      */
     private void loadCoupons() {
-        try {
-            coupons.setAll(ownerService.getAllCoupons());
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        loadInto(coupons, couponsTable, "owner.coupons",
+                withUserNames(ownerService::getAllCoupons, c -> Stream.of(c.getCustomerId())), null);
     }
 
     /**
      * Load ratings.
      */
     private void loadRatings() {
-        try {
-            ratings.setAll(ownerService.getAllRatings());
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        loadInto(ratings, ratingsTable, "owner.ratings",
+                withUserNames(ownerService::getAllRatings, r -> Stream.of(r.getCarrierId(), r.getCustomerId())),
+                null);
     }
 
     /**
@@ -499,14 +748,8 @@ public class OwnerController implements Initializable {
     @FXML
     private void handleAddProduct() {
         Dialog<Product> dialog = createProductDialog(null);
-        dialog.showAndWait().ifPresent(product -> {
-            if (productService.createProduct(product)) {
-                showAlert(Alert.AlertType.INFORMATION, "Success", "Product added successfully!");
-                loadData();
-            } else {
-                showAlert(Alert.AlertType.ERROR, "Error", "Failed to add product.");
-            }
-        });
+        dialog.showAndWait().ifPresent(product -> submitChange(() -> productService.createProduct(product),
+                "Product added successfully!", "Failed to add product.", this::loadData));
     }
 
     /**
@@ -537,19 +780,8 @@ public class OwnerController implements Initializable {
             System.out.println("Description: " + product.getDescription());
             System.out.println("Image URL: " + product.getImageUrl());
 
-            try {
-                if (productService.updateProduct(product)) {
-                    showAlert(Alert.AlertType.INFORMATION, "Success", "Product updated successfully!");
-                    loadData();
-                } else {
-                    showAlert(Alert.AlertType.ERROR, "Error",
-                            "Failed to update product. Please check console for details.");
-                }
-            } catch (Exception e) {
-                showAlert(Alert.AlertType.ERROR, "Error",
-                        "Failed to update product: " + e.getMessage());
-                e.printStackTrace();
-            }
+            submitChange(() -> productService.updateProduct(product), "Product updated successfully!",
+                    "Failed to update product. Please check console for details.", this::loadData);
         });
     }
 
@@ -566,25 +798,15 @@ public class OwnerController implements Initializable {
 
         Dialog<DiscountInfo> dialog = createDiscountDialog(selected);
         dialog.showAndWait().ifPresent(discountInfo -> {
-            try {
-                BigDecimal originalPrice = selected.getPricePerKg();
-                BigDecimal discountPercent = discountInfo.discountPercent;
-                BigDecimal discountAmount = originalPrice.multiply(discountPercent.divide(new BigDecimal("100")));
-                BigDecimal newPrice = originalPrice.subtract(discountAmount);
-
-                selected.setPricePerKg(newPrice);
-                if (productService.updateProduct(selected)) {
-                    showAlert(Alert.AlertType.INFORMATION, "Success",
-                            String.format("Discount applied! New price: ₺%.2f (%.1f%% off)",
-                                    newPrice, discountPercent));
-                    loadData();
-                } else {
-                    showAlert(Alert.AlertType.ERROR, "Error", "Failed to apply discount.");
-                }
-            } catch (Exception e) {
-                showAlert(Alert.AlertType.ERROR, "Error", "Failed to apply discount: " + e.getMessage());
-                e.printStackTrace();
-            }
+            BigDecimal originalPrice = selected.getPricePerKg();
+            BigDecimal discountPercent = discountInfo.discountPercent;
+            BigDecimal discountAmount = originalPrice.multiply(discountPercent.divide(new BigDecimal("100")));
+            BigDecimal newPrice = originalPrice.subtract(discountAmount);
+
+            selected.setPricePerKg(newPrice);
+            submitChange(() -> productService.updateProduct(selected),
+                    String.format("Discount applied! New price: ₺%.2f (%.1f%% off)", newPrice, discountPercent),
+                    "Failed to apply discount.", this::loadData);
         });
     }
 
@@ -689,12 +911,8 @@ public class OwnerController implements Initializable {
 
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                if (productService.deleteProduct(selected.getProductId())) {
-                    showAlert(Alert.AlertType.INFORMATION, "Success", "Product deleted successfully!");
-                    loadData();
-                } else {
-                    showAlert(Alert.AlertType.ERROR, "Error", "Failed to delete product.");
-                }
+                submitChange(() -> productService.deleteProduct(selected.getProductId()),
+                        "Product deleted successfully!", "Failed to delete product.", this::loadData);
             }
         });
     }
@@ -852,14 +1070,8 @@ public class OwnerController implements Initializable {
     @FXML
     private void handleHireCarrier() {
         Dialog<User> dialog = createCarrierDialog(null);
-        dialog.showAndWait().ifPresent(carrier -> {
-            if (ownerService.hireCarrier(carrier)) {
-                showAlert(Alert.AlertType.INFORMATION, "Success", "Carrier hired successfully!");
-                loadData();
-            } else {
-                showAlert(Alert.AlertType.ERROR, "Error", "Failed to hire carrier.");
-            }
-        });
+        dialog.showAndWait().ifPresent(carrier -> submitChange(() -> ownerService.hireCarrier(carrier),
+                "Carrier hired successfully!", "Failed to hire carrier.", this::loadData));
     }
 
     /**
@@ -880,12 +1092,8 @@ public class OwnerController implements Initializable {
 
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                if (ownerService.fireCarrier(selected.getUserId())) {
-                    showAlert(Alert.AlertType.INFORMATION, "Success", "Carrier fired successfully!");
-                    loadData();
-                } else {
-                    showAlert(Alert.AlertType.ERROR, "Error", "Failed to fire carrier.");
-                }
+                submitChange(() -> ownerService.fireCarrier(selected.getUserId()),
+                        "Carrier fired successfully!", "Failed to fire carrier.", this::loadData);
             }
         });
     }
@@ -1018,34 +1226,37 @@ public class OwnerController implements Initializable {
 
     /**
      * Handle profit report action.
+     * The report is read on a worker thread.
      */
     @FXML
     private void handleProfitReport() {
-        reportsContainer.getChildren().clear();
-
-        Map<String, Object> report = ownerService.getProfitReport();
-        BigDecimal totalProfit = (BigDecimal) report.get("totalProfit");
-        Integer totalOrders = (Integer) report.get("totalOrders");
-
-        Label titleLabel = new Label("Profit Report");
-        titleLabel.setStyle("-fx-font-size: 18px; -fx-font-weight: bold;");
+        loadReport("Profit Report", "owner.profitReport", ownerService::getProfitReport, report -> {
+            BigDecimal totalProfit = (BigDecimal) report.get("totalProfit");
+            Integer totalOrders = (Integer) report.get("totalOrders");
 
-        Label profitLabel = new Label("Total Profit: ₺" + totalProfit);
-        Label ordersLabel = new Label("Total Delivered Orders: " + totalOrders);
-
-        reportsContainer.getChildren().addAll(titleLabel, profitLabel, ordersLabel);
+            Label profitLabel = new Label("Total Profit: ₺" + totalProfit);
+            Label ordersLabel = new Label("Total Delivered Orders: " + totalOrders);
+            return new VBox(10, profitLabel, ordersLabel);
+        });
     }
 
     /**
      * Handle delivered orders report action.
+     * The orders are read on a worker thread.
      */
     @FXML
     private void handleDeliveredOrders() {
-        reportsContainer.getChildren().clear();
-
-        Label titleLabel = new Label("Delivered Orders Report");
-        titleLabel.setStyle("-fx-font-size: 18px; -fx-font-weight: bold;");
+        loadReport("Delivered Orders Report", "owner.deliveredOrders", ownerService::getDeliveredOrdersReport,
+                this::createDeliveredOrdersTable);
+    }
 
+    /**
+     * Create the delivered orders report table.
+     * 
+     * @param deliveredOrders The delivered orders
+     * @return The report table
+     */
+    private TableView<Order> createDeliveredOrdersTable(List<Order> deliveredOrders) {
         TableView<Order> table = new TableView<>();
         TableColumn<Order, Integer> orderIdCol = new TableColumn<>("Order ID");
         TableColumn<Order, Double> totalCol = new TableColumn<>("Total Cost");
@@ -1060,47 +1271,89 @@ public class OwnerController implements Initializable {
         table.getColumns().add(orderIdCol);
         table.getColumns().add(totalCol);
         table.getColumns().add(dateCol);
-        table.setItems(FXCollections.observableArrayList(ownerService.getDeliveredOrdersReport()));
-
-        reportsContainer.getChildren().addAll(titleLabel, table);
+        table.setItems(FXCollections.observableArrayList(deliveredOrders));
+        return table;
     }
 
     /**
      * Handle carrier performance report action.
+     * The report and the carrier names are read on a worker thread.
      */
     @FXML
     private void handleCarrierPerformance() {
-        reportsContainer.getChildren().clear();
-
-        Label titleLabel = new Label("Carrier Performance Report");
-        titleLabel.setStyle("-fx-font-size: 18px; -fx-font-weight: bold;");
-
-        Map<Integer, Integer> performance = ownerService.getCarrierPerformanceReport();
+        loadReport("Carrier Performance Report", "owner.carrierPerformance", () -> {
+            Map<String, Integer> completedByCarrier = new LinkedHashMap<>();
+            Map<Integer, Integer> performance = ownerService.getCarrierPerformanceReport();
+            Map<Integer, String> carrierNames = userDirectory.getDisplayNames(performance.keySet());
+            for (Map.Entry<Integer, Integer> entry : performance.entrySet()) {
+                completedByCarrier.put(carrierNames.getOrDefault(entry.getKey(), "Carrier " + entry.getKey()),
+                        entry.getValue());
+            }
+            return completedByCarrier;
+        }, completedByCarrier -> {
+            CategoryAxis xAxis = new CategoryAxis();
+            NumberAxis yAxis = new NumberAxis();
+            BarChart<String, Number> chart = new BarChart<>(xAxis, yAxis);
+            chart.setTitle("Orders Completed by Carrier");
+
+            XYChart.Series<String, Number> series = new XYChart.Series<>();
+            for (Map.Entry<String, Integer> entry : completedByCarrier.entrySet()) {
+                series.getData().add(new XYChart.Data<>(entry.getKey(), entry.getValue()));
+            }
 
-        CategoryAxis xAxis = new CategoryAxis();
-        NumberAxis yAxis = new NumberAxis();
-        BarChart<String, Number> chart = new BarChart<>(xAxis, yAxis);
-        chart.setTitle("Orders Completed by Carrier");
+            chart.getData().add(series);
+            chart.setPrefHeight(400);
+            return chart;
+        });
+    }
 
-        XYChart.Series<String, Number> series = new XYChart.Series<>();
+    /**
+     * Show a report whose data is read on a worker thread.
+     * A progress indicator stands in until the data arrives; a report that
+     * was replaced by another one in the meantime is dropped.
+     * 
+     * @param <T>    The report data type
+     * @param title  The report title
+     * @param key    The de-duplication key of the query
+     * @param loader Reads the report data
+     * @param render Builds the report content on the FX thread
+     */
+    private <T> void loadReport(String title, String key, Supplier<T> loader, Function<T, Node> render) {
+        long generation = ++reportGeneration;
+        Label titleLabel = new Label(title);
+        titleLabel.setStyle("-fx-font-size: 18px; -fx-font-weight: bold;");
+        reportsContainer.getChildren().setAll(titleLabel, new ProgressIndicator());
 
-        for (Map.Entry<Integer, Integer> entry : performance.entrySet()) {
-            try {
-                User carrier = ownerService.getAllCarriers().stream()
-                        .filter(c -> c.getUserId() == entry.getKey())
-                        .findFirst()
-                        .orElse(null);
-                String carrierName = carrier != null ? carrier.getFullName() : "Carrier " + entry.getKey();
-                series.getData().add(new XYChart.Data<>(carrierName, entry.getValue()));
-            } catch (Exception e) {
-                series.getData().add(new XYChart.Data<>("Carrier " + entry.getKey(), entry.getValue()));
+        AsyncExecutor.onFx(asyncExecutor.submit(key, loader), data -> {
+            if (generation == reportGeneration) {
+                reportsContainer.getChildren().setAll(titleLabel, render.apply(data));
             }
-        }
-
-        chart.getData().add(series);
-        chart.setPrefHeight(400);
+        }, e -> {
+            if (generation == reportGeneration) {
+                reportsContainer.getChildren().setAll(titleLabel,
+                        new Label("Failed to load report: " + e.getMessage()));
+            }
+        });
+    }
 
-        reportsContainer.getChildren().addAll(titleLabel, chart);
+    /**
+     * Run a change on a worker thread and report its outcome on the FX thread.
+     * 
+     * @param change         Makes the change; returns true if it succeeded
+     * @param successMessage The message shown when the change succeeded
+     * @param failureMessage The message shown when the change failed
+     * @param reload         Reloads the changed data after a success
+     */
+    private void submitChange(Supplier<Boolean> change, String successMessage, String failureMessage,
+            Runnable reload) {
+        AsyncExecutor.onFx(asyncExecutor.submit(change), succeeded -> {
+            if (succeeded) {
+                showAlert(Alert.AlertType.INFORMATION, "Success", successMessage);
+                reload.run();
+            } else {
+                showAlert(Alert.AlertType.ERROR, "Error", failureMessage);
+            }
+        }, e -> showAlert(Alert.AlertType.ERROR, "Error", failureMessage + "\n" + e.getMessage()));
     }
 
     /**
@@ -1140,18 +1393,16 @@ public class OwnerController implements Initializable {
 
         dialog.showAndWait().ifPresent(result -> {
             if (result.getKey() && !result.getValue().trim().isEmpty()) {
-                if (ownerService.replyToMessage(message.getMessageId(), result.getValue())) {
-                    showAlert(Alert.AlertType.INFORMATION, "Success", "Reply sent successfully!");
-                    loadMessages();
-                } else {
-                    showAlert(Alert.AlertType.ERROR, "Error", "Failed to send reply.");
-                }
+                submitChange(() -> ownerService.replyToMessage(message.getMessageId(), result.getValue()),
+                        "Reply sent successfully!", "Failed to send reply.", this::loadMessages);
             }
         });
     }
 
     /**
-     * Handle create coupon action
+     * Handle create coupon action.
+     * The customers, the coupon code and the coupons are read and written on
+     * a worker thread.
      */
     @FXML
     private void handleCreateCoupon() {
@@ -1162,7 +1413,9 @@ public class OwnerController implements Initializable {
 
         ComboBox<Object> customerComboBox = new ComboBox<>();
         customerComboBox.getItems().add("All Customers");
-        customerComboBox.getItems().addAll(ownerService.getAllCustomers());
+        AsyncExecutor.onFx(asyncExecutor.submit("owner.customers", ownerService::getAllCustomers),
+                customers -> customerComboBox.getItems().addAll(customers),
+                e -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to load customers: " + e.getMessage()));
 
         customerComboBox.setCellFactory(param -> new ListCell<Object>() {
             @Override
@@ -1194,16 +1447,13 @@ public class OwnerController implements Initializable {
             }
         });
 
-        String generatedCode = generateUniqueCouponCode();
-
-        TextField codeField = new TextField(generatedCode);
+        TextField codeField = new TextField();
         codeField.setEditable(false); // Read-only, auto-generated
         codeField.setStyle("-fx-background-color: #f0f0f0;");
 
         Button regenerateButton = new Button("Regenerate");
-        regenerateButton.setOnAction(e -> {
-            codeField.setText(generateUniqueCouponCode());
-        });
+        regenerateButton.setOnAction(e -> fillCouponCode(codeField, regenerateButton));
+        fillCouponCode(codeField, regenerateButton);
 
         HBox codeBox = new HBox(10);
         codeBox.getChildren().addAll(codeField, regenerateButton);
@@ -1224,6 +1474,8 @@ public class OwnerController implements Initializable {
 
         dialog.getDialogPane().setContent(content);
         dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+        dialog.getDialogPane().lookupButton(ButtonType.OK).disableProperty()
+                .bind(codeField.textProperty().isEmpty());
 
         dialog.setResultConverter(buttonType -> {
             if (buttonType == ButtonType.OK) {
@@ -1266,34 +1518,49 @@ public class OwnerController implements Initializable {
             java.math.BigDecimal discount = result.getValue().getValue();
 
             if (customerId == -1) {
-                List<com.group05.greengrocer.model.User> allCustomers = ownerService.getAllCustomers();
-                int successCount = 0;
-                for (com.group05.greengrocer.model.User customer : allCustomers) {
-                    String uniqueCode = generateUniqueCouponCode();
-                    if (ownerService.createCoupon(customer.getUserId(), uniqueCode, discount, null, couponName)) {
-                        successCount++;
+                AsyncExecutor.onFx(asyncExecutor.submit(() -> {
+                    int successCount = 0;
+                    for (com.group05.greengrocer.model.User customer : ownerService.getAllCustomers()) {
+                        String uniqueCode = generateUniqueCouponCode();
+                        if (ownerService.createCoupon(customer.getUserId(), uniqueCode, discount, null, couponName)) {
+                            successCount++;
+                        }
                     }
-                }
-                if (successCount > 0) {
-                    showAlert(Alert.AlertType.INFORMATION, "Success",
-                            "Coupons created successfully for " + successCount + " customer(s)!");
-                    loadCoupons();
-                } else {
-                    showAlert(Alert.AlertType.ERROR, "Error", "Failed to create coupons.");
-                }
+                    return successCount;
+                }), successCount -> {
+                    if (successCount > 0) {
+                        showAlert(Alert.AlertType.INFORMATION, "Success",
+                                "Coupons created successfully for " + successCount + " customer(s)!");
+                        loadCoupons();
+                    } else {
+                        showAlert(Alert.AlertType.ERROR, "Error", "Failed to create coupons.");
+                    }
+                }, e -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to create coupons.\n" + e.getMessage()));
             } else {
-                if (ownerService.createCoupon(customerId, couponCode, discount, null, couponName)) {
-                    showAlert(Alert.AlertType.INFORMATION, "Success", "Coupon created successfully!");
-                    loadCoupons();
-                } else {
-                    showAlert(Alert.AlertType.ERROR, "Error", "Failed to create coupon.");
-                }
+                submitChange(() -> ownerService.createCoupon(customerId, couponCode, discount, null, couponName),
+                        "Coupon created successfully!", "Failed to create coupon.", this::loadCoupons);
             }
         });
     }
 
+    /**
+     * Generate a unique coupon code on a worker thread and show it in the
+     * code field. The regenerate button is disabled until the code arrives.
+     * 
+     * @param codeField        The coupon code field
+     * @param regenerateButton The regenerate button
+     */
+    private void fillCouponCode(TextField codeField, Button regenerateButton) {
+        regenerateButton.setDisable(true);
+        AsyncExecutor.onFx(asyncExecutor.submit(this::generateUniqueCouponCode), code -> {
+            codeField.setText(code);
+            regenerateButton.setDisable(false);
+        }, e -> regenerateButton.setDisable(false));
+    }
+
     /**
      * Generate unique coupon code (6-8 digits).
+     * Checks the database; call it on a worker thread.
      * 
      * @return A unique coupon code
      */
@@ -1409,6 +1676,7 @@ public class OwnerController implements Initializable {
      */
     @FXML
     private void handleLogout() {
+        DispatchScheduler.getInstance().setOnDispatched(null);
         authService.logout();
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/LoginView.fxml"));
@@ -0,0 +1,147 @@
+package com.group05.greengrocer.controller;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import com.group05.greengrocer.model.Product;
+import com.group05.greengrocer.service.ImageMigrationService;
+import com.group05.greengrocer.util.ImageLoader;
+
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.TextField;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+
+/**
+ * Recycled list cell for the customer catalog.
+ * The row nodes are built once per cell and rebound whenever the ListView
+ * reuses the cell for another entry, so only visible rows exist in the scene
+ * graph.
+ */
+public class ProductListCell extends ListCell<CatalogEntry> {
+    private final Label headerLabel = new Label();
+
+    private final HBox productRow = new HBox(10);
+    private final ImageView imageView = new ImageView();
+    private final Label placeholderLabel = new Label("📦");
+    private final Label nameLabel = new Label();
+    private final Label priceLabel = new Label();
+    private final Label stockLabel = new Label();
+    private final TextField quantityField = new TextField();
+    private final Button addButton = new Button("Add to Cart");
+
+    private Product boundProduct;
+
+    /**
+     * Constructor for ProductListCell.
+     *
+     * @param onAddToCart    Callback for the add to cart button
+     * @param onToggleGroup  Callback invoked with the product type when a header
+     *                       is clicked
+     */
+    public ProductListCell(BiConsumer<Product, TextField> onAddToCart, Consumer<String> onToggleGroup) {
+        headerLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: 700; -fx-padding: 8 4 4 4;");
+        headerLabel.setMaxWidth(Double.MAX_VALUE);
+        headerLabel.setOnMouseClicked(e -> {
+            CatalogEntry entry = getItem();
+            if (entry != null && entry.isHeader()) {
+                onToggleGroup.accept(entry.getProductType());
+            }
+        });
+
+        imageView.setFitWidth(ImageLoader.IMAGE_SIZE);
+        imageView.setFitHeight(ImageLoader.IMAGE_SIZE);
+        imageView.setPreserveRatio(true);
+        imageView.setSmooth(true);
+        imageView.setCache(true);
+        imageView.setStyle("-fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.3), 5, 0, 0, 2);");
+        placeholderLabel.setStyle("-fx-font-size: 30px; -fx-padding: 10px;");
+
+        nameLabel.setPrefWidth(200);
+        priceLabel.setPrefWidth(120);
+        stockLabel.setPrefWidth(120);
+        quantityField.setPromptText("kg");
+        quantityField.setPrefWidth(80);
+        addButton.setOnAction(e -> {
+            if (boundProduct != null) {
+                onAddToCart.accept(boundProduct, quantityField);
+            }
+        });
+
+        productRow.setAlignment(Pos.CENTER_LEFT);
+        productRow.setStyle("-fx-padding: 5 10 5 20;");
+        productRow.getChildren().addAll(imageView, nameLabel, priceLabel, stockLabel, quantityField, addButton);
+    }
+
+    @Override
+    protected void updateItem(CatalogEntry entry, boolean empty) {
+        super.updateItem(entry, empty);
+        setText(null);
+
+        if (empty || entry == null) {
+            unbindProduct();
+            setGraphic(null);
+            return;
+        }
+
+        if (entry.isHeader()) {
+            unbindProduct();
+            headerLabel.setText((entry.isExpanded() ? "▾ " : "▸ ") + entry.getProductType()
+                    + " (" + entry.getProductCount() + ")");
+            setGraphic(headerLabel);
+            return;
+        }
+
+        bindProduct(entry.getViewModel());
+        setGraphic(productRow);
+    }
+
+    /**
+     * Show a product in the reused row nodes.
+     * Price and stock labels are bound to the view model, so later refreshes
+     * reach the labels without re-rendering the cell.
+     *
+     * @param viewModel The product view model to show
+     */
+    private void bindProduct(ProductViewModel viewModel) {
+        Product product = viewModel.getProduct();
+        if (product != boundProduct) {
+            quantityField.clear();
+            boolean hasImageData = product.getImageData() != null && product.getImageData().length > 0;
+            boolean hasImageUrl = product.getImageUrl() != null && !product.getImageUrl().isEmpty();
+            if (hasImageData || hasImageUrl) {
+                ImageLoader.getInstance().load(product, imageView);
+                productRow.getChildren().set(0, imageView);
+                if (!hasImageData) {
+                    // Migration: Download and Save as BLOB (Background)
+                    ImageMigrationService.getInstance().enqueue(product);
+                }
+            } else {
+                ImageLoader.getInstance().cancel(imageView);
+                productRow.getChildren().set(0, placeholderLabel);
+            }
+            boundProduct = product;
+        }
+
+        nameLabel.setText(product.getProductName());
+        priceLabel.textProperty().bind(viewModel.priceTextBinding());
+        stockLabel.textProperty().bind(viewModel.stockTextBinding());
+    }
+
+    /**
+     * Release the product currently shown by this cell.
+     */
+    private void unbindProduct() {
+        if (boundProduct != null) {
+            ImageLoader.getInstance().cancel(imageView);
+            imageView.setImage(null);
+            quantityField.clear();
+            priceLabel.textProperty().unbind();
+            stockLabel.textProperty().unbind();
+            boundProduct = null;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.group05.greengrocer.controller;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+import com.group05.greengrocer.model.Product;
+
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.StringBinding;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleObjectProperty;
+
+/**
+ * Observable view of a catalog product.
+ * Catalog cells bind to these properties, so a refresh only has to update the
+ * values that changed; the bound labels follow automatically.
+ */
+public class ProductViewModel {
+    private final Product product;
+
+    private final ObjectProperty<BigDecimal> displayPrice = new SimpleObjectProperty<>();
+    private final ObjectProperty<BigDecimal> stock = new SimpleObjectProperty<>();
+    private final BooleanProperty thresholdPriced = new SimpleBooleanProperty();
+
+    private final StringBinding priceText;
+    private final StringBinding stockText;
+
+    /**
+     * Constructor for ProductViewModel.
+     *
+     * @param product      The product backing this view model
+     * @param displayPrice The current display price of the product
+     */
+    public ProductViewModel(Product product, BigDecimal displayPrice) {
+        this.product = product;
+        this.priceText = Bindings.createStringBinding(() -> {
+            String text = "₺" + this.displayPrice.get() + "/kg";
+            return this.thresholdPriced.get() ? text + " (2x)" : text;
+        }, this.displayPrice, this.thresholdPriced);
+        this.stockText = Bindings.createStringBinding(() -> "Stock: " + this.stock.get() + " kg", this.stock);
+        applyValues(displayPrice);
+    }
+
+    /**
+     * Copy price and stock from fresh product data.
+     * Properties are only written when their value actually changed.
+     *
+     * @param fresh        The latest product data
+     * @param displayPrice The display price computed from the fresh data
+     */
+    public void update(Product fresh, BigDecimal displayPrice) {
+        product.setStock(fresh.getStock());
+        product.setThreshold(fresh.getThreshold());
+        product.setPricePerKg(fresh.getPricePerKg());
+        applyValues(displayPrice);
+    }
+
+    /**
+     * Write the product values into the properties.
+     *
+     * @param newDisplayPrice The display price
+     */
+    private void applyValues(BigDecimal newDisplayPrice) {
+        if (!sameValue(displayPrice.get(), newDisplayPrice)) {
+            displayPrice.set(newDisplayPrice);
+        }
+        if (!sameValue(stock.get(), product.getStock())) {
+            stock.set(product.getStock());
+        }
+        thresholdPriced.set(newDisplayPrice != null && product.getPricePerKg() != null
+                && newDisplayPrice.compareTo(product.getPricePerKg()) > 0);
+    }
+
+    /**
+     * Compare two decimals by value, ignoring scale.
+     */
+    private static boolean sameValue(BigDecimal a, BigDecimal b) {
+        if (a == null || b == null) {
+            return Objects.equals(a, b);
+        }
+        return a.compareTo(b) == 0;
+    }
+
+    /**
+     * Get the backing product.
+     *
+     * @return The product
+     */
+    public Product getProduct() {
+        return product;
+    }
+
+    /**
+     * Get the product ID.
+     *
+     * @return The product ID
+     */
+    public int getProductId() {
+        return product.getProductId();
+    }
+
+    /**
+     * Get the display price property.
+     *
+     * @return Display price per kg
+     */
+    public ReadOnlyObjectProperty<BigDecimal> displayPriceProperty() {
+        return displayPrice;
+    }
+
+    /**
+     * Get the stock property.
+     *
+     * @return Stock in kg
+     */
+    public ReadOnlyObjectProperty<BigDecimal> stockProperty() {
+        return stock;
+    }
+
+    /**
+     * Get the threshold pricing property.
+     *
+     * @return true while stock is at or below threshold and the price is doubled
+     */
+    public ReadOnlyBooleanProperty thresholdPricedProperty() {
+        return thresholdPriced;
+    }
+
+    /**
+     * Get the formatted price label text.
+     *
+     * @return Binding for the price label
+     */
+    public StringBinding priceTextBinding() {
+        return priceText;
+    }
+
+    /**
+     * Get the formatted stock label text.
+     *
+     * @return Binding for the stock label
+     */
+    public StringBinding stockTextBinding() {
+        return stockText;
+    }
+}
@@ -0,0 +1,97 @@
+package com.group05.greengrocer.controller;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.group05.greengrocer.service.UserDirectory;
+import com.group05.greengrocer.util.AsyncExecutor;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
+
+/**
+ * Observable user display names for table cells.
+ * Singleton pattern; FX thread only. Names come from the UserDirectory cache.
+ * On a miss a cell gets a placeholder. The misses of one layout pass are
+ * loaded together on a worker thread, and the cells update when the names
+ * arrive.
+ */
+public class UserNameCells {
+    private static final String UNKNOWN = "Unknown";
+    private static final String LOADING = "Loading...";
+
+    private static UserNameCells instance;
+
+    private final UserDirectory userDirectory;
+    private final Map<Integer, List<ReadOnlyStringWrapper>> waiting = new HashMap<>();
+    private boolean loadScheduled;
+
+    /**
+     * Private constructor for singleton pattern.
+     */
+    private UserNameCells() {
+        this.userDirectory = UserDirectory.getInstance();
+    }
+
+    /**
+     * Get singleton instance of UserNameCells.
+     *
+     * @return The UserNameCells instance
+     */
+    public static synchronized UserNameCells getInstance() {
+        if (instance == null) {
+            instance = new UserNameCells();
+        }
+        return instance;
+    }
+
+    /**
+     * Get the display name of a user for a table cell.
+     *
+     * @param userId The user ID, or null
+     * @return The user's full name, or "Unknown" if the user does not exist
+     */
+    public ReadOnlyStringProperty displayNameProperty(Integer userId) {
+        if (userId == null) {
+            return new ReadOnlyStringWrapper(UNKNOWN).getReadOnlyProperty();
+        }
+        String name = userDirectory.getCachedDisplayName(userId);
+        if (name != null) {
+            return new ReadOnlyStringWrapper(name).getReadOnlyProperty();
+        }
+
+        ReadOnlyStringWrapper value = new ReadOnlyStringWrapper(LOADING);
+        waiting.computeIfAbsent(userId, k -> new ArrayList<>()).add(value);
+        if (!loadScheduled) {
+            loadScheduled = true;
+            // Let the current layout pass request its other rows first
+            Platform.runLater(this::loadWaiting);
+        }
+        return value.getReadOnlyProperty();
+    }
+
+    /**
+     * Load the names that table cells are waiting for in one batch and hand
+     * them to the cells. The query runs on a worker.
+     */
+    private void loadWaiting() {
+        loadScheduled = false;
+        Map<Integer, List<ReadOnlyStringWrapper>> batch = new HashMap<>(waiting);
+        waiting.clear();
+        if (batch.isEmpty()) {
+            return;
+        }
+        AsyncExecutor.onFx(AsyncExecutor.getInstance().submit(() -> userDirectory.getDisplayNames(batch.keySet())),
+                names -> {
+                    for (Map.Entry<Integer, List<ReadOnlyStringWrapper>> entry : batch.entrySet()) {
+                        String name = names.getOrDefault(entry.getKey(), UNKNOWN);
+                        for (ReadOnlyStringWrapper value : entry.getValue()) {
+                            value.set(name);
+                        }
+                    }
+                }, null);
+    }
+}
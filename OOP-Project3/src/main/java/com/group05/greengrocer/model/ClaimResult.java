@@ -0,0 +1,67 @@
+package com.group05.greengrocer.model;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * ClaimResult model class representing the outcome of a batch order claim.
+ * Immutable. Every requested order ID is either won by the carrier or lost
+ * because it was no longer available, unless the claim failed as a whole
+ * because the database could not be reached; then nothing was assigned.
+ */
+public class ClaimResult {
+    private final Set<Integer> won;
+    private final Set<Integer> lost;
+    private final boolean failed;
+
+    /**
+     * Constructor for ClaimResult.
+     *
+     * @param won  IDs of the orders assigned to the carrier
+     * @param lost IDs of the orders already taken or no longer pending
+     */
+    public ClaimResult(Set<Integer> won, Set<Integer> lost) {
+        this(won, lost, false);
+    }
+
+    /**
+     * Constructor for ClaimResult.
+     *
+     * @param won    IDs of the orders assigned to the carrier
+     * @param lost   IDs of the orders already taken or no longer pending
+     * @param failed true if the claim could not be carried out
+     */
+    public ClaimResult(Set<Integer> won, Set<Integer> lost, boolean failed) {
+        this.won = Collections.unmodifiableSet(new LinkedHashSet<>(won));
+        this.lost = Collections.unmodifiableSet(new LinkedHashSet<>(lost));
+        this.failed = failed;
+    }
+
+    /**
+     * Gets the orders won by the carrier.
+     *
+     * @return IDs of the orders assigned to the carrier
+     */
+    public Set<Integer> getWon() {
+        return won;
+    }
+
+    /**
+     * Gets the orders that could not be claimed.
+     *
+     * @return IDs of the orders already taken or no longer pending
+     */
+    public Set<Integer> getLost() {
+        return lost;
+    }
+
+    /**
+     * Checks whether the claim failed because of a database error.
+     *
+     * @return true if nothing was claimed because the claim could not run
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+}
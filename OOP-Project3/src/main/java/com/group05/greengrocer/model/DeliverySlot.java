@@ -0,0 +1,95 @@
+package com.group05.greengrocer.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * DeliverySlot model class representing one delivery time window.
+ * Holds how many orders the window accepts and how many are booked.
+ */
+public class DeliverySlot {
+    private LocalDateTime slotStart;
+    private int capacity;
+    private int reserved;
+
+    /**
+     * Default constructor for DeliverySlot.
+     */
+    public DeliverySlot() {
+    }
+
+    /**
+     * Constructor for DeliverySlot.
+     *
+     * @param slotStart Start of the time window
+     * @param capacity  Maximum number of orders in the window
+     * @param reserved  Number of orders booked in the window
+     */
+    public DeliverySlot(LocalDateTime slotStart, int capacity, int reserved) {
+        this.slotStart = slotStart;
+        this.capacity = capacity;
+        this.reserved = reserved;
+    }
+
+    /**
+     * Gets the start of the time window.
+     *
+     * @return Start of the time window
+     */
+    public LocalDateTime getSlotStart() {
+        return slotStart;
+    }
+
+    /**
+     * Sets the start of the time window.
+     *
+     * @param slotStart Start of the time window
+     */
+    public void setSlotStart(LocalDateTime slotStart) {
+        this.slotStart = slotStart;
+    }
+
+    /**
+     * Gets the capacity.
+     *
+     * @return Maximum number of orders in the window
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Sets the capacity.
+     *
+     * @param capacity Maximum number of orders in the window
+     */
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Gets the number of booked orders.
+     *
+     * @return Number of orders booked in the window
+     */
+    public int getReserved() {
+        return reserved;
+    }
+
+    /**
+     * Sets the number of booked orders.
+     *
+     * @param reserved Number of orders booked in the window
+     */
+    public void setReserved(int reserved) {
+        this.reserved = reserved;
+    }
+
+    /**
+     * Gets the number of orders the window can still take.
+     *
+     * @return Remaining capacity, never negative
+     */
+    public int getRemaining() {
+        return Math.max(0, capacity - reserved);
+    }
+}
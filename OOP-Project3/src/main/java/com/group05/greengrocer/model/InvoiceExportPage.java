@@ -0,0 +1,59 @@
+package com.group05.greengrocer.model;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * InvoiceExportPage model class representing one page of an invoice export.
+ * Immutable. Orders are keyset-paged by order date and ID; the last order's
+ * date and ID are where the next page starts.
+ */
+public class InvoiceExportPage {
+    private final Map<Integer, String> invoiceHashes;
+    private final LocalDateTime lastOrderDate;
+    private final int lastOrderId;
+
+    /**
+     * Constructor for InvoiceExportPage.
+     *
+     * @param invoiceHashes Hash of each order's stored invoice, or null if it
+     *                      has none, by order ID in page order
+     * @param lastOrderDate Order date of the last order, or the previous
+     *                      cursor if the page is empty
+     * @param lastOrderId   ID of the last order, or the previous cursor if the
+     *                      page is empty
+     */
+    public InvoiceExportPage(Map<Integer, String> invoiceHashes, LocalDateTime lastOrderDate, int lastOrderId) {
+        this.invoiceHashes = Collections.unmodifiableMap(invoiceHashes);
+        this.lastOrderDate = lastOrderDate;
+        this.lastOrderId = lastOrderId;
+    }
+
+    /**
+     * Gets the orders of the page.
+     *
+     * @return Hash of each order's stored invoice or null, in page order
+     */
+    public Map<Integer, String> getInvoiceHashes() {
+        return invoiceHashes;
+    }
+
+    /**
+     * Gets the order date of the last order.
+     *
+     * @return The date the next page starts after
+     */
+    public LocalDateTime getLastOrderDate() {
+        return lastOrderDate;
+    }
+
+    /**
+     * Gets the ID of the last order.
+     *
+     * @return The ID the next page starts after, among orders of the same date
+     */
+    public int getLastOrderId() {
+        return lastOrderId;
+    }
+}
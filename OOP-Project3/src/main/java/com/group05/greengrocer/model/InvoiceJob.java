@@ -0,0 +1,183 @@
+package com.group05.greengrocer.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * InvoiceJob model class representing a queued invoice generation.
+ * Status moves from Queued to Running to Done; failed attempts go back to
+ * Queued until the attempt limit is reached, then to Failed.
+ */
+public class InvoiceJob {
+    public static final String QUEUED = "Queued";
+    public static final String RUNNING = "Running";
+    public static final String DONE = "Done";
+    public static final String FAILED = "Failed";
+
+    private int jobId;
+    private int orderId;
+    private String status;
+    private int attempts;
+    private String invoicePath;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    /**
+     * Default constructor for InvoiceJob.
+     */
+    public InvoiceJob() {
+    }
+
+    /**
+     * Gets the job ID.
+     *
+     * @return The job ID
+     */
+    public int getJobId() {
+        return jobId;
+    }
+
+    /**
+     * Sets the job ID.
+     *
+     * @param jobId The job ID to set
+     */
+    public void setJobId(int jobId) {
+        this.jobId = jobId;
+    }
+
+    /**
+     * Gets the order ID.
+     *
+     * @return The ID of the order to invoice
+     */
+    public int getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * Sets the order ID.
+     *
+     * @param orderId The ID of the order to invoice
+     */
+    public void setOrderId(int orderId) {
+        this.orderId = orderId;
+    }
+
+    /**
+     * Gets the job status.
+     *
+     * @return The status (Queued, Running, Done, Failed)
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Sets the job status.
+     *
+     * @param status The status to set
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * Gets the number of attempts started.
+     *
+     * @return The attempt count
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Sets the number of attempts started.
+     *
+     * @param attempts The attempt count
+     */
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    /**
+     * Gets the path of the written invoice file.
+     *
+     * @return The invoice path, or null until the job is done
+     */
+    public String getInvoicePath() {
+        return invoicePath;
+    }
+
+    /**
+     * Sets the path of the written invoice file.
+     *
+     * @param invoicePath The invoice path
+     */
+    public void setInvoicePath(String invoicePath) {
+        this.invoicePath = invoicePath;
+    }
+
+    /**
+     * Gets the error of the last failed attempt.
+     *
+     * @return The error message, or null
+     */
+    public String getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Sets the error of the last failed attempt.
+     *
+     * @param lastError The error message
+     */
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    /**
+     * Gets the time the job was queued.
+     *
+     * @return The creation time
+     */
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Sets the time the job was queued.
+     *
+     * @param createdAt The creation time
+     */
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Gets the time the job last changed.
+     *
+     * @return The last update time
+     */
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Sets the time the job last changed.
+     *
+     * @param updatedAt The last update time
+     */
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Checks whether the job will not run again.
+     *
+     * @return true if the job is Done or Failed
+     */
+    public boolean isFinished() {
+        return DONE.equals(status) || FAILED.equals(status);
+    }
+}
@@ -0,0 +1,167 @@
+package com.group05.greengrocer.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money value type holding an amount in minor currency units (kuruş) in a
+ * long.
+ * Immutable. Conversions from BigDecimal and all divisions round HALF_UP to
+ * the nearest kuruş, matching setScale(2, RoundingMode.HALF_UP) and the
+ * DECIMAL(10, 2) money columns.
+ */
+public final class Money implements Comparable<Money> {
+    /** Number of decimal places stored. */
+    public static final int SCALE = 2;
+    /** Minor units per major unit (kuruş per lira). */
+    public static final long MINOR_PER_MAJOR = 100;
+
+    public static final Money ZERO = new Money(0);
+
+    private final long minor;
+
+    /**
+     * Private constructor; use the factory methods.
+     *
+     * @param minor Amount in kuruş
+     */
+    private Money(long minor) {
+        this.minor = minor;
+    }
+
+    /**
+     * Create an amount from minor units.
+     *
+     * @param minor Amount in kuruş
+     * @return The amount
+     */
+    public static Money ofMinor(long minor) {
+        return minor == 0 ? ZERO : new Money(minor);
+    }
+
+    /**
+     * Create an amount from a decimal value (e.g. a DECIMAL column).
+     *
+     * @param amount Amount in lira, or null for zero
+     * @return The amount, rounded HALF_UP to the nearest kuruş
+     */
+    public static Money of(BigDecimal amount) {
+        return ofMinor(minorOf(amount));
+    }
+
+    /**
+     * Convert a decimal value to minor units without creating a Money.
+     *
+     * @param amount Amount in lira, or null for zero
+     * @return Amount in kuruş, rounded HALF_UP
+     */
+    public static long minorOf(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Divide rounding HALF_UP (away from zero on ties), as BigDecimal does.
+     *
+     * @param dividend The dividend
+     * @param divisor  The divisor (positive)
+     * @return The rounded quotient
+     */
+    public static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= divisor) {
+            quotient += dividend < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+
+    /**
+     * Get the amount in minor units.
+     *
+     * @return Amount in kuruş
+     */
+    public long getMinor() {
+        return minor;
+    }
+
+    /**
+     * Add another amount.
+     *
+     * @param other The amount to add
+     * @return The sum
+     */
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minor, other.minor));
+    }
+
+    /**
+     * Subtract another amount.
+     *
+     * @param other The amount to subtract
+     * @return The difference
+     */
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minor, other.minor));
+    }
+
+    /**
+     * Multiply by an integer factor.
+     *
+     * @param factor The factor
+     * @return The product
+     */
+    public Money times(long factor) {
+        return ofMinor(Math.multiplyExact(minor, factor));
+    }
+
+    /**
+     * Price a weight at this amount per kg.
+     *
+     * @param quantity The weight
+     * @return This per-kg price times the weight, rounded HALF_UP to the kuruş
+     */
+    public Money times(Quantity quantity) {
+        return ofMinor(divideHalfUp(Math.multiplyExact(minor, quantity.getGrams()), Quantity.GRAMS_PER_KG));
+    }
+
+    /**
+     * Check the sign of the amount.
+     *
+     * @return -1, 0 or 1
+     */
+    public int signum() {
+        return Long.signum(minor);
+    }
+
+    /**
+     * Convert to BigDecimal with scale 2 for JDBC and display.
+     *
+     * @return The amount in lira
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minor, other.minor);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Money && ((Money) obj).minor == minor;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minor);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -21,11 +21,14 @@ public class Order {
     private BigDecimal discountAmount;
     private BigDecimal loyaltyDiscount;
     private BigDecimal totalCost;
+    private long totalCostMinor;
     private String status;
     private String deliveryAddress;
     private String invoicePath;
+    private String invoiceHash;
     private String couponCode;
     private LocalDateTime canCancelUntil;
+    private LocalDateTime updatedAt;
     private String transactionLog;
     private List<OrderItem> items;
 
@@ -175,6 +178,16 @@ public class Order {
      */
     public void setTotalCost(BigDecimal totalCost) {
         this.totalCost = totalCost;
+        this.totalCostMinor = Money.minorOf(totalCost);
+    }
+
+    /**
+     * Gets the total cost in kuruş, converted once when set.
+     * 
+     * @return The total cost in kuruş, 0 if unset
+     */
+    public long getTotalCostMinor() {
+        return totalCostMinor;
     }
 
     /**
@@ -285,6 +298,24 @@ public class Order {
         this.canCancelUntil = canCancelUntil;
     }
 
+    /**
+     * Gets the time the order row was last changed.
+     * 
+     * @return The last update time
+     */
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Sets the time the order row was last changed.
+     * 
+     * @param updatedAt The last update time to set
+     */
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     /**
      * Gets the order status.
      * 
@@ -339,6 +370,24 @@ public class Order {
         this.invoicePath = invoicePath;
     }
 
+    /**
+     * Gets the SHA-256 of the stored invoice PDF.
+     * 
+     * @return The invoice hash, or null if no invoice is stored
+     */
+    public String getInvoiceHash() {
+        return invoiceHash;
+    }
+
+    /**
+     * Sets the SHA-256 of the stored invoice PDF.
+     * 
+     * @param invoiceHash The invoice hash to set
+     */
+    public void setInvoiceHash(String invoiceHash) {
+        this.invoiceHash = invoiceHash;
+    }
+
     /**
      * Gets the list of order items.
      * 
@@ -0,0 +1,57 @@
+package com.group05.greengrocer.model;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * OrderChangeSet model class representing one refresh of an order dashboard.
+ * Immutable. A full snapshot replaces what the client holds; otherwise the
+ * orders are the rows changed since the previous refresh and are merged in.
+ */
+public class OrderChangeSet {
+    private final List<Order> orders;
+    private final LocalDateTime asOf;
+    private final boolean fullSnapshot;
+
+    /**
+     * Constructor for OrderChangeSet.
+     *
+     * @param orders       The returned orders
+     * @param asOf         Database time of the read, used as the next watermark;
+     *                     null if no rows were returned
+     * @param fullSnapshot true if the orders replace the client's state
+     */
+    public OrderChangeSet(List<Order> orders, LocalDateTime asOf, boolean fullSnapshot) {
+        this.orders = Collections.unmodifiableList(orders);
+        this.asOf = asOf;
+        this.fullSnapshot = fullSnapshot;
+    }
+
+    /**
+     * Gets the returned orders.
+     *
+     * @return The full set or the changed orders
+     */
+    public List<Order> getOrders() {
+        return orders;
+    }
+
+    /**
+     * Gets the database time of the read.
+     *
+     * @return The next watermark, or null if no rows were returned
+     */
+    public LocalDateTime getAsOf() {
+        return asOf;
+    }
+
+    /**
+     * Checks whether this is a full snapshot.
+     *
+     * @return true if the orders replace the client's state
+     */
+    public boolean isFullSnapshot() {
+        return fullSnapshot;
+    }
+}
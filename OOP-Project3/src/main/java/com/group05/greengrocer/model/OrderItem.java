@@ -13,6 +13,10 @@ public class OrderItem {
     private BigDecimal quantity;
     private BigDecimal unitPrice;
     private BigDecimal subtotal;
+    // Fixed-point copies, converted once when set so pricing does not allocate
+    private long quantityGrams;
+    private long unitPriceMinor;
+    private long subtotalMinor;
     private Product product;
 
     /**
@@ -33,7 +37,9 @@ public class OrderItem {
         this.orderId = orderId;
         this.productId = productId;
         this.quantity = quantity;
+        this.quantityGrams = Quantity.gramsOf(quantity);
         this.unitPrice = unitPrice;
+        this.unitPriceMinor = Money.minorOf(unitPrice);
         calculateSubtotal();
     }
 
@@ -107,9 +113,19 @@ public class OrderItem {
      */
     public void setQuantity(BigDecimal quantity) {
         this.quantity = quantity;
+        this.quantityGrams = Quantity.gramsOf(quantity);
         calculateSubtotal();
     }
 
+    /**
+     * Gets the quantity in grams.
+     * 
+     * @return The quantity in grams, 0 if unset
+     */
+    public long getQuantityGrams() {
+        return quantityGrams;
+    }
+
     /**
      * Gets the unit price.
      * 
@@ -126,9 +142,19 @@ public class OrderItem {
      */
     public void setUnitPrice(BigDecimal unitPrice) {
         this.unitPrice = unitPrice;
+        this.unitPriceMinor = Money.minorOf(unitPrice);
         calculateSubtotal();
     }
 
+    /**
+     * Gets the unit price in kuruş.
+     * 
+     * @return The unit price in kuruş, 0 if unset
+     */
+    public long getUnitPriceMinor() {
+        return unitPriceMinor;
+    }
+
     /**
      * Gets the subtotal.
      * 
@@ -145,6 +171,16 @@ public class OrderItem {
      */
     public void setSubtotal(BigDecimal subtotal) {
         this.subtotal = subtotal;
+        this.subtotalMinor = Money.minorOf(subtotal);
+    }
+
+    /**
+     * Gets the subtotal in kuruş.
+     * 
+     * @return The subtotal in kuruş, 0 if unset
+     */
+    public long getSubtotalMinor() {
+        return subtotalMinor;
     }
 
     /**
@@ -171,6 +207,7 @@ public class OrderItem {
     private void calculateSubtotal() {
         if (quantity != null && unitPrice != null) {
             this.subtotal = quantity.multiply(unitPrice);
+            this.subtotalMinor = Money.minorOf(subtotal);
         }
     }
 
@@ -0,0 +1,77 @@
+package com.group05.greengrocer.model;
+
+/**
+ * PriceBreakdown model class representing the priced totals of a cart.
+ * Immutable; produced by the pricing engine. Amounts are in fixed-point
+ * Money; use Money.toBigDecimal for JDBC and display.
+ */
+public class PriceBreakdown {
+    private final Money subtotal;
+    private final Money vatAmount;
+    private final Money couponDiscount;
+    private final Money loyaltyDiscount;
+    private final Money total;
+
+    /**
+     * Constructor for PriceBreakdown.
+     *
+     * @param subtotal        Sum of item subtotals
+     * @param vatAmount       VAT on the subtotal
+     * @param couponDiscount  Applied coupon discount
+     * @param loyaltyDiscount Applied loyalty discount
+     * @param total           Amount payable
+     */
+    public PriceBreakdown(Money subtotal, Money vatAmount, Money couponDiscount,
+            Money loyaltyDiscount, Money total) {
+        this.subtotal = subtotal;
+        this.vatAmount = vatAmount;
+        this.couponDiscount = couponDiscount;
+        this.loyaltyDiscount = loyaltyDiscount;
+        this.total = total;
+    }
+
+    /**
+     * Gets the subtotal.
+     *
+     * @return Sum of item subtotals
+     */
+    public Money getSubtotal() {
+        return subtotal;
+    }
+
+    /**
+     * Gets the VAT amount.
+     *
+     * @return VAT on the subtotal
+     */
+    public Money getVatAmount() {
+        return vatAmount;
+    }
+
+    /**
+     * Gets the coupon discount.
+     *
+     * @return Applied coupon discount
+     */
+    public Money getCouponDiscount() {
+        return couponDiscount;
+    }
+
+    /**
+     * Gets the loyalty discount.
+     *
+     * @return Applied loyalty discount
+     */
+    public Money getLoyaltyDiscount() {
+        return loyaltyDiscount;
+    }
+
+    /**
+     * Gets the total.
+     *
+     * @return Amount payable
+     */
+    public Money getTotal() {
+        return total;
+    }
+}
@@ -18,6 +18,7 @@ public class Product {
     private String imagePath;
     private String imageUrl;
     private byte[] imageData;
+    private int imageVersion;
     private BigDecimal originalPrice;
     private BigDecimal discountPercent;
 
@@ -225,6 +226,24 @@ public class Product {
         this.imageData = imageData;
     }
 
+    /**
+     * Gets the image version, increased whenever the image data changes.
+     * 
+     * @return The image version
+     */
+    public int getImageVersion() {
+        return imageVersion;
+    }
+
+    /**
+     * Sets the image version.
+     * 
+     * @param imageVersion The image version to set
+     */
+    public void setImageVersion(int imageVersion) {
+        this.imageVersion = imageVersion;
+    }
+
     /**
      * Gets the original price before discount.
      * 
@@ -0,0 +1,178 @@
+package com.group05.greengrocer.model;
+
+import java.math.BigDecimal;
+
+/**
+ * ProductQuery model class describing a catalog query.
+ * Holds the sort key, optional filters and a row limit; sorting and filtering
+ * are executed by the database. When results are grouped by type the limit
+ * applies to each type.
+ */
+public class ProductQuery {
+    /**
+     * Supported sort orders. Each maps to a fixed ORDER BY clause.
+     */
+    public enum SortKey {
+        NAME_ASC("productName ASC"),
+        NAME_DESC("productName DESC"),
+        PRICE_ASC("effectivePrice ASC, productName ASC"),
+        PRICE_DESC("effectivePrice DESC, productName ASC"),
+        STOCK_ASC("stock ASC, productName ASC"),
+        STOCK_DESC("stock DESC, productName ASC");
+
+        private final String orderBy;
+
+        SortKey(String orderBy) {
+            this.orderBy = orderBy;
+        }
+
+        /**
+         * Gets the ORDER BY clause for this sort key.
+         *
+         * @return SQL ORDER BY expression list
+         */
+        public String getOrderBy() {
+            return orderBy;
+        }
+    }
+
+    private SortKey sortKey = SortKey.NAME_ASC;
+    private boolean groupByType = true;
+    private String productType;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private boolean inStockOnly = true;
+    private int limit = 500;
+
+    /**
+     * Default constructor for ProductQuery.
+     */
+    public ProductQuery() {
+    }
+
+    /**
+     * Gets the sort key.
+     *
+     * @return The sort key
+     */
+    public SortKey getSortKey() {
+        return sortKey;
+    }
+
+    /**
+     * Sets the sort key.
+     *
+     * @param sortKey The sort key to set
+     */
+    public void setSortKey(SortKey sortKey) {
+        this.sortKey = sortKey;
+    }
+
+    /**
+     * Checks whether results are ordered by product type first.
+     *
+     * @return true if results are grouped by type
+     */
+    public boolean isGroupByType() {
+        return groupByType;
+    }
+
+    /**
+     * Sets whether results are ordered by product type first.
+     *
+     * @param groupByType true to group results by type
+     */
+    public void setGroupByType(boolean groupByType) {
+        this.groupByType = groupByType;
+    }
+
+    /**
+     * Gets the product type filter.
+     *
+     * @return The product type, or null for all types
+     */
+    public String getProductType() {
+        return productType;
+    }
+
+    /**
+     * Sets the product type filter.
+     *
+     * @param productType The product type, or null for all types
+     */
+    public void setProductType(String productType) {
+        this.productType = productType;
+    }
+
+    /**
+     * Gets the minimum effective price filter.
+     *
+     * @return The minimum price, or null for no bound
+     */
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    /**
+     * Sets the minimum effective price filter.
+     *
+     * @param minPrice The minimum price, or null for no bound
+     */
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    /**
+     * Gets the maximum effective price filter.
+     *
+     * @return The maximum price, or null for no bound
+     */
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+
+    /**
+     * Sets the maximum effective price filter.
+     *
+     * @param maxPrice The maximum price, or null for no bound
+     */
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    /**
+     * Checks whether only products with stock &gt; 0 are returned.
+     *
+     * @return true if out-of-stock products are excluded
+     */
+    public boolean isInStockOnly() {
+        return inStockOnly;
+    }
+
+    /**
+     * Sets whether only products with stock &gt; 0 are returned.
+     *
+     * @param inStockOnly true to exclude out-of-stock products
+     */
+    public void setInStockOnly(boolean inStockOnly) {
+        this.inStockOnly = inStockOnly;
+    }
+
+    /**
+     * Gets the maximum number of rows returned, per type when grouped by type.
+     *
+     * @return The row limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Sets the maximum number of rows returned, per type when grouped by type.
+     *
+     * @param limit The row limit (must be positive)
+     */
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+}
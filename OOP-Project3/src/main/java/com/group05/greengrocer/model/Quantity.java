@@ -0,0 +1,127 @@
+package com.group05.greengrocer.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Quantity value type holding a weight in grams in a long.
+ * Immutable. Conversions from kg values round HALF_UP to the nearest gram.
+ */
+public final class Quantity implements Comparable<Quantity> {
+    /** Decimal places of a kg value that fit in whole grams. */
+    public static final int SCALE = 3;
+    public static final long GRAMS_PER_KG = 1000;
+
+    public static final Quantity ZERO = new Quantity(0);
+
+    private final long grams;
+
+    /**
+     * Private constructor; use the factory methods.
+     *
+     * @param grams Weight in grams
+     */
+    private Quantity(long grams) {
+        this.grams = grams;
+    }
+
+    /**
+     * Create a weight from grams.
+     *
+     * @param grams Weight in grams
+     * @return The weight
+     */
+    public static Quantity ofGrams(long grams) {
+        return grams == 0 ? ZERO : new Quantity(grams);
+    }
+
+    /**
+     * Create a weight from a kg value (e.g. a DECIMAL column).
+     *
+     * @param kg Weight in kg, or null for zero
+     * @return The weight, rounded HALF_UP to the nearest gram
+     */
+    public static Quantity ofKg(BigDecimal kg) {
+        return ofGrams(gramsOf(kg));
+    }
+
+    /**
+     * Convert a kg value to grams without creating a Quantity.
+     *
+     * @param kg Weight in kg, or null for zero
+     * @return Weight in grams, rounded HALF_UP
+     */
+    public static long gramsOf(BigDecimal kg) {
+        if (kg == null) {
+            return 0;
+        }
+        return kg.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Get the weight in grams.
+     *
+     * @return Weight in grams
+     */
+    public long getGrams() {
+        return grams;
+    }
+
+    /**
+     * Add another weight.
+     *
+     * @param other The weight to add
+     * @return The sum
+     */
+    public Quantity plus(Quantity other) {
+        return ofGrams(Math.addExact(grams, other.grams));
+    }
+
+    /**
+     * Subtract another weight.
+     *
+     * @param other The weight to subtract
+     * @return The difference
+     */
+    public Quantity minus(Quantity other) {
+        return ofGrams(Math.subtractExact(grams, other.grams));
+    }
+
+    /**
+     * Check the sign of the weight.
+     *
+     * @return -1, 0 or 1
+     */
+    public int signum() {
+        return Long.signum(grams);
+    }
+
+    /**
+     * Convert to a kg BigDecimal for JDBC and display.
+     *
+     * @return Weight in kg
+     */
+    public BigDecimal toKg() {
+        return BigDecimal.valueOf(grams, SCALE);
+    }
+
+    @Override
+    public int compareTo(Quantity other) {
+        return Long.compare(grams, other.grams);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Quantity && ((Quantity) obj).grams == grams;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(grams);
+    }
+
+    @Override
+    public String toString() {
+        return toKg().stripTrailingZeros().toPlainString();
+    }
+}
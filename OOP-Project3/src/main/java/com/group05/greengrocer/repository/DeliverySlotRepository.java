@@ -0,0 +1,119 @@
+package com.group05.greengrocer.repository;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.group05.greengrocer.model.DeliverySlot;
+import com.group05.greengrocer.util.DatabaseAdapter;
+
+/**
+ * Repository class for DeliverySlot database operations.
+ * Slot rows are created on first use with the default capacity.
+ */
+public class DeliverySlotRepository {
+    private final DatabaseAdapter dbAdapter;
+
+    /**
+     * Constructor for DeliverySlotRepository.
+     */
+    public DeliverySlotRepository() {
+        this.dbAdapter = DatabaseAdapter.getInstance();
+    }
+
+    /**
+     * Get the slots starting in a time range.
+     *
+     * @param from First slot start (inclusive)
+     * @param to   Last slot start (exclusive)
+     * @return Slots in the range that have a row, ordered by start
+     * @throws SQLException if database access error occurs
+     */
+    public List<DeliverySlot> findBetween(LocalDateTime from, LocalDateTime to) throws SQLException {
+        String sql = "SELECT * FROM DeliverySlot WHERE slotStart >= ? AND slotStart < ? ORDER BY slotStart";
+        List<DeliverySlot> slots = new ArrayList<>();
+
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, Timestamp.valueOf(from));
+            stmt.setTimestamp(2, Timestamp.valueOf(to));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    slots.add(new DeliverySlot(rs.getTimestamp("slotStart").toLocalDateTime(),
+                            rs.getInt("capacity"), rs.getInt("reserved")));
+                }
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Book one order into a slot if it has room.
+     * The conditional UPDATE makes the check and the increment one atomic
+     * step, so concurrent checkouts can never overbook a slot.
+     *
+     * Runs on the caller's connection so the booking can share a
+     * transaction with the order it is for.
+     *
+     * @param conn            The connection to use; left open
+     * @param slotStart       Start of the time window
+     * @param defaultCapacity Capacity used if the slot has no row yet
+     * @return true if the order was booked, false if the slot is full
+     * @throws SQLException if database access error occurs
+     */
+    public boolean reserve(Connection conn, LocalDateTime slotStart, int defaultCapacity) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT IGNORE INTO DeliverySlot (slotStart, capacity, reserved) VALUES (?, ?, 0)")) {
+            stmt.setTimestamp(1, Timestamp.valueOf(slotStart));
+            stmt.setInt(2, defaultCapacity);
+            stmt.executeUpdate();
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE DeliverySlot SET reserved = reserved + 1 WHERE slotStart = ? AND reserved < capacity")) {
+            stmt.setTimestamp(1, Timestamp.valueOf(slotStart));
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Give back one booking of a slot.
+     *
+     * @param slotStart Start of the time window
+     * @return true if a booking was released
+     * @throws SQLException if database access error occurs
+     */
+    public boolean release(LocalDateTime slotStart) throws SQLException {
+        String sql = "UPDATE DeliverySlot SET reserved = reserved - 1 WHERE slotStart = ? AND reserved > 0";
+
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, Timestamp.valueOf(slotStart));
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Set the capacity of a slot, creating its row if needed.
+     *
+     * @param slotStart Start of the time window
+     * @param capacity  Maximum number of orders in the window
+     * @return true if the capacity was saved
+     * @throws SQLException if database access error occurs
+     */
+    public boolean setCapacity(LocalDateTime slotStart, int capacity) throws SQLException {
+        String sql = "INSERT INTO DeliverySlot (slotStart, capacity, reserved) VALUES (?, ?, 0) " +
+                "ON DUPLICATE KEY UPDATE capacity = VALUES(capacity)";
+
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, Timestamp.valueOf(slotStart));
+            stmt.setInt(2, capacity);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.group05.greengrocer.repository;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.group05.greengrocer.model.InvoiceJob;
+import com.group05.greengrocer.util.DatabaseAdapter;
+
+/**
+ * Repository class for InvoiceJob database operations.
+ * Jobs are claimed with a conditional UPDATE, so several workers (or several
+ * running applications) never process the same job twice.
+ */
+public class InvoiceJobRepository {
+    private final DatabaseAdapter dbAdapter;
+
+    /**
+     * Constructor for InvoiceJobRepository.
+     */
+    public InvoiceJobRepository() {
+        this.dbAdapter = DatabaseAdapter.getInstance();
+    }
+
+    /**
+     * Queue an invoice job for an order on the caller's connection, so the
+     * job is committed together with the order.
+     * Does nothing if the order already has a job.
+     *
+     * @param conn    The connection to use; left open
+     * @param orderId The order ID
+     * @return true if a new job was queued
+     * @throws SQLException if database access error occurs
+     */
+    public boolean enqueue(Connection conn, int orderId) throws SQLException {
+        String sql = "INSERT IGNORE INTO InvoiceJob (orderId, status) VALUES (?, 'Queued')";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, orderId);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Get the oldest queued jobs.
+     *
+     * @param limit Maximum number of jobs to return
+     * @return Queued jobs, oldest first
+     * @throws SQLException if database access error occurs
+     */
+    public List<InvoiceJob> findQueued(int limit) throws SQLException {
+        String sql = "SELECT * FROM InvoiceJob WHERE status = 'Queued' ORDER BY jobId LIMIT ?";
+        List<InvoiceJob> jobs = new ArrayList<>();
+
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    jobs.add(mapResultSetToInvoiceJob(rs));
+                }
+            }
+        }
+        return jobs;
+    }
+
+    /**
+     * Get the job of an order.
+     *
+     * @param orderId The order ID
+     * @return The job, or null if the order has none
+     * @throws SQLException if database access error occurs
+     */
+    public InvoiceJob findByOrderId(int orderId) throws SQLException {
+        String sql = "SELECT * FROM InvoiceJob WHERE orderId = ?";
+
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, orderId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapResultSetToInvoiceJob(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * Claim a queued job for processing.
+     *
+     * @param jobId The job ID
+     * @return true if this caller claimed the job, false if another worker did
+     * @throws SQLException if database access error occurs
+     */
+    public boolean claim(int jobId) throws SQLException {
+        String sql = "UPDATE InvoiceJob SET status = 'Running', attempts = attempts + 1 " +
+                "WHERE jobId = ? AND status = 'Queued'";
+
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, jobId);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Mark a job as done.
+     *
+     * @param jobId       The job ID
+     * @param invoicePath The path of the written invoice file
+     * @return true if the job was updated
+     * @throws SQLException if database access error occurs
+     */
+    public boolean markDone(int jobId, String invoicePath) throws SQLException {
+        String sql = "UPDATE InvoiceJob SET status = 'Done', invoicePath = ?, lastError = NULL WHERE jobId = ?";
+
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, invoicePath);
+            stmt.setInt(2, jobId);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Record a failed attempt.
+     *
+     * @param jobId The job ID
+     * @param error The error message
+     * @param retry true to queue the job again, false to mark it Failed
+     * @return true if the job was updated
+     * @throws SQLException if database access error occurs
+     */
+    public boolean markFailed(int jobId, String error, boolean retry) throws SQLException {
+        String sql = "UPDATE InvoiceJob SET status = ?, lastError = ? WHERE jobId = ?";
+
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, retry ? InvoiceJob.QUEUED : InvoiceJob.FAILED);
+            stmt.setString(2, error != null && error.length() > 500 ? error.substring(0, 500) : error);
+            stmt.setInt(3, jobId);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Queue again the jobs left Running by a worker that stopped.
+     *
+     * @param staleMinutes Minutes after which a Running job is considered
+     *                     abandoned
+     * @return Number of jobs queued again
+     * @throws SQLException if database access error occurs
+     */
+    public int requeueStale(int staleMinutes) throws SQLException {
+        String sql = "UPDATE InvoiceJob SET status = 'Queued' " +
+                "WHERE status = 'Running' AND updatedAt < NOW() - INTERVAL ? MINUTE";
+
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, staleMinutes);
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Map ResultSet to InvoiceJob object.
+     *
+     * @param rs The ResultSet containing job data
+     * @return The mapped InvoiceJob object
+     * @throws SQLException if database access error occurs
+     */
+    private InvoiceJob mapResultSetToInvoiceJob(ResultSet rs) throws SQLException {
+        InvoiceJob job = new InvoiceJob();
+        job.setJobId(rs.getInt("jobId"));
+        job.setOrderId(rs.getInt("orderId"));
+        job.setStatus(rs.getString("status"));
+        job.setAttempts(rs.getInt("attempts"));
+        job.setInvoicePath(rs.getString("invoicePath"));
+        job.setLastError(rs.getString("lastError"));
+        Timestamp createdAt = rs.getTimestamp("createdAt");
+        if (createdAt != null) {
+            job.setCreatedAt(createdAt.toLocalDateTime());
+        }
+        Timestamp updatedAt = rs.getTimestamp("updatedAt");
+        if (updatedAt != null) {
+            job.setUpdatedAt(updatedAt.toLocalDateTime());
+        }
+        return job;
+    }
+}
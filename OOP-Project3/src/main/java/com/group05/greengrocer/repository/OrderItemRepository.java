@@ -2,7 +2,11 @@ package com.group05.greengrocer.repository;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.group05.greengrocer.model.OrderItem;
 import com.group05.greengrocer.util.DatabaseAdapter;
@@ -12,6 +16,9 @@ import com.group05.greengrocer.util.DatabaseAdapter;
  * Handles all database access related to order items.
  */
 public class OrderItemRepository {
+    /** Maximum number of order IDs bound in one IN (...) list. */
+    private static final int IN_CHUNK_SIZE = 500;
+
     private final DatabaseAdapter dbAdapter;
 
     /**
@@ -75,27 +82,55 @@ public class OrderItemRepository {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    OrderItem item = mapResultSetToOrderItem(rs);
-
-                    // Manually populate the Product object since we did a JOIN
-                    if (rs.getString("productName") != null) {
-                        com.group05.greengrocer.model.Product product = new com.group05.greengrocer.model.Product();
-                        product.setProductId(rs.getInt("productId")); // from OrderItem table
-                        product.setProductName(rs.getString("productName"));
-                        product.setProductType(rs.getString("productType"));
-                        product.setPricePerKg(rs.getBigDecimal("pricePerKg"));
-                        product.setStock(rs.getBigDecimal("stock"));
-                        product.setThreshold(rs.getBigDecimal("threshold"));
-                        item.setProduct(product);
-                    }
-
-                    items.add(item);
+                    items.add(mapResultSetToOrderItemWithProduct(rs));
                 }
             }
         }
         return items;
     }
 
+    /**
+     * Get the items of many orders with Product details populated.
+     * Loads the items with one query per chunk of order IDs instead of one
+     * query per order.
+     * 
+     * @param orderIds The order IDs to get items for
+     * @return Order items keyed by order ID; orders without items are absent
+     * @throws SQLException if database access error occurs
+     */
+    public Map<Integer, List<OrderItem>> findByOrderIds(Collection<Integer> orderIds) throws SQLException {
+        Map<Integer, List<OrderItem>> itemsByOrder = new HashMap<>();
+        if (orderIds.isEmpty()) {
+            return itemsByOrder;
+        }
+        List<Integer> ids = new ArrayList<>(orderIds);
+
+        try (Connection conn = dbAdapter.getConnection()) {
+            for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + IN_CHUNK_SIZE, ids.size()));
+                String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+                String sql = "SELECT oi.*, p.productName, p.productType, p.pricePerKg, p.stock, p.threshold " +
+                        "FROM OrderItem oi " +
+                        "LEFT JOIN ProductInfo p ON oi.productId = p.productId " +
+                        "WHERE oi.orderId IN (" + placeholders + ") " +
+                        "ORDER BY oi.orderId, oi.orderItemId";
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        stmt.setInt(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            OrderItem item = mapResultSetToOrderItemWithProduct(rs);
+                            itemsByOrder.computeIfAbsent(item.getOrderId(), k -> new ArrayList<>()).add(item);
+                        }
+                    }
+                }
+            }
+        }
+        return itemsByOrder;
+    }
+
     /**
      * Create a new order item.
      * 
@@ -131,18 +166,19 @@ public class OrderItemRepository {
     }
 
     /**
-     * Create multiple order items in a batch.
+     * Create multiple order items in a batch on the caller's connection, so
+     * they can be part of the caller's transaction.
      * 
+     * @param conn  The connection to use; left open
      * @param items The list of OrderItem objects to create
      * @return true if all items were created successfully, false otherwise
      * @throws SQLException if database access error occurs
      */
-    public boolean createBatch(List<OrderItem> items) throws SQLException {
+    public boolean createBatch(Connection conn, List<OrderItem> items) throws SQLException {
         String sql = "INSERT INTO OrderItem (orderId, productId, quantity, unitPrice, subtotal) " +
                 "VALUES (?, ?, ?, ?, ?)";
 
-        try (Connection conn = dbAdapter.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             for (OrderItem item : items) {
                 stmt.setInt(1, item.getOrderId());
@@ -219,6 +255,31 @@ public class OrderItemRepository {
         }
     }
 
+    /**
+     * Map a row of the OrderItem/ProductInfo join to an OrderItem with its
+     * Product populated.
+     * 
+     * @param rs The ResultSet containing joined order item data
+     * @return The mapped OrderItem object
+     * @throws SQLException if database access error occurs
+     */
+    private OrderItem mapResultSetToOrderItemWithProduct(ResultSet rs) throws SQLException {
+        OrderItem item = mapResultSetToOrderItem(rs);
+
+        // Manually populate the Product object since we did a JOIN
+        if (rs.getString("productName") != null) {
+            com.group05.greengrocer.model.Product product = new com.group05.greengrocer.model.Product();
+            product.setProductId(rs.getInt("productId")); // from OrderItem table
+            product.setProductName(rs.getString("productName"));
+            product.setProductType(rs.getString("productType"));
+            product.setPricePerKg(rs.getBigDecimal("pricePerKg"));
+            product.setStock(rs.getBigDecimal("stock"));
+            product.setThreshold(rs.getBigDecimal("threshold"));
+            item.setProduct(product);
+        }
+        return item;
+    }
+
     /**
      * Map ResultSet to OrderItem object.
      * 
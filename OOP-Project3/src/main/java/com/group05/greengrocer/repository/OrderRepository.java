@@ -1,26 +1,57 @@
 package com.group05.greengrocer.repository;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
+import com.group05.greengrocer.model.InvoiceExportPage;
 import com.group05.greengrocer.model.Order;
+import com.group05.greengrocer.model.OrderChangeSet;
+import com.group05.greengrocer.model.OrderItem;
+import com.group05.greengrocer.model.Product;
 import com.group05.greengrocer.util.DatabaseAdapter;
+import com.group05.greengrocer.util.InvoiceCache;
 
 /**
  * Repository class for Order database operations.
  * Handles all database access related to orders.
  */
 public class OrderRepository {
+    /** Order columns for list views; leaves out the invoice PDF and log. */
+    private static final String LIST_COLUMNS = "orderId, customerId, carrierId, orderDate, deliveryDate, "
+            + "subtotal, vatAmount, discountAmount, loyaltyDiscount, totalCost, status, deliveryAddress, "
+            + "invoicePath, invoiceHash, couponCode, canCancelUntil, updatedAt";
+
+    private static volatile boolean skipLockedSupported = true;
+
     private final DatabaseAdapter dbAdapter;
+    private final OrderItemRepository orderItemRepository;
+    private final ProductRepository productRepository;
+    private final DeliverySlotRepository deliverySlotRepository;
+    private final InvoiceJobRepository invoiceJobRepository;
 
     /**
      * Constructor for OrderRepository.
      */
     public OrderRepository() {
         this.dbAdapter = DatabaseAdapter.getInstance();
+        this.orderItemRepository = new OrderItemRepository();
+        this.productRepository = new ProductRepository();
+        this.deliverySlotRepository = new DeliverySlotRepository();
+        this.invoiceJobRepository = new InvoiceJobRepository();
     }
 
     /**
@@ -115,6 +146,53 @@ public class OrderRepository {
         return orders;
     }
 
+    /**
+     * Get the orders created after a given order and whether each is still
+     * available. Scans only the primary key range above the watermark.
+     * 
+     * @param afterOrderId The highest order ID already seen
+     * @param limit        Maximum number of orders to return
+     * @return Whether each order is pending and unassigned, keyed by order
+     *         ID, ascending
+     * @throws SQLException if database access error occurs
+     */
+    public Map<Integer, Boolean> findAvailabilityAfter(int afterOrderId, int limit) throws SQLException {
+        String sql = "SELECT orderId, status = 'Pending' AND carrierId IS NULL AS available FROM OrderInfo " +
+                "WHERE orderId > ? ORDER BY orderId LIMIT ?";
+        Map<Integer, Boolean> availability = new LinkedHashMap<>();
+
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, afterOrderId);
+            stmt.setInt(2, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    availability.put(rs.getInt("orderId"), rs.getBoolean("available"));
+                }
+            }
+        }
+        return availability;
+    }
+
+    /**
+     * Get the highest order ID.
+     * 
+     * @return The highest order ID, or 0 if there are no orders
+     * @throws SQLException if database access error occurs
+     */
+    public int findMaxOrderId() throws SQLException {
+        String sql = "SELECT COALESCE(MAX(orderId), 0) FROM OrderInfo";
+
+        try (Connection conn = dbAdapter.getConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(sql)) {
+
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
     /**
      * Get orders assigned to a carrier.
      * 
@@ -167,6 +245,147 @@ public class OrderRepository {
         return orders;
     }
 
+    /**
+     * Get one page of completed orders for a carrier.
+     * 
+     * @param carrierId The carrier ID to filter by
+     * @param offset    Number of orders to skip
+     * @param limit     Maximum number of orders to return
+     * @return Delivered orders for the carrier, sorted by delivery date
+     *         descending
+     * @throws SQLException if database access error occurs
+     */
+    public List<Order> findCompletedOrdersByCarrier(int carrierId, int offset, int limit) throws SQLException {
+        String sql = "SELECT " + LIST_COLUMNS + " FROM OrderInfo WHERE carrierId = ? AND status = 'Delivered' " +
+                "ORDER BY deliveryDate DESC, orderId DESC LIMIT ? OFFSET ?";
+        List<Order> orders = new ArrayList<>();
+
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, carrierId);
+            stmt.setInt(2, limit);
+            stmt.setInt(3, offset);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    orders.add(mapResultSetToOrder(rs));
+                }
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * Count completed orders for a carrier.
+     * 
+     * @param carrierId The carrier ID to filter by
+     * @return Number of delivered orders for the carrier
+     * @throws SQLException if database access error occurs
+     */
+    public int countCompletedOrdersByCarrier(int carrierId) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM OrderInfo WHERE carrierId = ? AND status = 'Delivered'";
+
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, carrierId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Get the open orders a carrier sees in one query: the available orders
+     * and the carrier's own assigned and in-transit orders.
+     * 
+     * @param carrierId The carrier ID
+     * @return Full snapshot, sorted by order date
+     * @throws SQLException if database access error occurs
+     */
+    public OrderChangeSet findCarrierDashboard(int carrierId) throws SQLException {
+        String sql = "SELECT " + LIST_COLUMNS + ", NOW(3) AS asOf FROM OrderInfo " +
+                "WHERE (status = 'Pending' AND carrierId IS NULL) " +
+                "OR (carrierId = ? AND status IN ('Assigned', 'InTransit')) ORDER BY orderDate";
+
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, carrierId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return readChangeSet(rs, true);
+            }
+        }
+    }
+
+    /**
+     * Get the orders a carrier may see that changed at or after a point in
+     * time. Unassigned orders and the carrier's own orders are returned in
+     * full; orders other carriers took are returned with only their ID,
+     * status and carrier, which is enough for the carrier to drop them.
+     * 
+     * @param since     The lower bound on updatedAt (inclusive)
+     * @param carrierId The carrier ID
+     * @return The changed orders, sorted by order date, followed by the
+     *         orders taken by other carriers
+     * @throws SQLException if database access error occurs
+     */
+    public OrderChangeSet findChangedSince(LocalDateTime since, int carrierId) throws SQLException {
+        String visibleSql = "SELECT " + LIST_COLUMNS + ", NOW(3) AS asOf FROM OrderInfo " +
+                "WHERE updatedAt >= ? AND (carrierId IS NULL OR carrierId = ?) ORDER BY orderDate";
+        String takenSql = "SELECT orderId, status, carrierId, NOW(3) AS asOf FROM OrderInfo " +
+                "WHERE updatedAt >= ? AND carrierId <> ?";
+
+        try (Connection conn = dbAdapter.getConnection()) {
+            OrderChangeSet visible;
+            try (PreparedStatement stmt = conn.prepareStatement(visibleSql)) {
+                stmt.setTimestamp(1, Timestamp.valueOf(since));
+                stmt.setInt(2, carrierId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    visible = readChangeSet(rs, false);
+                }
+            }
+
+            List<Order> orders = new ArrayList<>(visible.getOrders());
+            LocalDateTime asOf = visible.getAsOf();
+            try (PreparedStatement stmt = conn.prepareStatement(takenSql)) {
+                stmt.setTimestamp(1, Timestamp.valueOf(since));
+                stmt.setInt(2, carrierId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        if (asOf == null) {
+                            asOf = rs.getTimestamp("asOf").toLocalDateTime();
+                        }
+                        Order taken = new Order();
+                        taken.setOrderId(rs.getInt("orderId"));
+                        taken.setStatus(rs.getString("status"));
+                        taken.setCarrierId(rs.getInt("carrierId"));
+                        orders.add(taken);
+                    }
+                }
+            }
+            return new OrderChangeSet(orders, asOf, false);
+        }
+    }
+
+    /**
+     * Read orders and the database time from an asOf-tagged result set.
+     */
+    private OrderChangeSet readChangeSet(ResultSet rs, boolean fullSnapshot) throws SQLException {
+        List<Order> orders = new ArrayList<>();
+        LocalDateTime asOf = null;
+        while (rs.next()) {
+            if (asOf == null) {
+                asOf = rs.getTimestamp("asOf").toLocalDateTime();
+            }
+            orders.add(mapResultSetToOrder(rs));
+        }
+        return new OrderChangeSet(orders, asOf, fullSnapshot);
+    }
+
     /**
      * Get all delivered orders (for owner reports).
      * 
@@ -236,20 +455,83 @@ public class OrderRepository {
     }
 
     /**
-     * Create a new order.
+     * Place an order in one transaction: book its delivery slot, insert the
+     * order and its items, take the ordered quantities from stock and queue
+     * its invoice job. If the slot is full, a product has too little stock or
+     * any step fails, nothing is written.
+     * 
+     * @param order               The order to create; receives its ID
+     * @param items               The order items; receive the order ID
+     * @param slotStart           Start of the delivery slot to book
+     * @param defaultSlotCapacity Capacity used if the slot has no row yet
+     * @return true if the order was placed, false if the slot is full
+     * @throws SQLException             if database access error occurs
+     * @throws IllegalArgumentException if a product has too little stock
+     */
+    public boolean createWithItems(Order order, List<OrderItem> items, LocalDateTime slotStart,
+            int defaultSlotCapacity) throws SQLException {
+        try (Connection conn = dbAdapter.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                if (!deliverySlotRepository.reserve(conn, slotStart, defaultSlotCapacity)) {
+                    conn.rollback();
+                    return false;
+                }
+                if (!create(conn, order)) {
+                    throw new SQLException("Order was not inserted");
+                }
+                for (OrderItem item : items) {
+                    item.setOrderId(order.getOrderId());
+                }
+                if (!orderItemRepository.createBatch(conn, items)) {
+                    throw new SQLException("Order items were not inserted");
+                }
+                for (OrderItem item : items) {
+                    if (!productRepository.takeStock(conn, item.getProductId(), item.getQuantity())) {
+                        conn.rollback();
+                        throw new IllegalArgumentException("Insufficient stock for product: "
+                                + productNameOf(item.getProductId()));
+                    }
+                }
+                invoiceJobRepository.enqueue(conn, order.getOrderId());
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Get a product's name for an error message.
      * 
-     * @param order The Order object to create
+     * @param productId The product ID
+     * @return The product name, or the ID if the product does not exist
+     * @throws SQLException if database access error occurs
+     */
+    private String productNameOf(int productId) throws SQLException {
+        Product product = productRepository.findById(productId);
+        return product != null ? product.getProductName() : String.valueOf(productId);
+    }
+
+    /**
+     * Insert a new order on the caller's connection.
+     * 
+     * @param conn  The connection to use; left open
+     * @param order The Order object to create; receives its ID
      * @return true if order was created successfully, false otherwise
      * @throws SQLException if database access error occurs
      */
-    public boolean create(Order order) throws SQLException {
+    private boolean create(Connection conn, Order order) throws SQLException {
         String sql = "INSERT INTO OrderInfo (customerId, carrierId, orderDate, deliveryDate, subtotal, vatAmount, " +
                 "discountAmount, loyaltyDiscount, totalCost, status, deliveryAddress, invoicePath, invoicePdf, couponCode, canCancelUntil) "
                 +
                 "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
-        try (Connection conn = dbAdapter.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             stmt.setInt(1, order.getCustomerId());
             if (order.getCarrierId() != null) {
@@ -354,6 +636,189 @@ public class OrderRepository {
         }
     }
 
+    /**
+     * Count the open (Assigned or InTransit) orders of every carrier.
+     * 
+     * @return Open order count keyed by carrier ID; idle carriers are absent
+     * @throws SQLException if database access error occurs
+     */
+    public Map<Integer, Integer> countOpenOrdersByCarrier() throws SQLException {
+        String sql = "SELECT carrierId, COUNT(*) AS openOrders FROM OrderInfo " +
+                "WHERE carrierId IS NOT NULL AND status IN ('Assigned', 'InTransit') GROUP BY carrierId";
+        Map<Integer, Integer> counts = new HashMap<>();
+
+        try (Connection conn = dbAdapter.getConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                counts.put(rs.getInt("carrierId"), rs.getInt("openOrders"));
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Claim a set of orders for a carrier in one transaction.
+     * The still-available orders are locked with SELECT ... FOR UPDATE, then
+     * assigned and logged by a single conditional UPDATE, so concurrent
+     * carriers can never both win the same order.
+     * 
+     * @param orderIds  The order IDs to claim
+     * @param carrierId The carrier ID to assign to the orders
+     * @param logEntry  The transaction log text appended to every won order
+     * @return IDs of the orders assigned to the carrier
+     * @throws SQLException if database access error occurs
+     */
+    public Set<Integer> claimOrders(Collection<Integer> orderIds, int carrierId, String logEntry)
+            throws SQLException {
+        Set<Integer> won = new LinkedHashSet<>();
+        if (orderIds.isEmpty()) {
+            return won;
+        }
+        try (Connection conn = dbAdapter.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement("SELECT orderId FROM OrderInfo WHERE orderId IN ("
+                        + placeholders(orderIds.size()) + ") AND status = 'Pending' AND carrierId IS NULL FOR UPDATE")) {
+                    int index = 1;
+                    for (Integer orderId : orderIds) {
+                        stmt.setInt(index++, orderId);
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            won.add(rs.getInt("orderId"));
+                        }
+                    }
+                }
+
+                assignLocked(conn, won, carrierId, logEntry);
+                conn.commit();
+                return won;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Claim the oldest available orders for a carrier, like a dispatch queue.
+     * Uses SELECT ... FOR UPDATE SKIP LOCKED so concurrent carriers each get
+     * a disjoint set of orders instead of racing for the same rows. Orders
+     * whose requested delivery time has passed are not handed out. On servers
+     * without SKIP LOCKED it falls back to a plain FOR UPDATE, which is still
+     * correct but makes concurrent callers wait for each other.
+     * 
+     * @param count     Maximum number of orders to claim
+     * @param carrierId The carrier ID to assign to the orders
+     * @param logEntry  The transaction log text appended to every claimed order
+     * @return IDs of the orders assigned to the carrier, oldest first
+     * @throws SQLException if database access error occurs
+     */
+    public Set<Integer> claimNextOrders(int count, int carrierId, String logEntry) throws SQLException {
+        Set<Integer> won = new LinkedHashSet<>();
+        if (count <= 0) {
+            return won;
+        }
+        String sql = "SELECT orderId FROM OrderInfo " +
+                "WHERE status = 'Pending' AND carrierId IS NULL " +
+                "AND (deliveryDate IS NULL OR deliveryDate >= NOW()) " +
+                "ORDER BY orderDate, orderId LIMIT ? FOR UPDATE";
+
+        try (Connection conn = dbAdapter.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                if (skipLockedSupported) {
+                    try {
+                        selectOrderIds(conn, sql + " SKIP LOCKED", count, won);
+                    } catch (SQLSyntaxErrorException e) {
+                        skipLockedSupported = false;
+                        System.err.println("SKIP LOCKED not supported, using FOR UPDATE: " + e.getMessage());
+                    }
+                }
+                if (!skipLockedSupported) {
+                    selectOrderIds(conn, sql, count, won);
+                }
+                assignLocked(conn, won, carrierId, logEntry);
+                conn.commit();
+                return won;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Run a locking order ID query with a LIMIT parameter.
+     * 
+     * @param conn  The connection of the open transaction
+     * @param sql   The query
+     * @param limit The LIMIT value
+     * @param into  Receives the order IDs in result order
+     * @throws SQLException if database access error occurs
+     */
+    private static void selectOrderIds(Connection conn, String sql, int limit, Set<Integer> into)
+            throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    into.add(rs.getInt("orderId"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Assign orders locked by the current transaction to a carrier and append
+     * the log entry, in one UPDATE.
+     * 
+     * @param conn      The connection of the open transaction
+     * @param orderIds  The locked, still-available order IDs
+     * @param carrierId The carrier ID to assign
+     * @param logEntry  The transaction log text
+     * @throws SQLException if database access error occurs
+     */
+    private static void assignLocked(Connection conn, Set<Integer> orderIds, int carrierId, String logEntry)
+            throws SQLException {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE OrderInfo SET carrierId = ?, status = 'Assigned', " +
+                        "transactionLog = CONCAT(IFNULL(transactionLog, ''), ?, '\n') " +
+                        "WHERE orderId IN (" + placeholders(orderIds.size()) + ") " +
+                        "AND status = 'Pending' AND carrierId IS NULL")) {
+            stmt.setInt(1, carrierId);
+            stmt.setString(2, DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+                    .format(LocalDateTime.now()) + ": " + logEntry);
+            int index = 3;
+            for (Integer orderId : orderIds) {
+                stmt.setInt(index++, orderId);
+            }
+            if (stmt.executeUpdate() != orderIds.size()) {
+                // Rows are locked, so this only happens on a lock-less engine
+                throw new SQLException("Order claim lost a race on locked rows");
+            }
+        }
+    }
+
+    /**
+     * Build a comma-separated list of JDBC placeholders.
+     * 
+     * @param count Number of placeholders
+     * @return The placeholder list, e.g. "?, ?, ?"
+     */
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
     /**
      * Mark order as completed.
      * 
@@ -417,7 +882,7 @@ public class OrderRepository {
     }
 
     /**
-     * Save invoice PDF to database as LONGBLOB.
+     * Save invoice PDF to database as LONGBLOB, with its hash.
      * 
      * @param orderId  The order ID to save the PDF for
      * @param pdfBytes The PDF file as byte array
@@ -425,17 +890,19 @@ public class OrderRepository {
      * @throws SQLException if database access error occurs
      */
     public boolean saveInvoicePDF(int orderId, byte[] pdfBytes) throws SQLException {
-        String sql = "UPDATE OrderInfo SET invoicePdf = ? WHERE orderId = ?";
+        String sql = "UPDATE OrderInfo SET invoicePdf = ?, invoiceHash = ? WHERE orderId = ?";
 
         try (Connection conn = dbAdapter.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             if (pdfBytes != null) {
                 stmt.setBytes(1, pdfBytes);
+                stmt.setString(2, InvoiceCache.hashOf(pdfBytes));
             } else {
                 stmt.setNull(1, Types.BLOB);
+                stmt.setNull(2, Types.CHAR);
             }
-            stmt.setInt(2, orderId);
+            stmt.setInt(3, orderId);
 
             return stmt.executeUpdate() > 0;
         }
@@ -465,6 +932,91 @@ public class OrderRepository {
         return null;
     }
 
+    /**
+     * Copy the stored invoice PDF of an order into a new archive entry.
+     * The entry is only opened once the invoice is found, so an order
+     * without one leaves no empty entry behind.
+     *
+     * @param orderId The order ID
+     * @param zip     The archive to write to; left open
+     * @param entry   The entry to write the invoice as
+     * @return true if a stored invoice was copied, false if there is none
+     * @throws SQLException if database access error occurs
+     * @throws IOException  if the archive cannot be written
+     */
+    public boolean copyInvoicePDF(int orderId, ZipOutputStream zip, ZipEntry entry)
+            throws SQLException, IOException {
+        String sql = "SELECT invoicePdf FROM OrderInfo WHERE orderId = ?";
+
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, orderId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    try (InputStream in = rs.getBinaryStream("invoicePdf")) {
+                        if (in != null) {
+                            zip.putNextEntry(entry);
+                            in.transferTo(zip);
+                            zip.closeEntry();
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get one page of the orders in an invoice export, keyset-paged by order
+     * date and ID so each page is a range scan of idx_order_date. The first
+     * page starts after (from, 0).
+     *
+     * @param afterOrderDate Order date of the last order already read
+     * @param afterOrderId   ID of the last order already read
+     * @param to             End of the order date range (exclusive)
+     * @param status         Order status to include, or null for all
+     * @param limit          Maximum number of orders to return
+     * @return The orders by order date and ID ascending, with the hash of
+     *         each stored invoice
+     * @throws SQLException if database access error occurs
+     */
+    public InvoiceExportPage findInvoiceExportPage(LocalDateTime afterOrderDate, int afterOrderId,
+            LocalDateTime to, String status, int limit) throws SQLException {
+        String sql = "SELECT orderId, orderDate, invoiceHash FROM OrderInfo " +
+                "WHERE (orderDate > ? OR (orderDate = ? AND orderId > ?)) AND orderDate < ?" +
+                (status != null ? " AND status = ?" : "") +
+                " ORDER BY orderDate, orderId LIMIT ?";
+        Map<Integer, String> page = new LinkedHashMap<>();
+        LocalDateTime lastOrderDate = afterOrderDate;
+        int lastOrderId = afterOrderId;
+
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            stmt.setTimestamp(index++, Timestamp.valueOf(afterOrderDate));
+            stmt.setTimestamp(index++, Timestamp.valueOf(afterOrderDate));
+            stmt.setInt(index++, afterOrderId);
+            stmt.setTimestamp(index++, Timestamp.valueOf(to));
+            if (status != null) {
+                stmt.setString(index++, status);
+            }
+            stmt.setInt(index, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lastOrderId = rs.getInt("orderId");
+                    lastOrderDate = rs.getTimestamp("orderDate").toLocalDateTime();
+                    page.put(lastOrderId, rs.getString("invoiceHash"));
+                }
+            }
+        }
+        return new InvoiceExportPage(page, lastOrderDate, lastOrderId);
+    }
+
     /**
      * Update invoice path for order (legacy support).
      * 
@@ -549,11 +1101,24 @@ public class OrderRepository {
         order.setStatus(rs.getString("status"));
         order.setDeliveryAddress(rs.getString("deliveryAddress"));
         order.setInvoicePath(rs.getString("invoicePath"));
+        try {
+            order.setInvoiceHash(rs.getString("invoiceHash"));
+        } catch (SQLException e) {
+            order.setInvoiceHash(null);
+        }
         try {
             order.setTransactionLog(rs.getString("transactionLog"));
         } catch (SQLException e) {
             order.setTransactionLog(null);
         }
+        try {
+            Timestamp updatedAt = rs.getTimestamp("updatedAt");
+            if (updatedAt != null) {
+                order.setUpdatedAt(updatedAt.toLocalDateTime());
+            }
+        } catch (SQLException e) {
+            order.setUpdatedAt(null);
+        }
         return order;
     }
 
@@ -3,10 +3,14 @@ package com.group05.greengrocer.repository;
 import java.math.BigDecimal;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import com.group05.greengrocer.model.Product;
+import com.group05.greengrocer.model.ProductQuery;
 import com.group05.greengrocer.util.DatabaseAdapter;
+import com.group05.greengrocer.util.InvoiceCache;
 
 /**
  * Repository class for Product database operations.
@@ -67,6 +71,59 @@ public class ProductRepository {
         return products;
     }
 
+    /**
+     * Get all products without their stored images.
+     * Used to build the search index, which only needs the text and stock.
+     * 
+     * @return List of all products with no image data, sorted by name
+     * @throws SQLException if database access error occurs
+     */
+    public List<Product> findAllWithoutImages() throws SQLException {
+        String sql = "SELECT productId, productName, productType, pricePerKg, stock, threshold, description, " +
+                "imagePath, imageUrl, imageVersion FROM ProductInfo ORDER BY productName";
+        List<Product> products = new ArrayList<>();
+
+        try (Connection conn = dbAdapter.getConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                products.add(mapResultSetToProduct(rs));
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Find many products by ID.
+     * 
+     * @param productIds The product IDs to search for
+     * @return The products found, in no particular order
+     * @throws SQLException if database access error occurs
+     */
+    public List<Product> findByIds(Collection<Integer> productIds) throws SQLException {
+        List<Product> products = new ArrayList<>();
+        if (productIds.isEmpty()) {
+            return products;
+        }
+        List<Integer> ids = new ArrayList<>(productIds);
+        String sql = "SELECT * FROM ProductInfo WHERE productId IN ("
+                + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < ids.size(); i++) {
+                stmt.setInt(i + 1, ids.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    products.add(mapResultSetToProduct(rs));
+                }
+            }
+        }
+        return products;
+    }
+
     /**
      * Get all products with stock > 0, sorted alphabetically.
      * 
@@ -114,20 +171,109 @@ public class ProductRepository {
     }
 
     /**
-     * Search products by name (case-insensitive).
+     * Query the catalog with database-side filtering, sorting and limit.
+     * Price filters and price sorting use the stored effectivePrice column.
+     * When results are grouped by type the limit applies to each type, so a
+     * large type cannot push later types out of the result. Either way this
+     * is a single statement.
      * 
-     * @param searchTerm The search term to match against product names
+     * @param query The catalog query
+     * @return Matching products, in query order
+     * @throws SQLException if database access error occurs
+     */
+    public List<Product> findCatalog(ProductQuery query) throws SQLException {
+        StringBuilder filters = new StringBuilder();
+        List<Object> params = new ArrayList<>();
+        appendCatalogFilters(query, filters, params);
+        String orderBy = query.getSortKey().getOrderBy() + ", productId";
+        params.add(Math.max(1, query.getLimit()));
+
+        String sql;
+        if (!query.isGroupByType()) {
+            sql = "SELECT * FROM ProductInfo WHERE 1 = 1" + filters + " ORDER BY " + orderBy + " LIMIT ?";
+        } else if (dbAdapter.supportsWindowFunctions()) {
+            sql = "SELECT * FROM (SELECT p.*, ROW_NUMBER() OVER (PARTITION BY productType ORDER BY " + orderBy +
+                    ") AS typeRank FROM ProductInfo p WHERE 1 = 1" + filters + ") ranked " +
+                    "WHERE typeRank <= ? ORDER BY productType, " + orderBy;
+        } else {
+            // MySQL 5.7: number the rows with user variables over a sorted derived table;
+            // the LIMIT keeps the server from dropping the inner ORDER BY
+            sql = "SELECT * FROM (SELECT sorted.*, " +
+                    "@typeRank := IF(@rankType = productType, @typeRank + 1, 1) AS typeRank, " +
+                    "@rankType := productType AS rankType " +
+                    "FROM (SELECT * FROM ProductInfo WHERE 1 = 1" + filters +
+                    " ORDER BY productType, " + orderBy + " LIMIT 18446744073709551615) sorted, " +
+                    "(SELECT @typeRank := 0, @rankType := NULL) vars) ranked " +
+                    "WHERE typeRank <= ? ORDER BY productType, " + orderBy;
+        }
+
+        List<Product> products = new ArrayList<>();
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    products.add(mapResultSetToProduct(rs));
+                }
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Append the WHERE clauses of a catalog query.
+     * 
+     * @param query  The catalog query
+     * @param sql    Receives the clauses, each starting with " AND "
+     * @param params Receives the clause parameters
+     */
+    private void appendCatalogFilters(ProductQuery query, StringBuilder sql, List<Object> params) {
+        if (query.isInStockOnly()) {
+            sql.append(" AND stock > 0");
+        }
+        if (query.getProductType() != null) {
+            sql.append(" AND productType = ?");
+            params.add(query.getProductType());
+        }
+        if (query.getMinPrice() != null) {
+            sql.append(" AND effectivePrice >= ?");
+            params.add(query.getMinPrice());
+        }
+        if (query.getMaxPrice() != null) {
+            sql.append(" AND effectivePrice <= ?");
+            params.add(query.getMaxPrice());
+        }
+    }
+
+    /**
+     * Escape LIKE wildcards in user input.
+     * 
+     * @param value The raw value
+     * @return The value with %, _ and \ escaped
+     */
+    private String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Search products by name prefix (case-insensitive through the column
+     * collation, so the productName index can be used).
+     * 
+     * @param searchTerm The search term to match against the start of product
+     *                   names
      * @return List of products matching the search term with stock > 0
      * @throws SQLException if database access error occurs
      */
     public List<Product> searchByName(String searchTerm) throws SQLException {
-        String sql = "SELECT * FROM ProductInfo WHERE LOWER(productName) LIKE ? AND stock > 0 ORDER BY productName";
+        String sql = "SELECT * FROM ProductInfo WHERE productName LIKE ? AND stock > 0 ORDER BY productName";
         List<Product> products = new ArrayList<>();
 
         try (Connection conn = dbAdapter.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, "%" + searchTerm.toLowerCase() + "%");
+            stmt.setString(1, escapeLike(searchTerm.trim()) + "%");
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
@@ -232,8 +378,12 @@ public class ProductRepository {
             try (Connection conn = dbAdapter.getConnection();
                     Statement checkStmt = conn.createStatement()) {
                 checkStmt.executeQuery("SELECT imageUrl FROM ProductInfo LIMIT 1");
+                // imageVersion is assigned before imageData, so it compares against the old image.
+                // The new image is compared by hash so its bytes are only sent once.
                 sql = "UPDATE ProductInfo SET productName = ?, productType = ?, pricePerKg = ?, " +
-                        "stock = ?, threshold = ?, description = ?, imagePath = ?, imageUrl = ?, imageData = ? WHERE productId = ?";
+                        "stock = ?, threshold = ?, description = ?, imagePath = ?, imageUrl = ?, " +
+                        "imageVersion = imageVersion + IF(SHA2(imageData, 256) <=> ?, 0, 1), imageData = ? " +
+                        "WHERE productId = ?";
             }
         } catch (SQLException e) {
             sql = "UPDATE ProductInfo SET productName = ?, productType = ?, pricePerKg = ?, " +
@@ -254,11 +404,14 @@ public class ProductRepository {
             if (sql.contains("imageUrl")) {
                 stmt.setString(8, product.getImageUrl() != null ? product.getImageUrl() : "");
                 if (product.getImageData() != null) {
-                    stmt.setBytes(9, product.getImageData());
+                    // Same lowercase hex SHA-256 as SQL SHA2(..., 256)
+                    stmt.setString(9, InvoiceCache.hashOf(product.getImageData()));
+                    stmt.setBytes(10, product.getImageData());
                 } else {
-                    stmt.setNull(9, Types.BLOB);
+                    stmt.setNull(9, Types.CHAR);
+                    stmt.setNull(10, Types.BLOB);
                 }
-                stmt.setInt(10, product.getProductId());
+                stmt.setInt(11, product.getProductId());
             } else {
                 stmt.setInt(8, product.getProductId());
             }
@@ -288,6 +441,53 @@ public class ProductRepository {
         }
     }
 
+    /**
+     * Take an ordered quantity from a product's stock on the caller's
+     * connection, so it can be part of the caller's transaction.
+     * The stock is checked in the same statement, so concurrent orders can
+     * never take it below zero.
+     * 
+     * @param conn      The connection to use; left open
+     * @param productId The ID of the product
+     * @param quantity  The quantity to take
+     * @return true if the product was updated, false if it does not exist or
+     *         has too little stock
+     * @throws SQLException if database access error occurs
+     */
+    public boolean takeStock(Connection conn, int productId, BigDecimal quantity) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE ProductInfo SET stock = stock - ? WHERE productId = ? AND stock >= ?")) {
+            stmt.setBigDecimal(1, quantity);
+            stmt.setInt(2, productId);
+            stmt.setBigDecimal(3, quantity);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Store downloaded image bytes for a product.
+     * Only the imageData column is written, and only while it is still empty,
+     * so a concurrent edit of the product row is never overwritten.
+     * 
+     * @param productId The ID of the product to update
+     * @param imageData The image bytes to store
+     * @return true if the image was stored, false if the product already had one
+     * @throws SQLException if database access error occurs
+     */
+    public boolean updateImageData(int productId, byte[] imageData) throws SQLException {
+        String sql = "UPDATE ProductInfo SET imageVersion = imageVersion + 1, imageData = ? " +
+                "WHERE productId = ? AND imageData IS NULL";
+
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setBytes(1, imageData);
+            stmt.setInt(2, productId);
+
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
     /**
      * Delete product.
      * 
@@ -336,6 +536,12 @@ public class ProductRepository {
             product.setImageData(null);
         }
 
+        try {
+            product.setImageVersion(rs.getInt("imageVersion"));
+        } catch (SQLException e) {
+            product.setImageVersion(0);
+        }
+
         return product;
     }
 }
@@ -3,7 +3,9 @@ package com.group05.greengrocer.repository;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.group05.greengrocer.model.CarrierRating;
 import com.group05.greengrocer.util.DatabaseAdapter;
@@ -70,6 +72,27 @@ public class RatingRepository {
         return ratings;
     }
 
+    /**
+     * Get the average rating of every rated carrier.
+     * 
+     * @return Average rating keyed by carrier ID
+     * @throws SQLException if database access error occurs
+     */
+    public Map<Integer, Double> findAverageRatingByCarrier() throws SQLException {
+        String sql = "SELECT carrierId, AVG(rating) AS averageRating FROM CarrierRating GROUP BY carrierId";
+        Map<Integer, Double> averages = new HashMap<>();
+
+        try (Connection conn = dbAdapter.getConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                averages.put(rs.getInt("carrierId"), rs.getDouble("averageRating"));
+            }
+        }
+        return averages;
+    }
+
     /**
      * Map ResultSet to CarrierRating object.
      * 
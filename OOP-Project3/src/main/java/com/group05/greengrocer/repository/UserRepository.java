@@ -2,6 +2,8 @@ package com.group05.greengrocer.repository;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import com.group05.greengrocer.model.User;
@@ -13,6 +15,9 @@ import com.group05.greengrocer.util.PasswordUtil;
  * Handles all database access related to users.
  */
 public class UserRepository {
+    /** Maximum number of user IDs bound in one IN (...) list. */
+    private static final int IN_CHUNK_SIZE = 500;
+
     private final DatabaseAdapter dbAdapter;
 
     /**
@@ -110,6 +115,42 @@ public class UserRepository {
         return null;
     }
 
+    /**
+     * Find many users by ID.
+     * Uses one IN (...) query per chunk of IDs.
+     * 
+     * @param userIds The user IDs to search for
+     * @return The users found, in no particular order
+     * @throws SQLException if database access error occurs
+     */
+    public List<User> findByIds(Collection<Integer> userIds) throws SQLException {
+        List<User> users = new ArrayList<>();
+        if (userIds.isEmpty()) {
+            return users;
+        }
+        List<Integer> ids = new ArrayList<>(userIds);
+
+        try (Connection conn = dbAdapter.getConnection()) {
+            for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + IN_CHUNK_SIZE, ids.size()));
+                String sql = "SELECT * FROM UserInfo WHERE userId IN ("
+                        + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        stmt.setInt(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            users.add(mapResultSetToUser(rs));
+                        }
+                    }
+                }
+            }
+        }
+        return users;
+    }
+
     /**
      * Get all users by role.
      * 
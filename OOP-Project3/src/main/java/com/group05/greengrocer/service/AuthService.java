@@ -193,6 +193,7 @@ public class AuthService {
         try {
             if (userRepository.update(currentUser)) {
                 session.setCurrentUser(currentUser);
+                UserDirectory.getInstance().put(currentUser);
                 return "SUCCESS";
             } else {
                 return "Failed to update profile. Please try again.";
@@ -0,0 +1,260 @@
+package com.group05.greengrocer.service;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.group05.greengrocer.model.DeliverySlot;
+import com.group05.greengrocer.repository.DeliverySlotRepository;
+import com.group05.greengrocer.util.AsyncExecutor;
+
+/**
+ * Service class for delivery time slot capacity.
+ * Singleton pattern. Deliveries are booked into one-hour slots; the database
+ * row is the source of truth and is booked in the checkout transaction. An
+ * in-memory copy of the bookable window answers availability checks for the
+ * cart's time picker. The copy is split into lock stripes so checkouts for
+ * different hours never contend on the same lock, and it is refreshed in the
+ * background once it is older than the TTL.
+ */
+public class DeliverySlotService {
+    private static final int STRIPES = 16;
+    private static final long CACHE_TTL_MS = 30_000;
+    private static final int WINDOW_HOURS = 48;
+    private static final String REFRESH_KEY = "deliverySlots";
+
+    private static volatile int defaultCapacity = 10;
+
+    private static DeliverySlotService instance;
+
+    private final DeliverySlotRepository deliverySlotRepository;
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final List<Map<LocalDateTime, DeliverySlot>> stripes = new ArrayList<>(STRIPES);
+    private volatile long loadedAtMillis;
+
+    /**
+     * Private constructor for singleton pattern.
+     */
+    private DeliverySlotService() {
+        this.deliverySlotRepository = new DeliverySlotRepository();
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+            stripes.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Get singleton instance of DeliverySlotService.
+     *
+     * @return The DeliverySlotService instance
+     */
+    public static synchronized DeliverySlotService getInstance() {
+        if (instance == null) {
+            instance = new DeliverySlotService();
+        }
+        return instance;
+    }
+
+    /**
+     * Get the capacity of slots that have no configured capacity.
+     *
+     * @return Orders accepted per slot by default
+     */
+    public static int getDefaultCapacity() {
+        return defaultCapacity;
+    }
+
+    /**
+     * Set the capacity of slots that have no configured capacity.
+     *
+     * @param capacity Orders accepted per slot by default
+     */
+    public static void setDefaultCapacity(int capacity) {
+        if (capacity > 0) {
+            defaultCapacity = capacity;
+        }
+    }
+
+    /**
+     * Get the slot a delivery time falls into.
+     *
+     * @param deliveryDate The delivery time
+     * @return Start of the one-hour slot
+     */
+    public static LocalDateTime slotStartOf(LocalDateTime deliveryDate) {
+        return deliveryDate.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    /**
+     * Load the bookable window from the database into the cache.
+     *
+     * @return true if the cache was refreshed
+     */
+    public boolean refresh() {
+        LocalDateTime from = slotStartOf(LocalDateTime.now());
+        List<DeliverySlot> slots;
+        try {
+            slots = deliverySlotRepository.findBetween(from, from.plusHours(WINDOW_HOURS + 1));
+        } catch (SQLException e) {
+            System.err.println("Error loading delivery slots: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+
+        List<List<DeliverySlot>> byStripe = new ArrayList<>(STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            byStripe.add(new ArrayList<>());
+        }
+        for (DeliverySlot slot : slots) {
+            byStripe.get(stripeOf(slot.getSlotStart())).add(slot);
+        }
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i].lock();
+            try {
+                Map<LocalDateTime, DeliverySlot> stripe = stripes.get(i);
+                stripe.clear();
+                for (DeliverySlot slot : byStripe.get(i)) {
+                    stripe.put(slot.getSlotStart(), slot);
+                }
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        loadedAtMillis = System.currentTimeMillis();
+        return true;
+    }
+
+    /**
+     * Refresh the cache in the background if it is older than the TTL.
+     * Concurrent callers share one refresh.
+     *
+     * @return A future completed with true once the cache is fresh
+     */
+    public CompletableFuture<Boolean> refreshIfStale() {
+        if (System.currentTimeMillis() - loadedAtMillis <= CACHE_TTL_MS) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return AsyncExecutor.getInstance().submit(REFRESH_KEY, this::refresh);
+    }
+
+    /**
+     * Get how many more orders a slot accepts, from the cache.
+     *
+     * @param deliveryDate Any time within the slot
+     * @return Remaining capacity of the slot
+     */
+    public int getRemaining(LocalDateTime deliveryDate) {
+        LocalDateTime slotStart = slotStartOf(deliveryDate);
+        int index = stripeOf(slotStart);
+        locks[index].lock();
+        try {
+            DeliverySlot slot = stripes.get(index).get(slotStart);
+            return slot != null ? slot.getRemaining() : defaultCapacity;
+        } finally {
+            locks[index].unlock();
+        }
+    }
+
+    /**
+     * Update the cache with the outcome of a booking made at checkout.
+     *
+     * @param deliveryDate The delivery time of the order
+     * @param reserved     true if the slot was booked, false if it was full
+     */
+    public void recordReservation(LocalDateTime deliveryDate, boolean reserved) {
+        LocalDateTime slotStart = slotStartOf(deliveryDate);
+        int index = stripeOf(slotStart);
+        locks[index].lock();
+        try {
+            DeliverySlot slot = stripes.get(index)
+                    .computeIfAbsent(slotStart, k -> new DeliverySlot(k, defaultCapacity, 0));
+            if (reserved) {
+                slot.setReserved(Math.min(slot.getCapacity(), slot.getReserved() + 1));
+            } else {
+                slot.setReserved(slot.getCapacity());
+            }
+        } finally {
+            locks[index].unlock();
+        }
+    }
+
+    /**
+     * Give back the booking of a cancelled or failed order.
+     *
+     * @param deliveryDate The delivery time of the order
+     * @return true if a booking was released
+     */
+    public boolean release(LocalDateTime deliveryDate) {
+        LocalDateTime slotStart = slotStartOf(deliveryDate);
+        try {
+            if (!deliverySlotRepository.release(slotStart)) {
+                return false;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error releasing delivery slot: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+
+        int index = stripeOf(slotStart);
+        locks[index].lock();
+        try {
+            DeliverySlot slot = stripes.get(index).get(slotStart);
+            if (slot != null) {
+                slot.setReserved(Math.max(0, slot.getReserved() - 1));
+            }
+        } finally {
+            locks[index].unlock();
+        }
+        return true;
+    }
+
+    /**
+     * Set the capacity of one slot.
+     *
+     * @param deliveryDate Any time within the slot
+     * @param capacity     Orders accepted in the slot
+     * @return true if the capacity was saved
+     */
+    public boolean setCapacity(LocalDateTime deliveryDate, int capacity) {
+        if (capacity < 0) {
+            return false;
+        }
+        LocalDateTime slotStart = slotStartOf(deliveryDate);
+        try {
+            if (!deliverySlotRepository.setCapacity(slotStart, capacity)) {
+                return false;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error updating delivery slot capacity: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+
+        int index = stripeOf(slotStart);
+        locks[index].lock();
+        try {
+            stripes.get(index).computeIfAbsent(slotStart, k -> new DeliverySlot(k, capacity, 0))
+                    .setCapacity(capacity);
+        } finally {
+            locks[index].unlock();
+        }
+        return true;
+    }
+
+    /**
+     * Get the lock stripe of a slot.
+     *
+     * @param slotStart Start of the slot
+     * @return Stripe index
+     */
+    private static int stripeOf(LocalDateTime slotStart) {
+        return Math.floorMod(slotStart.hashCode(), STRIPES);
+    }
+}
@@ -0,0 +1,276 @@
+package com.group05.greengrocer.service;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+import com.group05.greengrocer.model.Order;
+import com.group05.greengrocer.model.User;
+import com.group05.greengrocer.repository.OrderRepository;
+import com.group05.greengrocer.repository.RatingRepository;
+import com.group05.greengrocer.repository.UserRepository;
+
+/**
+ * Background dispatcher that assigns pending orders to active carriers.
+ * Singleton pattern; off until started by the owner. Each run orders the
+ * pending orders by delivery urgency and hands each one to the carrier at the
+ * head of a priority queue keyed on open order count, then average rating.
+ * Orders whose delivery time has already passed stay in the queue and go
+ * first; their count is reported in the metrics so the owner sees them.
+ * Assignments are written per carrier with the batch claim, so orders a
+ * carrier took manually in the meantime are simply skipped.
+ */
+public class DispatchScheduler {
+    private static final long INTERVAL_SECONDS = 30;
+    /** Open orders at which a carrier stops receiving automatic assignments. */
+    private static final int MAX_OPEN_ORDERS = 5;
+    /** Rating assumed for carriers nobody has rated yet. */
+    private static final double DEFAULT_RATING = 3.0;
+
+    private static DispatchScheduler instance;
+
+    private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final RatingRepository ratingRepository;
+    private final ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> task;
+    private volatile IntConsumer onDispatched;
+
+    private volatile long startedAtMillis;
+    private final AtomicLong runCount = new AtomicLong();
+    private final AtomicLong assignedCount = new AtomicLong();
+    private final AtomicLong lostCount = new AtomicLong();
+    private final AtomicLong totalWaitSeconds = new AtomicLong();
+    private final AtomicLong maxWaitSeconds = new AtomicLong();
+    private volatile int overdueCount;
+
+    /**
+     * A carrier's place in the dispatch queue.
+     */
+    private static final class CarrierLoad {
+        final int carrierId;
+        final double rating;
+        int openOrders;
+
+        CarrierLoad(int carrierId, double rating, int openOrders) {
+            this.carrierId = carrierId;
+            this.rating = rating;
+            this.openOrders = openOrders;
+        }
+    }
+
+    /**
+     * Private constructor for singleton pattern.
+     */
+    private DispatchScheduler() {
+        this.orderRepository = new OrderRepository();
+        this.userRepository = new UserRepository();
+        this.ratingRepository = new RatingRepository();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dispatch-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Get singleton instance of DispatchScheduler.
+     *
+     * @return The DispatchScheduler instance
+     */
+    public static synchronized DispatchScheduler getInstance() {
+        if (instance == null) {
+            instance = new DispatchScheduler();
+        }
+        return instance;
+    }
+
+    /**
+     * Start dispatching with fresh metrics. The first run happens
+     * immediately.
+     */
+    public synchronized void start() {
+        if (isRunning()) {
+            return;
+        }
+        runCount.set(0);
+        assignedCount.set(0);
+        lostCount.set(0);
+        totalWaitSeconds.set(0);
+        maxWaitSeconds.set(0);
+        overdueCount = 0;
+        startedAtMillis = System.currentTimeMillis();
+        task = scheduler.scheduleWithFixedDelay(this::runSafely, 0, INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop dispatching. A run in progress finishes its current batch.
+     */
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+        }
+    }
+
+    /**
+     * Check whether the dispatcher is running.
+     *
+     * @return true if runs are scheduled
+     */
+    public synchronized boolean isRunning() {
+        return task != null && !task.isDone();
+    }
+
+    /**
+     * Set an action run on the dispatcher thread after each run, including
+     * runs that assigned nothing or failed.
+     *
+     * @param onDispatched Receives the number of orders assigned by the run;
+     *                     null for none
+     */
+    public void setOnDispatched(IntConsumer onDispatched) {
+        this.onDispatched = onDispatched;
+    }
+
+    /**
+     * Run one dispatch pass, logging instead of propagating errors so the
+     * schedule keeps going.
+     */
+    private void runSafely() {
+        int assigned = 0;
+        try {
+            assigned = dispatchOnce();
+        } catch (SQLException e) {
+            System.err.println("Error dispatching orders: " + e.getMessage());
+            e.printStackTrace();
+        } catch (RuntimeException e) {
+            System.err.println("Unexpected error dispatching orders: " + e.getMessage());
+            e.printStackTrace();
+        }
+        IntConsumer listener = onDispatched;
+        if (listener != null) {
+            listener.accept(assigned);
+        }
+    }
+
+    /**
+     * Assign pending orders to carriers once.
+     *
+     * @return Number of orders assigned
+     * @throws SQLException if database access error occurs
+     */
+    private int dispatchOnce() throws SQLException {
+        runCount.incrementAndGet();
+        LocalDateTime now = LocalDateTime.now();
+
+        PriorityQueue<Order> pending = new PriorityQueue<>(Comparator
+                .comparing(Order::getDeliveryDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Order::getOrderDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparingInt(Order::getOrderId));
+        int overdue = 0;
+        for (Order order : orderRepository.findAvailableOrders()) {
+            if (order.getDeliveryDate() != null && order.getDeliveryDate().isBefore(now)) {
+                overdue++;
+            }
+            pending.add(order);
+        }
+        overdueCount = overdue;
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        Map<Integer, Integer> openOrders = orderRepository.countOpenOrdersByCarrier();
+        Map<Integer, Double> ratings = ratingRepository.findAverageRatingByCarrier();
+        PriorityQueue<CarrierLoad> carriers = new PriorityQueue<>(Comparator
+                .comparingInt((CarrierLoad c) -> c.openOrders)
+                .thenComparingDouble(c -> -c.rating)
+                .thenComparingInt(c -> c.carrierId));
+        for (User carrier : userRepository.getAllCarriers()) {
+            int open = openOrders.getOrDefault(carrier.getUserId(), 0);
+            if (open < MAX_OPEN_ORDERS) {
+                carriers.add(new CarrierLoad(carrier.getUserId(),
+                        ratings.getOrDefault(carrier.getUserId(), DEFAULT_RATING), open));
+            }
+        }
+
+        Map<Integer, List<Order>> plan = new LinkedHashMap<>();
+        while (!pending.isEmpty() && !carriers.isEmpty()) {
+            CarrierLoad carrier = carriers.poll();
+            plan.computeIfAbsent(carrier.carrierId, k -> new ArrayList<>()).add(pending.poll());
+            carrier.openOrders++;
+            if (carrier.openOrders < MAX_OPEN_ORDERS) {
+                carriers.add(carrier);
+            }
+        }
+
+        int assigned = 0;
+        for (Map.Entry<Integer, List<Order>> entry : plan.entrySet()) {
+            Map<Integer, Order> byId = new HashMap<>();
+            for (Order order : entry.getValue()) {
+                byId.put(order.getOrderId(), order);
+            }
+            Set<Integer> won = orderRepository.claimOrders(byId.keySet(), entry.getKey(),
+                    "Carrier assigned by dispatcher. Carrier ID: " + entry.getKey());
+            lostCount.addAndGet(byId.size() - won.size());
+            for (Integer orderId : won) {
+                recordWait(byId.get(orderId), now);
+            }
+            assigned += won.size();
+        }
+        assignedCount.addAndGet(assigned);
+        return assigned;
+    }
+
+    /**
+     * Record how long an order waited before it was assigned.
+     */
+    private void recordWait(Order order, LocalDateTime assignedAt) {
+        if (order.getOrderDate() == null) {
+            return;
+        }
+        long waitSeconds = Math.max(0, Duration.between(order.getOrderDate(), assignedAt).getSeconds());
+        totalWaitSeconds.addAndGet(waitSeconds);
+        maxWaitSeconds.accumulateAndGet(waitSeconds, Math::max);
+    }
+
+    /**
+     * Get a one-line summary of dispatch metrics for display.
+     *
+     * @return Runs, assignments, lost claims, throughput, wait times and the
+     *         overdue pending orders of the last run
+     */
+    public String getMetricsSummary() {
+        long assigned = assignedCount.get();
+        double minutes = startedAtMillis > 0 ? (System.currentTimeMillis() - startedAtMillis) / 60000.0 : 0;
+        return "runs=" + runCount.get()
+                + ", assigned=" + assigned
+                + ", lost=" + lostCount.get()
+                + ", throughput=" + String.format("%.1f", minutes > 0 ? assigned / minutes : 0.0) + "/min"
+                + ", avgWait=" + (assigned > 0 ? totalWaitSeconds.get() / assigned : 0) + "s"
+                + ", maxWait=" + maxWaitSeconds.get() + "s"
+                + ", overdue=" + overdueCount;
+    }
+
+    /**
+     * Stop the dispatcher thread.
+     */
+    public void shutdown() {
+        stop();
+        scheduler.shutdownNow();
+    }
+}
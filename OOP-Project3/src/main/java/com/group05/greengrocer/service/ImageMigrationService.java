@@ -0,0 +1,270 @@
+package com.group05.greengrocer.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.group05.greengrocer.model.Product;
+import com.group05.greengrocer.repository.ProductRepository;
+import com.group05.greengrocer.util.AsyncExecutor;
+
+/**
+ * Service class for migrating URL-only product images into the imageData
+ * BLOB column.
+ * Singleton pattern. Downloads run on a small bounded pool, are rate limited,
+ * de-duplicated by URL and retried with exponential backoff. Only the
+ * imageData column is written. Progress is counted for the owner screen.
+ */
+public class ImageMigrationService {
+    private static final int WORKER_THREADS = 2;
+    private static final int QUEUE_CAPACITY = 200;
+    private static final long MIN_INTERVAL_MILLIS = 250;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long INITIAL_BACKOFF_MILLIS = 1000;
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+    private static final int READ_TIMEOUT_MILLIS = 10000;
+    private static final int MAX_IMAGE_BYTES = 5 * 1024 * 1024;
+
+    private static ImageMigrationService instance;
+
+    private final ProductRepository productRepository;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService retryScheduler;
+    private final Map<String, Map<Integer, Product>> pendingByUrl = new ConcurrentHashMap<>();
+    private final Set<Integer> migratedProductIds = ConcurrentHashMap.newKeySet();
+    private final Object rateLock = new Object();
+    private long nextDownloadAt;
+
+    private final AtomicInteger queuedCount = new AtomicInteger();
+    private final AtomicInteger duplicateCount = new AtomicInteger();
+    private final AtomicInteger migratedCount = new AtomicInteger();
+    private final AtomicInteger retryCount = new AtomicInteger();
+    private final AtomicInteger failedCount = new AtomicInteger();
+    private final AtomicInteger rejectedCount = new AtomicInteger();
+
+    /**
+     * Private constructor for singleton pattern.
+     */
+    private ImageMigrationService() {
+        this.productRepository = new ProductRepository();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, "image-migration-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.workers.allowCoreThreadTimeOut(true);
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "image-migration-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Get singleton instance of ImageMigrationService.
+     *
+     * @return The ImageMigrationService instance
+     */
+    public static synchronized ImageMigrationService getInstance() {
+        if (instance == null) {
+            instance = new ImageMigrationService();
+        }
+        return instance;
+    }
+
+    /**
+     * Queue a product whose image is only available as a URL.
+     * Products that already have image bytes, were migrated earlier in this
+     * session, or whose URL is already queued, do not start another download.
+     *
+     * @param product The product to migrate
+     * @return true if a new download was queued
+     */
+    public boolean enqueue(Product product) {
+        if (product == null || product.getImageData() != null && product.getImageData().length > 0) {
+            return false;
+        }
+        String url = product.getImageUrl();
+        if (url == null || url.trim().isEmpty() || migratedProductIds.contains(product.getProductId())) {
+            return false;
+        }
+
+        boolean[] created = new boolean[1];
+        pendingByUrl.compute(url, (key, products) -> {
+            if (products == null) {
+                products = new ConcurrentHashMap<>();
+                created[0] = true;
+            }
+            products.put(product.getProductId(), product);
+            return products;
+        });
+
+        if (!created[0]) {
+            duplicateCount.incrementAndGet();
+            return false;
+        }
+
+        queuedCount.incrementAndGet();
+        submit(url, 1);
+        return true;
+    }
+
+    /**
+     * Hand a download attempt to the worker pool.
+     *
+     * @param url     The image URL
+     * @param attempt The attempt number, starting at 1
+     */
+    private void submit(String url, int attempt) {
+        try {
+            workers.execute(() -> migrate(url, attempt));
+        } catch (RejectedExecutionException e) {
+            // Queue full or shutting down; the URL can be queued again on the next catalog load
+            pendingByUrl.remove(url);
+            rejectedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Download an image and store it for every product waiting on the URL.
+     * The stored bytes are also set on the waiting product objects, so the
+     * loaded catalog does not queue them again. A product stops waiting only
+     * once its write succeeded, so a retry after a failed write still finds
+     * the products that are left.
+     *
+     * @param url     The image URL
+     * @param attempt The attempt number, starting at 1
+     */
+    private void migrate(String url, int attempt) {
+        try {
+            awaitRateLimit();
+            byte[] bytes = download(url);
+
+            Map<Integer, Product> products = pendingByUrl.get(url);
+            while (products != null) {
+                for (Product product : products.values()) {
+                    if (productRepository.updateImageData(product.getProductId(), bytes)) {
+                        migratedCount.incrementAndGet();
+                        migratedProductIds.add(product.getProductId());
+                        AsyncExecutor.runOnFx(() -> {
+                            product.setImageData(bytes);
+                            product.setImageVersion(product.getImageVersion() + 1);
+                        });
+                    }
+                    products.remove(product.getProductId());
+                }
+                // Products that joined during the writes are stored with the same bytes
+                products = pendingByUrl.computeIfPresent(url, (key, waiting) -> waiting.isEmpty() ? null : waiting);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pendingByUrl.remove(url);
+        } catch (IOException | SQLException e) {
+            if (attempt < MAX_ATTEMPTS && !retryScheduler.isShutdown()) {
+                retryCount.incrementAndGet();
+                long delay = INITIAL_BACKOFF_MILLIS << (attempt - 1);
+                retryScheduler.schedule(() -> submit(url, attempt + 1), delay, TimeUnit.MILLISECONDS);
+            } else {
+                pendingByUrl.remove(url);
+                failedCount.incrementAndGet();
+                System.err.println("Error migrating image " + url + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Block until the next download slot, spacing downloads at least
+     * MIN_INTERVAL_MILLIS apart across all workers.
+     *
+     * @throws InterruptedException if the worker is interrupted while waiting
+     */
+    private void awaitRateLimit() throws InterruptedException {
+        long waitMillis;
+        synchronized (rateLock) {
+            long now = System.currentTimeMillis();
+            long slot = Math.max(now, nextDownloadAt);
+            nextDownloadAt = slot + MIN_INTERVAL_MILLIS;
+            waitMillis = slot - now;
+        }
+        if (waitMillis > 0) {
+            Thread.sleep(waitMillis);
+        }
+    }
+
+    /**
+     * Read the full contents of a URL (http, https or file).
+     *
+     * @param url The image URL
+     * @return The downloaded bytes
+     * @throws IOException if the download fails or the image is too large
+     */
+    private byte[] download(String url) throws IOException {
+        URLConnection connection = new URL(url).openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+        connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+
+        try (InputStream in = connection.getInputStream();
+                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (out.size() + read > MAX_IMAGE_BYTES) {
+                    throw new IOException("Image exceeds " + MAX_IMAGE_BYTES + " bytes");
+                }
+                out.write(buffer, 0, read);
+            }
+            if (out.size() == 0) {
+                throw new IOException("Empty image");
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Get the number of URLs still waiting for a download.
+     *
+     * @return Pending URL count
+     */
+    public int getPendingCount() {
+        return pendingByUrl.size();
+    }
+
+    /**
+     * Get a one-line summary of migration progress.
+     *
+     * @return Progress metrics
+     */
+    public String getProgressSummary() {
+        return "queued=" + queuedCount.get()
+                + ", duplicates=" + duplicateCount.get()
+                + ", migrated=" + migratedCount.get()
+                + ", retries=" + retryCount.get()
+                + ", failed=" + failedCount.get()
+                + ", rejected=" + rejectedCount.get()
+                + ", pending=" + getPendingCount();
+    }
+
+    /**
+     * Stop downloads and pending retries.
+     */
+    public void shutdown() {
+        retryScheduler.shutdownNow();
+        workers.shutdownNow();
+        pendingByUrl.clear();
+    }
+}
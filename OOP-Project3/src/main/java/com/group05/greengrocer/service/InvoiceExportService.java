@@ -0,0 +1,236 @@
+package com.group05.greengrocer.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import com.group05.greengrocer.model.InvoiceExportPage;
+import com.group05.greengrocer.model.Order;
+import com.group05.greengrocer.repository.OrderRepository;
+import com.group05.greengrocer.util.InvoiceCache;
+
+/**
+ * Bulk invoice export.
+ * Singleton pattern. Writes the invoices of every order in a date range, and
+ * optionally of one status, into a ZIP stream. Orders are read in keyset
+ * pages and stored invoices are copied one at a time into the archive, from
+ * the local invoice cache when present and otherwise from the database.
+ * Invoices that were never generated are rendered by a small pool a bounded
+ * distance ahead of the writer and stored for next time. Only one page of IDs
+ * and a fixed number of rendered invoices are in memory at once, however many
+ * orders are exported.
+ */
+public class InvoiceExportService {
+    private static final int PAGE_SIZE = 200;
+    private static final int RENDER_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    private static final int RENDER_AHEAD = RENDER_THREADS * 2;
+    private static final String FAILURES_ENTRY = "MISSING.txt";
+
+    private static InvoiceExportService instance;
+
+    private final OrderRepository orderRepository;
+    private final OrderService orderService;
+
+    /**
+     * An order of the export with the hash of its stored invoice or, if its
+     * invoice is being rendered, the pending PDF.
+     */
+    private static final class Entry {
+        final int orderId;
+        final String invoiceHash;
+        final Future<byte[]> rendered;
+
+        Entry(int orderId, String invoiceHash, Future<byte[]> rendered) {
+            this.orderId = orderId;
+            this.invoiceHash = invoiceHash;
+            this.rendered = rendered;
+        }
+    }
+
+    /**
+     * Private constructor for singleton pattern.
+     */
+    private InvoiceExportService() {
+        this.orderRepository = new OrderRepository();
+        this.orderService = new OrderService();
+    }
+
+    /**
+     * Get singleton instance of InvoiceExportService.
+     *
+     * @return The InvoiceExportService instance
+     */
+    public static synchronized InvoiceExportService getInstance() {
+        if (instance == null) {
+            instance = new InvoiceExportService();
+        }
+        return instance;
+    }
+
+    /**
+     * Write the invoices of the orders placed in a date range as a ZIP
+     * archive, one order_N.pdf entry per order. Orders whose invoice cannot
+     * be produced are listed in a MISSING.txt entry.
+     *
+     * @param from   First order date (inclusive)
+     * @param to     Last order date (inclusive)
+     * @param status Order status to include, or null for all
+     * @param out    The stream to write the archive to; left open
+     * @return Number of invoices written
+     * @throws IOException  if the archive cannot be written
+     * @throws SQLException if the orders cannot be read
+     */
+    public int export(LocalDate from, LocalDate to, String status, OutputStream out)
+            throws IOException, SQLException {
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService renderers = Executors.newFixedThreadPool(RENDER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "invoice-export-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Deque<Entry> window = new ArrayDeque<>();
+        List<Integer> failed = new ArrayList<>();
+        int written = 0;
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        // PDFs are already compressed; spend as little time as possible deflating them
+        zip.setLevel(Deflater.BEST_SPEED);
+        try {
+            LocalDateTime afterOrderDate = from.atStartOfDay();
+            int afterOrderId = 0;
+            while (true) {
+                InvoiceExportPage page = orderRepository.findInvoiceExportPage(
+                        afterOrderDate, afterOrderId, to.plusDays(1).atStartOfDay(), status, PAGE_SIZE);
+                afterOrderDate = page.getLastOrderDate();
+                afterOrderId = page.getLastOrderId();
+                for (Map.Entry<Integer, String> order : page.getInvoiceHashes().entrySet()) {
+                    int orderId = order.getKey();
+                    String invoiceHash = order.getValue();
+                    window.addLast(new Entry(orderId, invoiceHash,
+                            invoiceHash != null ? null : renderers.submit(() -> renderAndStore(orderId))));
+                    if (window.size() > RENDER_AHEAD) {
+                        written += writeEntry(zip, window.removeFirst(), failed);
+                    }
+                }
+                if (page.getInvoiceHashes().size() < PAGE_SIZE) {
+                    break;
+                }
+            }
+            while (!window.isEmpty()) {
+                written += writeEntry(zip, window.removeFirst(), failed);
+            }
+
+            if (!failed.isEmpty()) {
+                zip.putNextEntry(new ZipEntry(FAILURES_ENTRY));
+                StringBuilder text = new StringBuilder("Invoices could not be produced for these orders:\n");
+                for (Integer orderId : failed) {
+                    text.append("Order #").append(orderId).append('\n');
+                }
+                zip.write(text.toString().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+            zip.finish();
+            return written;
+        } finally {
+            for (Entry entry : window) {
+                if (entry.rendered != null) {
+                    entry.rendered.cancel(true);
+                }
+            }
+            renderers.shutdownNow();
+        }
+    }
+
+    /**
+     * Write the invoice of one order to the archive.
+     *
+     * @param zip    The archive
+     * @param entry  The order and its pending rendering, if any
+     * @param failed Collects orders whose invoice could not be produced
+     * @return 1 if an invoice was written, 0 otherwise
+     * @throws IOException  if the archive cannot be written
+     * @throws SQLException if a stored invoice cannot be read
+     */
+    private int writeEntry(ZipOutputStream zip, Entry entry, List<Integer> failed)
+            throws IOException, SQLException {
+        byte[] pdfBytes = null;
+        if (entry.rendered != null) {
+            try {
+                pdfBytes = entry.rendered.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Invoice export interrupted", e);
+            } catch (ExecutionException e) {
+                System.err.println("Error generating invoice for order " + entry.orderId + ": "
+                        + e.getCause().getMessage());
+            }
+            if (pdfBytes == null) {
+                failed.add(entry.orderId);
+                return 0;
+            }
+        }
+
+        ZipEntry zipEntry = new ZipEntry("order_" + entry.orderId + ".pdf");
+        if (pdfBytes != null) {
+            zip.putNextEntry(zipEntry);
+            zip.write(pdfBytes);
+            zip.closeEntry();
+            return 1;
+        }
+
+        FileChannel cached = InvoiceCache.getInstance().open(entry.orderId, entry.invoiceHash);
+        if (cached != null) {
+            try (FileChannel in = cached) {
+                zip.putNextEntry(zipEntry);
+                InvoiceCache.transfer(in, Channels.newChannel(zip));
+                zip.closeEntry();
+            }
+            return 1;
+        }
+        if (!orderRepository.copyInvoicePDF(entry.orderId, zip, zipEntry)) {
+            // The invoice was removed after the page was read
+            failed.add(entry.orderId);
+            return 0;
+        }
+        return 1;
+    }
+
+    /**
+     * Generate and store the invoice of an order that has none.
+     *
+     * @param orderId The order ID
+     * @return The PDF file as byte array
+     * @throws IOException if the invoice cannot be generated
+     */
+    private byte[] renderAndStore(int orderId) throws IOException {
+        Order order = orderService.getOrderById(orderId);
+        if (order == null) {
+            throw new IOException("Order not found: " + orderId);
+        }
+        byte[] pdfBytes = orderService.generateInvoicePDF(order);
+        if (pdfBytes == null) {
+            throw new IOException("PDF generation failed");
+        }
+        orderService.saveInvoicePDF(orderId, pdfBytes);
+        InvoiceCache.getInstance().put(orderId, pdfBytes);
+        return pdfBytes;
+    }
+}
@@ -0,0 +1,268 @@
+package com.group05.greengrocer.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.group05.greengrocer.model.InvoiceJob;
+import com.group05.greengrocer.model.Order;
+import com.group05.greengrocer.repository.InvoiceJobRepository;
+import com.group05.greengrocer.util.InvoiceCache;
+
+/**
+ * Background invoice generation.
+ * Singleton pattern. Checkout queues a job in the InvoiceJob table in the
+ * same transaction as the order and returns; a small worker pool renders the
+ * PDF, stores it with the order and in the local invoice cache, and writes
+ * the invoice file. Jobs are durable: queued jobs and jobs abandoned by a
+ * stopped application are picked up again on the next poll. Failed attempts
+ * are retried up to a limit.
+ */
+public class InvoiceJobService {
+    private static final int WORKER_THREADS = 2;
+    private static final int BATCH_SIZE = 20;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long POLL_INTERVAL_SECONDS = 15;
+    private static final int STALE_MINUTES = 5;
+    private static final String INVOICE_DIR = "invoices";
+
+    private static InvoiceJobService instance;
+
+    private final InvoiceJobRepository invoiceJobRepository;
+    private final OrderService orderService;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService poller;
+    private final Set<Integer> submittedJobs = ConcurrentHashMap.newKeySet();
+    private final Map<Integer, CompletableFuture<InvoiceJob>> waitersByOrder = new ConcurrentHashMap<>();
+    private ScheduledFuture<?> pollTask;
+
+    /**
+     * Private constructor for singleton pattern.
+     */
+    private InvoiceJobService() {
+        this.invoiceJobRepository = new InvoiceJobRepository();
+        this.orderService = new OrderService();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(WORKER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "invoice-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "invoice-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Get singleton instance of InvoiceJobService.
+     *
+     * @return The InvoiceJobService instance
+     */
+    public static synchronized InvoiceJobService getInstance() {
+        if (instance == null) {
+            instance = new InvoiceJobService();
+        }
+        return instance;
+    }
+
+    /**
+     * Start processing queued jobs, including those left over from a
+     * previous run.
+     */
+    public synchronized void start() {
+        if (pollTask != null) {
+            return;
+        }
+        pollTask = poller.scheduleWithFixedDelay(this::pollSafely, 0, POLL_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Wake the workers after checkout queued a job, instead of waiting for
+     * the next scheduled poll.
+     */
+    public void wake() {
+        try {
+            poller.execute(this::pollSafely);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the job stays queued for the next start
+        }
+    }
+
+    /**
+     * Get the invoice job of an order.
+     *
+     * @param orderId The order ID
+     * @return The job, or null if the order has none or on error
+     */
+    public InvoiceJob getJob(int orderId) {
+        try {
+            return invoiceJobRepository.findByOrderId(orderId);
+        } catch (SQLException e) {
+            System.err.println("Error fetching invoice job: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Get a future completed when an order's invoice job is finished, either
+     * Done or finally Failed. It completes exceptionally if this application
+     * cannot follow the job, e.g. because another instance runs it or the job
+     * cannot be updated.
+     *
+     * @param orderId The order ID
+     * @return The future job result
+     */
+    public CompletableFuture<InvoiceJob> whenFinished(int orderId) {
+        CompletableFuture<InvoiceJob> waiter = waitersByOrder.computeIfAbsent(orderId,
+                k -> new CompletableFuture<>());
+        // The job may have finished before the waiter was registered
+        InvoiceJob job = getJob(orderId);
+        if (job != null && job.isFinished() && waitersByOrder.remove(orderId, waiter)) {
+            waiter.complete(job);
+        }
+        return waiter;
+    }
+
+    /**
+     * Stop polling and the worker threads. Unfinished jobs stay in the table.
+     */
+    public synchronized void shutdown() {
+        if (pollTask != null) {
+            pollTask.cancel(false);
+            pollTask = null;
+        }
+        poller.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Hand queued jobs to the workers, logging instead of propagating errors
+     * so the schedule keeps going.
+     */
+    private void pollSafely() {
+        try {
+            int requeued = invoiceJobRepository.requeueStale(STALE_MINUTES);
+            if (requeued > 0) {
+                System.out.println("Requeued " + requeued + " interrupted invoice job(s)");
+            }
+            List<InvoiceJob> jobs = invoiceJobRepository.findQueued(BATCH_SIZE);
+            for (InvoiceJob job : jobs) {
+                if (!submittedJobs.add(job.getJobId())) {
+                    continue;
+                }
+                try {
+                    workers.execute(() -> process(job));
+                } catch (RejectedExecutionException e) {
+                    submittedJobs.remove(job.getJobId());
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error polling invoice jobs: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Unexpected error polling invoice jobs: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Claim and run one job.
+     *
+     * @param job The queued job
+     */
+    private void process(InvoiceJob job) {
+        try {
+            if (!invoiceJobRepository.claim(job.getJobId())) {
+                failWaiter(job.getOrderId(), new IllegalStateException(
+                        "Invoice job for order " + job.getOrderId() + " is run elsewhere"));
+                return;
+            }
+            job.setAttempts(job.getAttempts() + 1);
+            job.setStatus(InvoiceJob.RUNNING);
+            try {
+                job.setInvoicePath(render(job.getOrderId()));
+                job.setStatus(InvoiceJob.DONE);
+                invoiceJobRepository.markDone(job.getJobId(), job.getInvoicePath());
+            } catch (IOException | RuntimeException e) {
+                boolean retry = job.getAttempts() < MAX_ATTEMPTS;
+                System.err.println("Invoice job for order " + job.getOrderId() + " failed (attempt "
+                        + job.getAttempts() + "): " + e.getMessage());
+                job.setStatus(retry ? InvoiceJob.QUEUED : InvoiceJob.FAILED);
+                job.setLastError(e.getMessage());
+                invoiceJobRepository.markFailed(job.getJobId(), e.getMessage(), retry);
+            }
+            if (job.isFinished()) {
+                CompletableFuture<InvoiceJob> waiter = waitersByOrder.remove(job.getOrderId());
+                if (waiter != null) {
+                    waiter.complete(job);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error updating invoice job: " + e.getMessage());
+            e.printStackTrace();
+            failWaiter(job.getOrderId(), e);
+        } finally {
+            submittedJobs.remove(job.getJobId());
+        }
+    }
+
+    /**
+     * Release the waiter of an order whose job this application cannot see
+     * through.
+     *
+     * @param orderId The order ID
+     * @param cause   Why the job cannot be followed
+     */
+    private void failWaiter(int orderId, Throwable cause) {
+        CompletableFuture<InvoiceJob> waiter = waitersByOrder.remove(orderId);
+        if (waiter != null) {
+            waiter.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * Generate, store and write the invoice of an order.
+     *
+     * @param orderId The order ID
+     * @return The path of the written invoice file
+     * @throws IOException if the invoice cannot be generated or written
+     */
+    private String render(int orderId) throws IOException {
+        Order order = orderService.getOrderById(orderId);
+        if (order == null) {
+            throw new IOException("Order not found: " + orderId);
+        }
+        byte[] pdfBytes = orderService.generateInvoicePDF(order);
+        if (pdfBytes == null) {
+            throw new IOException("PDF generation failed");
+        }
+        if (!orderService.saveInvoicePDF(orderId, pdfBytes)) {
+            throw new IOException("Could not store invoice PDF");
+        }
+
+        InvoiceCache.getInstance().put(orderId, pdfBytes);
+
+        Path path = Paths.get(INVOICE_DIR, "order_" + orderId + ".pdf");
+        Files.createDirectories(path.getParent());
+        Files.write(path, pdfBytes);
+        String invoicePath = INVOICE_DIR + "/" + path.getFileName();
+        orderService.saveInvoicePath(orderId, invoicePath);
+        return invoicePath;
+    }
+}
@@ -0,0 +1,364 @@
+package com.group05.greengrocer.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import com.group05.greengrocer.model.Order;
+import com.group05.greengrocer.model.OrderItem;
+
+/**
+ * Invoice PDF renderer.
+ * Singleton pattern; stateless and safe to share between invoice workers.
+ * Fonts, the date formatter and the fixed header and footer text are built
+ * once. An invoice is laid out into lines first, wrapped to the page width
+ * and split across as many pages as needed; each page is then written in a
+ * single text block.
+ */
+public final class InvoiceRenderer {
+    private static final PDFont REGULAR = PDType1Font.HELVETICA;
+    private static final PDFont BOLD = PDType1Font.HELVETICA_BOLD;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private static final PDRectangle PAGE_SIZE = PDRectangle.LETTER;
+    private static final float MARGIN = 50;
+    private static final float TOP = 750;
+    private static final float BOTTOM = 60;
+    private static final float FOOTER_Y = 30;
+    private static final float LINE_HEIGHT = 20;
+    private static final float TEXT_WIDTH = PAGE_SIZE.getWidth() - 2 * MARGIN;
+
+    private static final String SEPARATOR = "----------------------------------------";
+    private static final Line TITLE = new Line(BOLD, 24, 0, "Group5 GreenGrocer");
+    private static final Line HEADING = new Line(BOLD, 18, 30, "INVOICE");
+    private static final Line ITEMS_HEADING = new Line(BOLD, 12, 40, "Items:");
+    private static final Line ITEMS_SEPARATOR = new Line(BOLD, 12, LINE_HEIGHT, SEPARATOR);
+    private static final Line TOTALS_SEPARATOR = new Line(BOLD, 12, LINE_HEIGHT + 20, SEPARATOR);
+
+    private static InvoiceRenderer instance;
+
+    /**
+     * One line of text and its distance below the previous line.
+     */
+    private static final class Line {
+        final PDFont font;
+        final float size;
+        final float advance;
+        final String text;
+
+        Line(PDFont font, float size, float advance, String text) {
+            this.font = font;
+            this.size = size;
+            this.advance = advance;
+            this.text = text;
+        }
+    }
+
+    /**
+     * A line placed on a page.
+     */
+    private static final class Placed {
+        final Line line;
+        final float y;
+
+        Placed(Line line, float y) {
+            this.line = line;
+            this.y = y;
+        }
+    }
+
+    /**
+     * Private constructor for singleton pattern.
+     */
+    private InvoiceRenderer() {
+    }
+
+    /**
+     * Get singleton instance of InvoiceRenderer.
+     *
+     * @return The InvoiceRenderer instance
+     */
+    public static synchronized InvoiceRenderer getInstance() {
+        if (instance == null) {
+            instance = new InvoiceRenderer();
+        }
+        return instance;
+    }
+
+    /**
+     * Render the invoice of an order.
+     *
+     * @param order The order, with its items loaded
+     * @return The PDF file as byte array
+     * @throws IOException if the PDF cannot be written
+     */
+    public byte[] render(Order order) throws IOException {
+        List<List<Placed>> pages = paginate(layout(order), order.getOrderId());
+        int itemCount = order.getItems() != null ? order.getItems().size() : 0;
+
+        try (PDDocument document = new PDDocument()) {
+            String pageOf = " of " + pages.size();
+            for (int i = 0; i < pages.size(); i++) {
+                PDPage page = new PDPage(PAGE_SIZE);
+                document.addPage(page);
+                try (PDPageContentStream stream = new PDPageContentStream(document, page)) {
+                    writePage(stream, pages.get(i), "Page " + (i + 1) + pageOf);
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(4096 + 128 * itemCount);
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Build the lines of an invoice, wrapping long text to the page width.
+     *
+     * @param order The order
+     * @return The lines in reading order
+     * @throws IOException if a font cannot measure text
+     */
+    private List<Line> layout(Order order) throws IOException {
+        List<OrderItem> items = order.getItems() != null ? order.getItems() : List.of();
+        List<Line> lines = new ArrayList<>(24 + items.size());
+
+        lines.add(TITLE);
+        lines.add(HEADING);
+        lines.add(new Line(REGULAR, 12, 40, "Order ID: " + order.getOrderId()));
+        lines.add(new Line(REGULAR, 12, LINE_HEIGHT, "Order Date: " + date(order.getOrderDate())));
+        lines.add(new Line(REGULAR, 12, LINE_HEIGHT, "Delivery Date: " + date(order.getDeliveryDate())));
+        wrap(lines, REGULAR, 12, LINE_HEIGHT, "Delivery Address: " + sanitize(order.getDeliveryAddress()));
+
+        lines.add(ITEMS_HEADING);
+        lines.add(ITEMS_SEPARATOR);
+        StringBuilder itemLine = new StringBuilder(96);
+        for (OrderItem item : items) {
+            String productName = item.getProduct() != null && item.getProduct().getProductName() != null
+                    ? item.getProduct().getProductName()
+                    : "Unknown Product";
+            itemLine.setLength(0);
+            itemLine.append(sanitize(productName)).append(" - ").append(money(item.getQuantity()))
+                    .append(" kg x ").append(money(item.getUnitPrice()))
+                    .append(" TL = ").append(money(item.getSubtotal())).append(" TL");
+            wrap(lines, REGULAR, 10, LINE_HEIGHT, itemLine.toString());
+        }
+
+        lines.add(TOTALS_SEPARATOR);
+        lines.add(new Line(REGULAR, 12, LINE_HEIGHT, "Subtotal: " + money(order.getSubtotal()) + " TL"));
+        lines.add(new Line(REGULAR, 12, LINE_HEIGHT, "VAT (20%): " + money(order.getVatAmount()) + " TL"));
+        if (order.getDiscountAmount() != null && order.getDiscountAmount().signum() > 0) {
+            lines.add(new Line(REGULAR, 12, LINE_HEIGHT,
+                    "Coupon Discount: -" + money(order.getDiscountAmount()) + " TL"));
+        }
+        if (order.getLoyaltyDiscount() != null && order.getLoyaltyDiscount().signum() > 0) {
+            lines.add(new Line(REGULAR, 12, LINE_HEIGHT,
+                    "Loyalty Discount: -" + money(order.getLoyaltyDiscount()) + " TL"));
+        }
+        lines.add(new Line(BOLD, 14, LINE_HEIGHT, "TOTAL: " + money(order.getTotalCost()) + " TL"));
+        return lines;
+    }
+
+    /**
+     * Assign lines to pages. Continuation pages start with a short header.
+     *
+     * @param lines   The lines in reading order
+     * @param orderId The order ID for the continuation header
+     * @return The placed lines of each page
+     */
+    private static List<List<Placed>> paginate(List<Line> lines, int orderId) {
+        Line continued = new Line(BOLD, 12, 0, "Invoice #" + orderId + " (continued)");
+        List<List<Placed>> pages = new ArrayList<>();
+        List<Placed> page = new ArrayList<>();
+        pages.add(page);
+        float y = TOP;
+        for (Line line : lines) {
+            float next = page.isEmpty() ? TOP : y - line.advance;
+            if (next < BOTTOM) {
+                page = new ArrayList<>();
+                pages.add(page);
+                page.add(new Placed(continued, TOP));
+                next = TOP - 2 * LINE_HEIGHT;
+            }
+            page.add(new Placed(line, next));
+            y = next;
+        }
+        return pages;
+    }
+
+    /**
+     * Write one page of lines and its footer in a single text block.
+     *
+     * @param stream The page content stream
+     * @param placed The lines of the page
+     * @param footer The footer text
+     * @throws IOException if the stream cannot be written
+     */
+    private static void writePage(PDPageContentStream stream, List<Placed> placed, String footer)
+            throws IOException {
+        stream.beginText();
+        PDFont font = null;
+        float size = 0;
+        float y = 0;
+        boolean first = true;
+        for (Placed p : placed) {
+            if (p.line.font != font || p.line.size != size) {
+                font = p.line.font;
+                size = p.line.size;
+                stream.setFont(font, size);
+            }
+            if (first) {
+                stream.newLineAtOffset(MARGIN, p.y);
+                first = false;
+            } else {
+                stream.newLineAtOffset(0, p.y - y);
+            }
+            y = p.y;
+            stream.showText(p.line.text);
+        }
+        stream.setFont(REGULAR, 9);
+        stream.newLineAtOffset(first ? MARGIN : 0, first ? FOOTER_Y : FOOTER_Y - y);
+        stream.showText(footer);
+        stream.endText();
+    }
+
+    /**
+     * Add text as one or more lines no wider than the page text width.
+     * Breaks at spaces; a single word wider than the page is kept whole.
+     */
+    private static void wrap(List<Line> lines, PDFont font, float size, float advance, String text)
+            throws IOException {
+        float scale = size / 1000f;
+        if (font.getStringWidth(text) * scale <= TEXT_WIDTH) {
+            lines.add(new Line(font, size, advance, text));
+            return;
+        }
+        int start = 0;
+        float lineAdvance = advance;
+        while (start < text.length()) {
+            int end = text.length();
+            while (font.getStringWidth(text.substring(start, end)) * scale > TEXT_WIDTH) {
+                int space = text.lastIndexOf(' ', end - 1);
+                if (space <= start) {
+                    int nextSpace = text.indexOf(' ', start);
+                    end = nextSpace > start ? nextSpace : text.length();
+                    break;
+                }
+                end = space;
+            }
+            lines.add(new Line(font, size, lineAdvance, text.substring(start, end)));
+            lineAdvance = size * 1.4f;
+            start = end;
+            while (start < text.length() && text.charAt(start) == ' ') {
+                start++;
+            }
+        }
+    }
+
+    /**
+     * Format a date for the invoice.
+     */
+    private static String date(LocalDateTime dateTime) {
+        return dateTime != null ? DATE_FORMAT.format(dateTime) : "N/A";
+    }
+
+    /**
+     * Format an amount with two decimals, rounded HALF_UP.
+     */
+    private static String money(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP).toPlainString() : "0.00";
+    }
+
+    /**
+     * Make text printable with the standard (WinAnsi) fonts.
+     * Text that is already plain ASCII is returned as is.
+     *
+     * @param input The text
+     * @return The text with Turkish letters folded and other characters
+     *         replaced
+     */
+    static String sanitize(String input) {
+        if (input == null) {
+            return "";
+        }
+        int length = input.length();
+        int i = 0;
+        while (i < length) {
+            char c = input.charAt(i);
+            if (c < 32 || c > 126 || c == '$') {
+                break;
+            }
+            i++;
+        }
+        if (i == length) {
+            return input;
+        }
+
+        StringBuilder out = new StringBuilder(length + 8).append(input, 0, i);
+        for (; i < length; i++) {
+            char c = input.charAt(i);
+            switch (c) {
+                case 'ğ':
+                    out.append('g');
+                    break;
+                case 'Ğ':
+                    out.append('G');
+                    break;
+                case 'ü':
+                    out.append('u');
+                    break;
+                case 'Ü':
+                    out.append('U');
+                    break;
+                case 'ş':
+                    out.append('s');
+                    break;
+                case 'Ş':
+                    out.append('S');
+                    break;
+                case 'ı':
+                    out.append('i');
+                    break;
+                case 'İ':
+                    out.append('I');
+                    break;
+                case 'ö':
+                    out.append('o');
+                    break;
+                case 'Ö':
+                    out.append('O');
+                    break;
+                case 'ç':
+                    out.append('c');
+                    break;
+                case 'Ç':
+                    out.append('C');
+                    break;
+                case '₺':
+                    out.append("TL");
+                    break;
+                case '€':
+                    out.append("EUR");
+                    break;
+                case '$':
+                    out.append("USD");
+                    break;
+                default:
+                    out.append(c >= 32 && c <= 126 ? c : '?');
+                    break;
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,216 @@
+package com.group05.greengrocer.service;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import com.group05.greengrocer.repository.OrderRepository;
+
+/**
+ * Long-poll feed of newly available orders.
+ * Singleton pattern. Waiters block until a pending, unassigned order with an
+ * ID above their watermark exists. The watermark moves past every order
+ * scanned, available or not, so an order taken before it was seen is not
+ * scanned again. Orders placed in this process bump a publish sequence and
+ * wake waiters immediately; orders placed elsewhere are found by a primary
+ * key range query above the watermark, which touches no rows while nothing
+ * is new.
+ */
+public class NewOrderFeed {
+    private static final long POLL_INTERVAL_MS = 500;
+    private static final long WAIT_TIMEOUT_MS = 25_000;
+    private static final int MAX_IDS = 100;
+
+    private static NewOrderFeed instance;
+
+    private final OrderRepository orderRepository;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+    private long publishSequence;
+    private Thread watcher;
+
+    /**
+     * The outcome of one wait: the new available orders and the watermark to
+     * continue from.
+     */
+    private static final class NewOrders {
+        final List<Integer> orderIds;
+        final int watermark;
+
+        NewOrders(List<Integer> orderIds, int watermark) {
+            this.orderIds = orderIds;
+            this.watermark = watermark;
+        }
+    }
+
+    /**
+     * Private constructor for singleton pattern.
+     */
+    private NewOrderFeed() {
+        this.orderRepository = new OrderRepository();
+    }
+
+    /**
+     * Get singleton instance of NewOrderFeed.
+     *
+     * @return The NewOrderFeed instance
+     */
+    public static synchronized NewOrderFeed getInstance() {
+        if (instance == null) {
+            instance = new NewOrderFeed();
+        }
+        return instance;
+    }
+
+    /**
+     * Get the current watermark: the highest order ID in the database.
+     *
+     * @return The highest order ID, or 0 on error
+     */
+    public int getLatestOrderId() {
+        try {
+            return orderRepository.findMaxOrderId();
+        } catch (SQLException e) {
+            System.err.println("Error reading latest order ID: " + e.getMessage());
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * Announce an order created in this process, waking any waiters.
+     *
+     * @param orderId The ID of the new order
+     */
+    public void publish(int orderId) {
+        lock.lock();
+        try {
+            publishSequence++;
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait until available orders newer than a watermark exist.
+     * Sleeps between scans unless an order was published since the last
+     * scan started.
+     *
+     * @param afterOrderId  The highest order ID already seen
+     * @param timeoutMillis Maximum time to wait
+     * @return The new available orders, ascending, and the highest order ID
+     *         scanned; no orders on timeout
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    private NewOrders awaitNewOrders(int afterOrderId, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        int watermark = afterOrderId;
+        while (true) {
+            long sequence = currentSequence();
+            boolean morePending = false;
+            try {
+                Map<Integer, Boolean> scanned = orderRepository.findAvailabilityAfter(watermark, MAX_IDS);
+                List<Integer> orderIds = new ArrayList<>();
+                for (Map.Entry<Integer, Boolean> order : scanned.entrySet()) {
+                    watermark = Math.max(watermark, order.getKey());
+                    if (order.getValue()) {
+                        orderIds.add(order.getKey());
+                    }
+                }
+                if (!orderIds.isEmpty()) {
+                    return new NewOrders(orderIds, watermark);
+                }
+                morePending = scanned.size() == MAX_IDS;
+            } catch (SQLException e) {
+                System.err.println("Error polling new orders: " + e.getMessage());
+            }
+
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return new NewOrders(List.of(), watermark);
+            }
+            if (morePending) {
+                continue;
+            }
+            lock.lock();
+            try {
+                if (publishSequence == sequence) {
+                    published.await(Math.min(remaining, POLL_INTERVAL_MS), TimeUnit.MILLISECONDS);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Get the number of orders published so far.
+     */
+    private long currentSequence() {
+        lock.lock();
+        try {
+            return publishSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Start a background watcher that reports new available orders.
+     * Replaces any previous watcher.
+     *
+     * @param onNewOrders Called on the watcher thread with the new order IDs
+     */
+    public synchronized void startWatching(Consumer<List<Integer>> onNewOrders) {
+        stopWatching();
+        watcher = new Thread(() -> watch(onNewOrders), "new-order-feed");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Stop the background watcher, if any.
+     */
+    public synchronized void stopWatching() {
+        if (watcher != null) {
+            watcher.interrupt();
+            watcher = null;
+        }
+    }
+
+    /**
+     * Stop the watcher thread.
+     */
+    public void shutdown() {
+        stopWatching();
+    }
+
+    /**
+     * Watcher loop: long-poll from the current watermark until interrupted.
+     *
+     * @param onNewOrders Called with the new order IDs
+     */
+    private void watch(Consumer<List<Integer>> onNewOrders) {
+        int watermark = getLatestOrderId();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                NewOrders newOrders = awaitNewOrders(watermark, WAIT_TIMEOUT_MS);
+                watermark = newOrders.watermark;
+                if (!newOrders.orderIds.isEmpty()) {
+                    onNewOrders.accept(newOrders.orderIds);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            System.err.println("New order feed stopped: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
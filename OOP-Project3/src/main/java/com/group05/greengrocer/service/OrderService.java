@@ -1,11 +1,8 @@
 package com.group05.greengrocer.service;
 
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.PDPageContentStream;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
-
+import com.group05.greengrocer.model.ClaimResult;
 import com.group05.greengrocer.model.Order;
+import com.group05.greengrocer.model.OrderChangeSet;
 import com.group05.greengrocer.model.OrderItem;
 import com.group05.greengrocer.model.Product;
 import com.group05.greengrocer.repository.OrderItemRepository;
@@ -13,12 +10,16 @@ import com.group05.greengrocer.repository.OrderRepository;
 import com.group05.greengrocer.repository.ProductRepository;
 import com.group05.greengrocer.util.Session;
 
-import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Service class for order business logic.
@@ -29,9 +30,11 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final ProductRepository productRepository;
+    private final DeliverySlotService deliverySlotService;
     private final Session session;
 
     private static final int MAX_DELIVERY_HOURS = 48;
+    private static final int WATERMARK_OVERLAP_SECONDS = 5;
 
     /**
      * Constructor for OrderService.
@@ -40,6 +43,7 @@ public class OrderService {
         this.orderRepository = new OrderRepository();
         this.orderItemRepository = new OrderItemRepository();
         this.productRepository = new ProductRepository();
+        this.deliverySlotService = DeliverySlotService.getInstance();
         this.session = Session.getInstance();
     }
 
@@ -52,27 +56,7 @@ public class OrderService {
      *         price)
      */
     public BigDecimal calculateItemPrice(Product product) {
-        if (product == null || product.getPricePerKg() == null) {
-            return BigDecimal.ZERO;
-        }
-
-        BigDecimal basePrice = product.getPricePerKg();
-        BigDecimal stock = product.getStock();
-        BigDecimal threshold = product.getThreshold();
-
-        if (threshold == null) {
-            threshold = new BigDecimal("5.0");
-        }
-
-        if (stock == null || stock.compareTo(BigDecimal.ZERO) <= 0) {
-            return basePrice;
-        }
-
-        if (stock.compareTo(threshold) <= 0) {
-            return basePrice.multiply(new BigDecimal("2"));
-        }
-
-        return basePrice;
+        return PricingEngine.unitPrice(product);
     }
 
     /**
@@ -82,11 +66,7 @@ public class OrderService {
      * @return The total cost of all items
      */
     public BigDecimal calculateTotalCost(List<OrderItem> items) {
-        BigDecimal total = BigDecimal.ZERO;
-        for (OrderItem item : items) {
-            total = total.add(item.getSubtotal());
-        }
-        return total;
+        return PricingEngine.subtotal(items).toBigDecimal();
     }
 
     /**
@@ -128,33 +108,16 @@ public class OrderService {
      * @param items        The list of order items
      * @param deliveryDate The delivery date (must be within 48 hours)
      * @return true if order was created successfully, false otherwise
-     * @throws IllegalArgumentException if delivery date is invalid or stock is
-     *                                  insufficient
+     * @throws IllegalArgumentException if delivery date is invalid, its slot is
+     *                                  full or stock is insufficient
      */
     public boolean createOrder(Order order, List<OrderItem> items, LocalDateTime deliveryDate) {
         if (!isValidDeliveryDate(deliveryDate)) {
             throw new IllegalArgumentException("Delivery date must be within 48 hours from now");
         }
 
-        for (OrderItem item : items) {
-            try {
-                Product product = productRepository.findById(item.getProductId());
-                if (product == null) {
-                    throw new IllegalArgumentException("Product not found: " + item.getProductId());
-                }
-
-                if (product.getStock().compareTo(item.getQuantity()) < 0) {
-                    throw new IllegalArgumentException("Insufficient stock for product: " + product.getProductName());
-                }
-
-                BigDecimal unitPrice = calculateItemPrice(product);
-                item.setUnitPrice(unitPrice);
-                item.setSubtotal(unitPrice.multiply(item.getQuantity()));
-            } catch (SQLException e) {
-                System.err.println("Error processing order item: " + e.getMessage());
-                e.printStackTrace();
-                return false;
-            }
+        if (!priceItems(items)) {
+            return false;
         }
 
         BigDecimal totalCost = calculateTotalCost(items);
@@ -162,32 +125,7 @@ public class OrderService {
         order.setDeliveryDate(deliveryDate);
         order.setOrderDate(LocalDateTime.now());
 
-        try {
-            if (orderRepository.create(order)) {
-                for (OrderItem item : items) {
-                    item.setOrderId(order.getOrderId());
-                }
-
-                if (orderItemRepository.createBatch(items)) {
-                    for (OrderItem item : items) {
-                        try {
-                            Product product = productRepository.findById(item.getProductId());
-                            BigDecimal newStock = product.getStock().subtract(item.getQuantity());
-                            productRepository.updateStock(product.getProductId(), newStock);
-                        } catch (SQLException e) {
-                            System.err.println("Error updating stock: " + e.getMessage());
-                            e.printStackTrace();
-                        }
-                    }
-                    logTransaction(order.getOrderId(), "Order created. Total: " + order.getTotalCost());
-                    return true;
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error creating order: " + e.getMessage());
-            e.printStackTrace();
-        }
-        return false;
+        return placeOrder(order, items, deliveryDate, "Order created. Total: " + order.getTotalCost());
     }
 
     /**
@@ -197,33 +135,16 @@ public class OrderService {
      * @param items        The list of order items
      * @param deliveryDate The delivery date (must be within 48 hours)
      * @return true if order was created successfully, false otherwise
-     * @throws IllegalArgumentException if delivery date is invalid or stock is
-     *                                  insufficient
+     * @throws IllegalArgumentException if delivery date is invalid, its slot is
+     *                                  full or stock is insufficient
      */
     public boolean createOrderWithDetails(Order order, List<OrderItem> items, LocalDateTime deliveryDate) {
         if (!isValidDeliveryDate(deliveryDate)) {
             throw new IllegalArgumentException("Delivery date must be within 48 hours from now");
         }
 
-        for (OrderItem item : items) {
-            try {
-                Product product = productRepository.findById(item.getProductId());
-                if (product == null) {
-                    throw new IllegalArgumentException("Product not found: " + item.getProductId());
-                }
-
-                if (product.getStock().compareTo(item.getQuantity()) < 0) {
-                    throw new IllegalArgumentException("Insufficient stock for product: " + product.getProductName());
-                }
-
-                BigDecimal unitPrice = calculateItemPrice(product);
-                item.setUnitPrice(unitPrice);
-                item.setSubtotal(unitPrice.multiply(item.getQuantity()));
-            } catch (SQLException e) {
-                System.err.println("Error processing order item: " + e.getMessage());
-                e.printStackTrace();
-                return false;
-            }
+        if (!priceItems(items)) {
+            return false;
         }
 
         order.setDeliveryDate(deliveryDate);
@@ -231,32 +152,82 @@ public class OrderService {
             order.setOrderDate(LocalDateTime.now());
         }
 
+        return placeOrder(order, items, deliveryDate,
+                "Order created with details. Total: " + order.getTotalCost());
+    }
+
+    /**
+     * Price order items from the current product data, read with one query.
+     * Stock is not checked here; it is checked and taken in the order
+     * transaction.
+     * 
+     * @param items The order items; receive unit price and subtotal
+     * @return true if the items were priced, false if the products could not
+     *         be read
+     * @throws IllegalArgumentException if a product does not exist
+     */
+    private boolean priceItems(List<OrderItem> items) {
+        Map<Integer, Product> productsById = new HashMap<>();
         try {
-            if (orderRepository.create(order)) {
-                for (OrderItem item : items) {
-                    item.setOrderId(order.getOrderId());
-                }
+            List<Integer> productIds = new ArrayList<>(items.size());
+            for (OrderItem item : items) {
+                productIds.add(item.getProductId());
+            }
+            for (Product product : productRepository.findByIds(productIds)) {
+                productsById.put(product.getProductId(), product);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error processing order items: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
 
-                if (orderItemRepository.createBatch(items)) {
-                    for (OrderItem item : items) {
-                        try {
-                            Product product = productRepository.findById(item.getProductId());
-                            BigDecimal newStock = product.getStock().subtract(item.getQuantity());
-                            productRepository.updateStock(product.getProductId(), newStock);
-                        } catch (SQLException e) {
-                            System.err.println("Error updating stock: " + e.getMessage());
-                            e.printStackTrace();
-                        }
-                    }
-                    logTransaction(order.getOrderId(), "Order created with details. Total: " + order.getTotalCost());
-                    return true;
-                }
+        for (OrderItem item : items) {
+            Product product = productsById.get(item.getProductId());
+            if (product == null) {
+                throw new IllegalArgumentException("Product not found: " + item.getProductId());
             }
+            BigDecimal unitPrice = calculateItemPrice(product);
+            item.setUnitPrice(unitPrice);
+            item.setSubtotal(unitPrice.multiply(item.getQuantity()));
+        }
+        return true;
+    }
+
+    /**
+     * Write a priced and validated order, its items, its delivery slot
+     * booking and the stock changes in one transaction.
+     * 
+     * @param order        The order to create
+     * @param items        The priced order items
+     * @param deliveryDate The delivery date
+     * @param logEntry     The transaction log text of the new order
+     * @return true if the order was created, false if it could not be written
+     * @throws IllegalArgumentException if the delivery slot is full or stock is
+     *                                  insufficient
+     */
+    private boolean placeOrder(Order order, List<OrderItem> items, LocalDateTime deliveryDate, String logEntry) {
+        boolean placed;
+        try {
+            placed = orderRepository.createWithItems(order, items, DeliverySlotService.slotStartOf(deliveryDate),
+                    DeliverySlotService.getDefaultCapacity());
         } catch (SQLException e) {
             System.err.println("Error creating order: " + e.getMessage());
             e.printStackTrace();
+            return false;
         }
-        return false;
+        deliverySlotService.recordReservation(deliveryDate, placed);
+        if (!placed) {
+            throw new IllegalArgumentException("The selected delivery time slot is full. Please choose another time.");
+        }
+
+        ProductSearchIndex searchIndex = ProductSearchIndex.getInstance();
+        for (OrderItem item : items) {
+            searchIndex.takeStock(item.getProductId(), item.getQuantity());
+        }
+        logTransaction(order.getOrderId(), logEntry);
+        NewOrderFeed.getInstance().publish(order.getOrderId());
+        return true;
     }
 
     /**
@@ -268,9 +239,7 @@ public class OrderService {
         int customerId = session.getCurrentUserId();
         try {
             List<Order> orders = orderRepository.findByCustomerId(customerId);
-            for (Order order : orders) {
-                order.setItems(orderItemRepository.findByOrderId(order.getOrderId()));
-            }
+            attachItems(orders);
             return orders;
         } catch (SQLException e) {
             System.err.println("Error fetching customer orders: " + e.getMessage());
@@ -311,14 +280,16 @@ public class OrderService {
     }
 
     /**
-     * Get completed orders for carrier.
+     * Get one page of completed orders for carrier.
      * 
-     * @return List of completed orders for the current logged-in carrier
+     * @param page     Zero-based page number
+     * @param pageSize Orders per page
+     * @return Completed orders for the current logged-in carrier, newest first
      */
-    public List<Order> getCarrierCompletedOrders() {
+    public List<Order> getCarrierCompletedOrders(int page, int pageSize) {
         int carrierId = session.getCurrentUserId();
         try {
-            return orderRepository.findCompletedOrdersByCarrier(carrierId);
+            return orderRepository.findCompletedOrdersByCarrier(carrierId, page * pageSize, pageSize);
         } catch (SQLException e) {
             System.err.println("Error fetching completed orders: " + e.getMessage());
             e.printStackTrace();
@@ -326,6 +297,49 @@ public class OrderService {
         }
     }
 
+    /**
+     * Count completed orders for carrier.
+     * 
+     * @return Number of completed orders for the current logged-in carrier
+     */
+    public int countCarrierCompletedOrders() {
+        int carrierId = session.getCurrentUserId();
+        try {
+            return orderRepository.countCompletedOrdersByCarrier(carrierId);
+        } catch (SQLException e) {
+            System.err.println("Error counting completed orders: " + e.getMessage());
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * Refresh the carrier dashboard.
+     * Without a watermark this returns the available orders and the carrier's
+     * current orders in one query. With a watermark it returns only the
+     * orders changed since then that the carrier may see, plus a bare
+     * projection of the orders other carriers took; the window overlaps the
+     * watermark by a few seconds so rows committed late by slower
+     * transactions are not missed.
+     * 
+     * @param since The asOf time of the previous refresh, or null for a full
+     *              snapshot
+     * @return The snapshot or the changed orders (empty on error)
+     */
+    public OrderChangeSet getCarrierDashboard(LocalDateTime since) {
+        int carrierId = session.getCurrentUserId();
+        try {
+            if (since == null) {
+                return orderRepository.findCarrierDashboard(carrierId);
+            }
+            return orderRepository.findChangedSince(since.minusSeconds(WATERMARK_OVERLAP_SECONDS), carrierId);
+        } catch (SQLException e) {
+            System.err.println("Error refreshing carrier dashboard: " + e.getMessage());
+            e.printStackTrace();
+            return new OrderChangeSet(List.of(), null, false);
+        }
+    }
+
     /**
      * Assign order to carrier (with transaction to prevent multiple assignments).
      * 
@@ -347,6 +361,50 @@ public class OrderService {
         }
     }
 
+    /**
+     * Claim several orders for the current carrier at once.
+     * The assignment and its transaction log entries are written in one
+     * transaction, whatever the number of orders.
+     * 
+     * @param orderIds The order IDs to claim
+     * @return Which orders were won and which were already taken, or a failed
+     *         result if the claim could not be carried out
+     */
+    public ClaimResult claimOrders(Collection<Integer> orderIds) {
+        int carrierId = session.getCurrentUserId();
+        Set<Integer> requested = new LinkedHashSet<>(orderIds);
+        Set<Integer> won;
+        try {
+            won = orderRepository.claimOrders(requested, carrierId, "Carrier assigned. Carrier ID: " + carrierId);
+        } catch (SQLException e) {
+            System.err.println("Error claiming orders: " + e.getMessage());
+            e.printStackTrace();
+            return new ClaimResult(Set.of(), Set.of(), true);
+        }
+        requested.removeAll(won);
+        return new ClaimResult(won, requested);
+    }
+
+    /**
+     * Take the next available orders for the current carrier.
+     * Concurrent carriers receive disjoint orders, so no claim is wasted.
+     * 
+     * @param count Maximum number of orders to take
+     * @return The orders assigned to the carrier, oldest first, or a failed
+     *         result if the claim could not be carried out
+     */
+    public ClaimResult claimNextOrders(int count) {
+        int carrierId = session.getCurrentUserId();
+        try {
+            return new ClaimResult(orderRepository.claimNextOrders(count, carrierId,
+                    "Carrier assigned from dispatch queue. Carrier ID: " + carrierId), Set.of());
+        } catch (SQLException e) {
+            System.err.println("Error claiming next orders: " + e.getMessage());
+            e.printStackTrace();
+            return new ClaimResult(Set.of(), Set.of(), true);
+        }
+    }
+
     /**
      * Mark order as completed.
      * 
@@ -481,6 +539,23 @@ public class OrderService {
         }
     }
 
+    /**
+     * Load the items of all given orders with one batched query.
+     * 
+     * @param orders The orders to fill in
+     * @throws SQLException if database access error occurs
+     */
+    private void attachItems(List<Order> orders) throws SQLException {
+        List<Integer> orderIds = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            orderIds.add(order.getOrderId());
+        }
+        Map<Integer, List<OrderItem>> itemsByOrder = orderItemRepository.findByOrderIds(orderIds);
+        for (Order order : orders) {
+            order.setItems(itemsByOrder.getOrDefault(order.getOrderId(), new ArrayList<>()));
+        }
+    }
+
     /**
      * Get all orders (for owner).
      * 
@@ -489,9 +564,7 @@ public class OrderService {
     public List<Order> getAllOrders() {
         try {
             List<Order> orders = orderRepository.findAll();
-            for (Order order : orders) {
-                order.setItems(orderItemRepository.findByOrderId(order.getOrderId()));
-            }
+            attachItems(orders);
             return orders;
         } catch (SQLException e) {
             System.err.println("Error fetching all orders: " + e.getMessage());
@@ -524,8 +597,12 @@ public class OrderService {
     public boolean cancelOrderByCustomer(int orderId) {
         int customerId = session.getCurrentUserId();
         try {
+            Order order = orderRepository.findById(orderId);
             boolean success = orderRepository.cancelOrderByCustomer(orderId, customerId);
             if (success) {
+                if (order != null && order.getDeliveryDate() != null) {
+                    deliverySlotService.release(order.getDeliveryDate());
+                }
                 logTransaction(orderId, "Order cancelled by customer.");
             }
             return success;
@@ -537,125 +614,15 @@ public class OrderService {
     }
 
     /**
-     * Generate PDF invoice for order using Apache PDFBox.
+     * Generate PDF invoice for order using the shared invoice renderer.
      * Returns the PDF as byte array for database storage.
      * 
      * @param order The Order object to generate invoice for
      * @return The PDF file as byte array
      */
     public byte[] generateInvoicePDF(Order order) {
-        System.out.println("Starting PDF generation for Order ID: " + order.getOrderId());
-        try (PDDocument document = new PDDocument()) {
-            PDPage page = new PDPage();
-            document.addPage(page);
-
-            try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
-                float yPosition = 750;
-                float margin = 50;
-                float lineHeight = 20;
-
-                // Header
-                drawText(contentStream, pdFontBold(), 24, margin, yPosition, "Group5 GreenGrocer");
-
-                yPosition -= 30;
-                drawText(contentStream, pdFontBold(), 18, margin, yPosition, "INVOICE");
-
-                yPosition -= 40;
-
-                // Order Details
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-
-                drawText(contentStream, pdFontRegular(), 12, margin, yPosition, "Order ID: " + order.getOrderId());
-                yPosition -= lineHeight;
-
-                drawText(contentStream, pdFontRegular(), 12, margin, yPosition, "Order Date: "
-                        + (order.getOrderDate() != null ? order.getOrderDate().format(formatter) : "N/A"));
-                yPosition -= lineHeight;
-
-                drawText(contentStream, pdFontRegular(), 12, margin, yPosition, "Delivery Date: "
-                        + (order.getDeliveryDate() != null ? order.getDeliveryDate().format(formatter) : "N/A"));
-                yPosition -= lineHeight;
-
-                drawText(contentStream, pdFontRegular(), 12, margin, yPosition,
-                        "Delivery Address: " + order.getDeliveryAddress()); // drawText does sanitization
-                yPosition -= 40;
-
-                // Items Header
-                drawText(contentStream, pdFontBold(), 12, margin, yPosition, "Items:");
-                yPosition -= lineHeight;
-
-                drawText(contentStream, pdFontBold(), 12, margin, yPosition,
-                        "----------------------------------------");
-                yPosition -= lineHeight;
-
-                // Items Loop
-                if (order.getItems() != null) {
-                    for (OrderItem item : order.getItems()) {
-                        String productName = "Unknown Product";
-                        if (item.getProduct() != null && item.getProduct().getProductName() != null) {
-                            productName = item.getProduct().getProductName();
-                        }
-
-                        BigDecimal qty = item.getQuantity() != null ? item.getQuantity() : BigDecimal.ZERO;
-                        BigDecimal price = item.getUnitPrice() != null ? item.getUnitPrice() : BigDecimal.ZERO;
-                        BigDecimal sub = item.getSubtotal() != null ? item.getSubtotal() : BigDecimal.ZERO;
-
-                        String itemLine = String.format("%s - %.2f kg x %.2f TL = %.2f TL",
-                                productName, // drawText sanitizes
-                                qty,
-                                price,
-                                sub);
-
-                        drawText(contentStream, pdFontRegular(), 10, margin, yPosition, itemLine);
-
-                        yPosition -= lineHeight;
-                    }
-                }
-
-                yPosition -= 20;
-
-                // Separator
-                drawText(contentStream, pdFontBold(), 12, margin, yPosition,
-                        "----------------------------------------");
-                yPosition -= lineHeight;
-
-                // Totals
-                BigDecimal subtotal = order.getSubtotal() != null ? order.getSubtotal() : BigDecimal.ZERO;
-                BigDecimal vat = order.getVatAmount() != null ? order.getVatAmount() : BigDecimal.ZERO;
-                BigDecimal discount = order.getDiscountAmount() != null ? order.getDiscountAmount() : BigDecimal.ZERO;
-                BigDecimal loyalty = order.getLoyaltyDiscount() != null ? order.getLoyaltyDiscount() : BigDecimal.ZERO;
-                BigDecimal total = order.getTotalCost() != null ? order.getTotalCost() : BigDecimal.ZERO;
-
-                drawText(contentStream, pdFontRegular(), 12, margin, yPosition,
-                        "Subtotal: " + subtotal.setScale(2, java.math.RoundingMode.HALF_UP) + " TL");
-                yPosition -= lineHeight;
-
-                drawText(contentStream, pdFontRegular(), 12, margin, yPosition,
-                        "VAT (20%): " + vat.setScale(2, java.math.RoundingMode.HALF_UP) + " TL");
-                yPosition -= lineHeight;
-
-                if (discount.compareTo(BigDecimal.ZERO) > 0) {
-                    drawText(contentStream, pdFontRegular(), 12, margin, yPosition,
-                            "Coupon Discount: -" + discount.setScale(2, java.math.RoundingMode.HALF_UP) + " TL");
-                    yPosition -= lineHeight;
-                }
-
-                if (loyalty.compareTo(BigDecimal.ZERO) > 0) {
-                    drawText(contentStream, pdFontRegular(), 12, margin, yPosition,
-                            "Loyalty Discount: -" + loyalty.setScale(2, java.math.RoundingMode.HALF_UP) + " TL");
-                    yPosition -= lineHeight;
-                }
-
-                // Final Total
-                drawText(contentStream, pdFontBold(), 14, margin, yPosition,
-                        "TOTAL: " + total.setScale(2, java.math.RoundingMode.HALF_UP) + " TL");
-            }
-
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            document.save(baos);
-            System.out.println("PDF generation successful.");
-            return baos.toByteArray();
-
+        try {
+            return InvoiceRenderer.getInstance().render(order);
         } catch (Throwable e) {
             System.err.println("CRITICAL ERROR generating PDF invoice: " + e.getMessage());
             e.printStackTrace();
@@ -664,105 +631,4 @@ public class OrderService {
             return null;
         }
     }
-
-    // Helper methods for Fonts to avoid deprecation warnings if any, or cleaner
-    // code
-    private org.apache.pdfbox.pdmodel.font.PDFont pdFontBold() {
-        return PDType1Font.HELVETICA_BOLD;
-    }
-
-    private org.apache.pdfbox.pdmodel.font.PDFont pdFontRegular() {
-        return PDType1Font.HELVETICA;
-    }
-
-    /**
-     * Helper to draw text safely ensuring beginText/endText are matched.
-     */
-    private void drawText(PDPageContentStream stream, org.apache.pdfbox.pdmodel.font.PDFont font, float fontSize,
-            float x, float y, String text) throws java.io.IOException {
-        stream.beginText();
-        try {
-            stream.setFont(font, fontSize);
-            stream.newLineAtOffset(x, y);
-            stream.showText(sanitizeForPDF(text));
-        } catch (Exception e) {
-            System.err.println("Error drawing text '" + text + "': " + e.getMessage());
-            // We swallow exception here to allow partial PDF generation?
-            // Better to rethrow or log, but ensure endText is called.
-            // If showText fails, we might as well just not show that line.
-        } finally {
-            stream.endText();
-        }
-    }
-
-    /**
-     * Sanitizes string for PDFBox WinAnsiEncoding (Standard Fonts).
-     * Replaces non-ASCII characters with nearest ASCII equivalents.
-     */
-    private String sanitizeForPDF(String input) {
-        if (input == null)
-            return "";
-        StringBuilder updated = new StringBuilder();
-        for (char c : input.toCharArray()) {
-            switch (c) {
-                // Turkish Chars
-                case 'ğ':
-                    updated.append('g');
-                    break;
-                case 'Ğ':
-                    updated.append('G');
-                    break;
-                case 'ü':
-                    updated.append('u');
-                    break;
-                case 'Ü':
-                    updated.append('U');
-                    break;
-                case 'ş':
-                    updated.append('s');
-                    break;
-                case 'Ş':
-                    updated.append('S');
-                    break;
-                case 'ı':
-                    updated.append('i');
-                    break;
-                case 'İ':
-                    updated.append('I');
-                    break;
-                case 'ö':
-                    updated.append('o');
-                    break;
-                case 'Ö':
-                    updated.append('O');
-                    break;
-                case 'ç':
-                    updated.append('c');
-                    break;
-                case 'Ç':
-                    updated.append('C');
-                    break;
-                // Other common chars
-                case '₺':
-                    updated.append("TL");
-                    break;
-                case '€':
-                    updated.append("EUR");
-                    break;
-                case '$':
-                    updated.append("USD");
-                    break;
-                // Default
-                default:
-                    // Only append if it's in printable ASCII range or space
-                    if ((c >= 32 && c <= 126)) {
-                        updated.append(c);
-                    } else {
-                        updated.append('?'); // Placeholder for unsupported
-                    }
-                    break;
-            }
-        }
-        return updated.toString();
-    }
 }
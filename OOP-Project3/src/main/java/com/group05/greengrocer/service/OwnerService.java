@@ -9,6 +9,7 @@ import java.util.Map;
 import com.group05.greengrocer.model.CarrierRating;
 import com.group05.greengrocer.model.Coupon;
 import com.group05.greengrocer.model.Message;
+import com.group05.greengrocer.model.Money;
 import com.group05.greengrocer.model.Order;
 import com.group05.greengrocer.model.User;
 import com.group05.greengrocer.repository.CouponRepository;
@@ -95,16 +96,7 @@ public class OwnerService {
      */
     public BigDecimal calculateTotalProfit() {
         try {
-            List<Order> deliveredOrders = orderRepository.findAllDeliveredOrders();
-            BigDecimal totalProfit = BigDecimal.ZERO;
-
-            for (Order order : deliveredOrders) {
-                if (order.getTotalCost() != null) {
-                    totalProfit = totalProfit.add(order.getTotalCost());
-                }
-            }
-
-            return totalProfit;
+            return sumTotalCost(orderRepository.findAllDeliveredOrders());
         } catch (SQLException e) {
             System.err.println("Error calculating profit: " + e.getMessage());
             e.printStackTrace();
@@ -112,6 +104,20 @@ public class OwnerService {
         }
     }
 
+    /**
+     * Sum order totals in fixed-point kuruş.
+     * 
+     * @param orders The orders to sum
+     * @return The summed total cost
+     */
+    private BigDecimal sumTotalCost(List<Order> orders) {
+        long totalMinor = 0;
+        for (Order order : orders) {
+            totalMinor = Math.addExact(totalMinor, order.getTotalCostMinor());
+        }
+        return Money.ofMinor(totalMinor).toBigDecimal();
+    }
+
     /**
      * Get profit report data.
      * 
@@ -122,7 +128,7 @@ public class OwnerService {
         Map<String, Object> report = new HashMap<>();
         try {
             List<Order> deliveredOrders = orderRepository.findAllDeliveredOrders();
-            BigDecimal totalProfit = calculateTotalProfit();
+            BigDecimal totalProfit = sumTotalCost(deliveredOrders);
             int totalOrders = deliveredOrders.size();
 
             report.put("totalProfit", totalProfit);
@@ -0,0 +1,151 @@
+package com.group05.greengrocer.service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.group05.greengrocer.model.Money;
+import com.group05.greengrocer.model.OrderItem;
+import com.group05.greengrocer.model.PriceBreakdown;
+import com.group05.greengrocer.model.Product;
+import com.group05.greengrocer.model.Quantity;
+
+/**
+ * Pricing engine shared by the catalog, cart and checkout.
+ * Holds the single implementation of the threshold rule and the cart total
+ * math (VAT, coupon and loyalty discounts). Constants are allocated once and
+ * cart math runs on fixed-point longs.
+ */
+public final class PricingEngine {
+    /** Threshold used when a product has none set. */
+    public static final BigDecimal DEFAULT_THRESHOLD = new BigDecimal("5.0");
+    /** Price multiplier applied while stock is at or below threshold. */
+    public static final BigDecimal THRESHOLD_MULTIPLIER = BigDecimal.valueOf(2);
+    /** VAT rate applied to the cart subtotal. */
+    public static final BigDecimal VAT_RATE = new BigDecimal("0.20");
+
+    private static final long BASIS_POINTS = 10_000;
+    private static final long VAT_BASIS_POINTS = VAT_RATE.movePointRight(4).longValueExact();
+
+    /**
+     * Private constructor; static utility.
+     */
+    private PricingEngine() {
+    }
+
+    /**
+     * Get the unit price of a product based on the threshold rule.
+     * Rule: If stock &lt;= threshold, price doubles.
+     *
+     * @param product The product to price
+     * @return The unit price per kg (doubled if stock &lt;= threshold, otherwise
+     *         base price)
+     */
+    public static BigDecimal unitPrice(Product product) {
+        if (product == null || product.getPricePerKg() == null) {
+            return BigDecimal.ZERO;
+        }
+
+        BigDecimal basePrice = product.getPricePerKg();
+        BigDecimal stock = product.getStock();
+        BigDecimal threshold = product.getThreshold() != null ? product.getThreshold() : DEFAULT_THRESHOLD;
+
+        if (stock == null || stock.signum() <= 0) {
+            return basePrice;
+        }
+        if (stock.compareTo(threshold) <= 0) {
+            return basePrice.multiply(THRESHOLD_MULTIPLIER);
+        }
+        return basePrice;
+    }
+
+    /**
+     * Precompute the unit price of every product once.
+     *
+     * @param products The products to price
+     * @return Unit price keyed by product ID
+     */
+    public static Map<Integer, Money> snapshot(Collection<Product> products) {
+        Map<Integer, Money> prices = new HashMap<>(products.size() * 2);
+        for (Product product : products) {
+            prices.put(product.getProductId(), Money.of(unitPrice(product)));
+        }
+        return prices;
+    }
+
+    /**
+     * Comparator ordering products by a precomputed price snapshot.
+     *
+     * @param snapshot Unit prices keyed by product ID (see {@link #snapshot})
+     * @return Comparator by ascending unit price
+     */
+    public static Comparator<Product> byUnitPrice(Map<Integer, Money> snapshot) {
+        return (p1, p2) -> snapshot.get(p1.getProductId()).compareTo(snapshot.get(p2.getProductId()));
+    }
+
+    /**
+     * Sum of unit price times quantity over all items, unrounded.
+     * The result is in kuruş-grams (kuruş per kg times grams), so it is exact
+     * and only rounded once when converted to money.
+     *
+     * @param items The items to sum
+     * @return The exact subtotal in kuruş-grams
+     */
+    private static long exactSubtotal(List<OrderItem> items) {
+        long exact = 0;
+        for (OrderItem item : items) {
+            if (item.getUnitPrice() != null && item.getQuantity() != null) {
+                exact = Math.addExact(exact, Math.multiplyExact(item.getUnitPriceMinor(), item.getQuantityGrams()));
+            } else if (item.getSubtotal() != null) {
+                exact = Math.addExact(exact, Math.multiplyExact(item.getSubtotalMinor(), Quantity.GRAMS_PER_KG));
+            }
+        }
+        return exact;
+    }
+
+    /**
+     * Sum the items of an order.
+     *
+     * @param items The order items
+     * @return The subtotal, rounded HALF_UP to the kuruş
+     */
+    public static Money subtotal(List<OrderItem> items) {
+        return Money.ofMinor(Money.divideHalfUp(exactSubtotal(items), Quantity.GRAMS_PER_KG));
+    }
+
+    /**
+     * Price a cart.
+     * All amounts are derived from the exact subtotal and rounded once,
+     * giving the same results as HALF_UP on the unrounded decimal math.
+     *
+     * @param items           The cart items
+     * @param couponDiscount  The applied coupon discount, or null for none
+     * @param loyaltyEligible Whether the customer qualifies for the loyalty
+     *                        discount
+     * @return The full price breakdown
+     */
+    public static PriceBreakdown price(List<OrderItem> items, BigDecimal couponDiscount, boolean loyaltyEligible) {
+        long exact = exactSubtotal(items);
+        long grams = Quantity.GRAMS_PER_KG;
+
+        Money subtotal = Money.ofMinor(Money.divideHalfUp(exact, grams));
+        Money vatAmount = Money.ofMinor(Money.divideHalfUp(Math.multiplyExact(exact, VAT_BASIS_POINTS),
+                grams * BASIS_POINTS));
+        Money coupon = Money.of(couponDiscount);
+        Money loyaltyDiscount = Money.ZERO;
+        if (loyaltyEligible) {
+            long loyaltyBasisPoints = LoyaltyService.getLoyaltyDiscountPercent().movePointRight(2)
+                    .setScale(0, java.math.RoundingMode.HALF_UP).longValueExact();
+            loyaltyDiscount = Money.ofMinor(Money.divideHalfUp(Math.multiplyExact(exact, loyaltyBasisPoints),
+                    grams * BASIS_POINTS));
+        }
+
+        Money grossTotal = Money.ofMinor(Money.divideHalfUp(
+                Math.multiplyExact(exact, BASIS_POINTS + VAT_BASIS_POINTS), grams * BASIS_POINTS));
+        Money total = grossTotal.minus(coupon).minus(loyaltyDiscount);
+        return new PriceBreakdown(subtotal, vatAmount, coupon, loyaltyDiscount, total);
+    }
+}
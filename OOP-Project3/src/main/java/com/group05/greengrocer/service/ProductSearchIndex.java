@@ -0,0 +1,490 @@
+package com.group05.greengrocer.service;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.group05.greengrocer.model.Product;
+import com.group05.greengrocer.repository.ProductRepository;
+
+/**
+ * In-memory search index over product names, types and descriptions.
+ * Singleton pattern. Text is folded Turkish-aware (İ/I/ı → i, ş → s, ğ → g,
+ * ü → u, ö → o, ç → c) and split into tokens; tokens are stored in a prefix
+ * trie for search-as-you-type and matched with a bounded edit distance when
+ * no prefix matches, so small typos still find products. The index is kept
+ * up to date by ProductService on create, update and delete, and by
+ * OrderService when checkout changes stock. It holds its own copies of the
+ * products without image data and hands out copies, so callers can neither
+ * change it nor keep images alive through it.
+ */
+public class ProductSearchIndex {
+    private static final int MAX_RESULTS = 200;
+
+    private static ProductSearchIndex instance;
+
+    private final ProductRepository productRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Integer, Product> products = new HashMap<>();
+    private final Map<Integer, Set<String>> tokensByProduct = new HashMap<>();
+    private final Map<Integer, Set<String>> nameTokensByProduct = new HashMap<>();
+    private final Map<String, Set<Integer>> productsByToken = new HashMap<>();
+    private final TrieNode root = new TrieNode();
+    private volatile boolean built;
+
+    /**
+     * Trie node holding the products with a token passing through it.
+     */
+    private static final class TrieNode {
+        final Map<Character, TrieNode> children = new HashMap<>();
+        final Set<Integer> productIds = new HashSet<>();
+    }
+
+    /**
+     * Private constructor for singleton pattern.
+     */
+    private ProductSearchIndex() {
+        this.productRepository = new ProductRepository();
+    }
+
+    /**
+     * Get singleton instance of ProductSearchIndex.
+     *
+     * @return The ProductSearchIndex instance
+     */
+    public static synchronized ProductSearchIndex getInstance() {
+        if (instance == null) {
+            instance = new ProductSearchIndex();
+        }
+        return instance;
+    }
+
+    /**
+     * Check whether the index has been loaded.
+     *
+     * @return true once the index holds the catalog
+     */
+    public boolean isBuilt() {
+        return built;
+    }
+
+    /**
+     * Load every product from the database and rebuild the index.
+     *
+     * @return true if the index was rebuilt
+     */
+    public boolean rebuild() {
+        List<Product> all;
+        try {
+            all = productRepository.findAllWithoutImages();
+        } catch (SQLException e) {
+            System.err.println("Error building product search index: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+
+        lock.writeLock().lock();
+        try {
+            products.clear();
+            tokensByProduct.clear();
+            nameTokensByProduct.clear();
+            productsByToken.clear();
+            root.children.clear();
+            root.productIds.clear();
+            for (Product product : all) {
+                add(product);
+            }
+            built = true;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add or replace a product in the index.
+     * Ignored until the index has been built; the next rebuild picks it up.
+     *
+     * @param product The created or updated product
+     */
+    public void upsert(Product product) {
+        if (!built || product == null || product.getProductId() <= 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeTokens(product.getProductId());
+            add(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Update the stock of an indexed product.
+     *
+     * @param productId The product ID
+     * @param stock     The new stock amount
+     */
+    public void updateStock(int productId, BigDecimal stock) {
+        if (!built) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Product product = products.get(productId);
+            if (product != null) {
+                product.setStock(stock);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Take an ordered quantity from the stock of an indexed product.
+     *
+     * @param productId The product ID
+     * @param quantity  The quantity taken at checkout
+     */
+    public void takeStock(int productId, BigDecimal quantity) {
+        if (!built) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Product product = products.get(productId);
+            if (product != null && product.getStock() != null) {
+                product.setStock(product.getStock().subtract(quantity));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a product from the index.
+     *
+     * @param productId The ID of the deleted product
+     */
+    public void remove(int productId) {
+        if (!built) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeTokens(productId);
+            products.remove(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Search available products (stock &gt; 0).
+     * Every query term must match a product token, either as a prefix or, if
+     * no token starts with the term, within a small edit distance. Results are
+     * ranked: name prefix matches first, then type/description prefix
+     * matches, then typo matches.
+     *
+     * @param query The raw search text
+     * @return Copies of the matching products without image data, best first
+     */
+    public List<Product> search(String query) {
+        List<String> terms = new ArrayList<>(tokenize(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Integer> scores = null;
+            for (String term : terms) {
+                Map<Integer, Integer> termScores = scoreTerm(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    for (Map.Entry<Integer, Integer> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Product> results = new ArrayList<>();
+            for (Integer productId : scores.keySet()) {
+                Product product = products.get(productId);
+                if (product != null && product.getStock() != null && product.getStock().signum() > 0) {
+                    results.add(product);
+                }
+            }
+            Map<Integer, Integer> finalScores = scores;
+            results.sort((p1, p2) -> {
+                int byScore = Integer.compare(finalScores.get(p2.getProductId()), finalScores.get(p1.getProductId()));
+                return byScore != 0 ? byScore : p1.getProductName().compareToIgnoreCase(p2.getProductName());
+            });
+            List<Product> copies = new ArrayList<>(Math.min(results.size(), MAX_RESULTS));
+            for (Product product : results.subList(0, Math.min(results.size(), MAX_RESULTS))) {
+                copies.add(copyOf(product));
+            }
+            return copies;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Score products for one query term.
+     * Must be called with the read lock held.
+     *
+     * @param term A normalized query token
+     * @return Score keyed by product ID
+     */
+    private Map<Integer, Integer> scoreTerm(String term) {
+        Map<Integer, Integer> scores = new HashMap<>();
+
+        TrieNode node = root;
+        for (int i = 0; i < term.length() && node != null; i++) {
+            node = node.children.get(term.charAt(i));
+        }
+        if (node != null) {
+            for (Integer productId : node.productIds) {
+                boolean inName = startsAnyToken(nameTokensByProduct.get(productId), term);
+                scores.put(productId, inName ? 3 : 2);
+            }
+            return scores;
+        }
+
+        int maxDistance = term.length() <= 3 ? 0 : term.length() <= 6 ? 1 : 2;
+        if (maxDistance == 0) {
+            return scores;
+        }
+        for (Map.Entry<String, Set<Integer>> entry : productsByToken.entrySet()) {
+            String token = entry.getKey();
+            // Compare against the token's prefix so partially typed words still match
+            String candidate = token.length() > term.length() + maxDistance
+                    ? token.substring(0, term.length())
+                    : token;
+            if (boundedDistance(term, candidate, maxDistance) <= maxDistance) {
+                for (Integer productId : entry.getValue()) {
+                    scores.putIfAbsent(productId, 1);
+                }
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Check whether any token starts with a prefix.
+     */
+    private static boolean startsAnyToken(Set<String> tokens, String prefix) {
+        if (tokens != null) {
+            for (String token : tokens) {
+                if (token.startsWith(prefix)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Index a product. Must be called with the write lock held.
+     *
+     * @param product The product to index
+     */
+    private void add(Product product) {
+        int productId = product.getProductId();
+        Set<String> nameTokens = tokenize(product.getProductName());
+        Set<String> tokens = new LinkedHashSet<>(nameTokens);
+        tokens.addAll(tokenize(product.getProductType()));
+        tokens.addAll(tokenize(product.getDescription()));
+
+        products.put(productId, copyOf(product));
+        nameTokensByProduct.put(productId, nameTokens);
+        tokensByProduct.put(productId, tokens);
+        for (String token : tokens) {
+            productsByToken.computeIfAbsent(token, k -> new HashSet<>()).add(productId);
+            TrieNode node = root;
+            for (int i = 0; i < token.length(); i++) {
+                node = node.children.computeIfAbsent(token.charAt(i), k -> new TrieNode());
+                node.productIds.add(productId);
+            }
+        }
+    }
+
+    /**
+     * Copy the fields of a product that the index keeps; image data is left
+     * out.
+     *
+     * @param product The product
+     * @return A new product
+     */
+    private static Product copyOf(Product product) {
+        Product copy = new Product();
+        copy.setProductId(product.getProductId());
+        copy.setProductName(product.getProductName());
+        copy.setProductType(product.getProductType());
+        copy.setPricePerKg(product.getPricePerKg());
+        copy.setStock(product.getStock());
+        copy.setThreshold(product.getThreshold());
+        copy.setDescription(product.getDescription());
+        copy.setImagePath(product.getImagePath());
+        copy.setImageUrl(product.getImageUrl());
+        copy.setImageVersion(product.getImageVersion());
+        copy.setOriginalPrice(product.getOriginalPrice());
+        copy.setDiscountPercent(product.getDiscountPercent());
+        return copy;
+    }
+
+    /**
+     * Remove a product's tokens. Must be called with the write lock held.
+     *
+     * @param productId The product ID
+     */
+    private void removeTokens(int productId) {
+        Set<String> tokens = tokensByProduct.remove(productId);
+        nameTokensByProduct.remove(productId);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            Set<Integer> ids = productsByToken.get(token);
+            if (ids != null) {
+                ids.remove(productId);
+                if (ids.isEmpty()) {
+                    productsByToken.remove(token);
+                }
+            }
+            removeFromTrie(root, token, 0, productId);
+        }
+    }
+
+    /**
+     * Remove a product from the trie path of a token, pruning empty nodes.
+     *
+     * @return true if the child node became empty and was removed
+     */
+    private boolean removeFromTrie(TrieNode node, String token, int depth, int productId) {
+        if (depth == token.length()) {
+            return false;
+        }
+        TrieNode child = node.children.get(token.charAt(depth));
+        if (child == null) {
+            return false;
+        }
+        child.productIds.remove(productId);
+        removeFromTrie(child, token, depth + 1, productId);
+        if (child.productIds.isEmpty()) {
+            node.children.remove(token.charAt(depth));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Split text into normalized tokens.
+     *
+     * @param text The raw text
+     * @return Distinct folded tokens, in order of appearance
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char folded = fold(text.charAt(i));
+            if (Character.isLetterOrDigit(folded)) {
+                current.append(folded);
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    /**
+     * Fold a character: Turkish-aware lower case without diacritics.
+     *
+     * @param c The character
+     * @return The folded character
+     */
+    static char fold(char c) {
+        switch (c) {
+            case 'I':
+            case 'İ':
+            case 'ı':
+                return 'i';
+            case 'Ş':
+            case 'ş':
+                return 's';
+            case 'Ğ':
+            case 'ğ':
+                return 'g';
+            case 'Ü':
+            case 'ü':
+                return 'u';
+            case 'Ö':
+            case 'ö':
+                return 'o';
+            case 'Ç':
+            case 'ç':
+                return 'c';
+            default:
+                return Character.toLowerCase(c);
+        }
+    }
+
+    /**
+     * Levenshtein distance with an upper bound.
+     *
+     * @param a           First string
+     * @param b           Second string
+     * @param maxDistance The bound
+     * @return The distance, or maxDistance + 1 if it exceeds the bound
+     */
+    static int boundedDistance(String a, String b, int maxDistance) {
+        if (Math.abs(a.length() - b.length()) > maxDistance) {
+            return maxDistance + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxDistance) {
+                return maxDistance + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
@@ -2,9 +2,14 @@ package com.group05.greengrocer.service;
 
 import java.math.BigDecimal;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.group05.greengrocer.model.Product;
+import com.group05.greengrocer.model.ProductQuery;
 import com.group05.greengrocer.repository.ProductRepository;
 
 /**
@@ -12,12 +17,14 @@ import com.group05.greengrocer.repository.ProductRepository;
  */
 public class ProductService {
     private final ProductRepository productRepository;
+    private final ProductSearchIndex searchIndex;
 
     /**
      * Constructor for ProductService.
      */
     public ProductService() {
         this.productRepository = new ProductRepository();
+        this.searchIndex = ProductSearchIndex.getInstance();
     }
 
     /**
@@ -67,16 +74,67 @@ public class ProductService {
     }
 
     /**
-     * Search products by name (case-insensitive).
+     * Query the catalog with database-side sorting and filtering.
      * 
-     * @param searchTerm The search term to match against product names
-     * @return List of products matching the search term with stock > 0
+     * @param query The catalog query
+     * @return Matching products keyed by type, in query order
+     */
+    public Map<String, List<Product>> getCatalog(ProductQuery query) {
+        try {
+            Map<String, List<Product>> productsByType = new LinkedHashMap<>();
+            for (Product product : productRepository.findCatalog(query)) {
+                productsByType.computeIfAbsent(product.getProductType(), k -> new ArrayList<>()).add(product);
+            }
+            return productsByType;
+        } catch (SQLException e) {
+            System.err.println("Error querying product catalog: " + e.getMessage());
+            e.printStackTrace();
+            return Map.of();
+        }
+    }
+
+    /**
+     * Search products by name, type and description.
+     * Matched by the in-memory search index (prefix and typo-tolerant,
+     * Turkish-aware), then the matches are read by ID so results carry their
+     * images and current stock. Falls back to a name prefix query if the index
+     * cannot be built.
+     * 
+     * @param searchTerm The search term
+     * @return List of products matching the search term with stock > 0, best
+     *         match first
      */
     public List<Product> searchProducts(String searchTerm) {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return getAvailableProducts();
         }
 
+        if (searchIndex.isBuilt() || searchIndex.rebuild()) {
+            List<Product> matches = searchIndex.search(searchTerm);
+            try {
+                List<Integer> ids = new ArrayList<>(matches.size());
+                for (Product match : matches) {
+                    ids.add(match.getProductId());
+                }
+                Map<Integer, Product> byId = new HashMap<>();
+                for (Product product : productRepository.findByIds(ids)) {
+                    byId.put(product.getProductId(), product);
+                }
+                List<Product> results = new ArrayList<>();
+                for (Product match : matches) {
+                    Product product = byId.get(match.getProductId());
+                    if (product != null && product.hasStock()) {
+                        results.add(product);
+                    }
+                }
+                return results;
+            } catch (SQLException e) {
+                System.err.println("Error loading search results: " + e.getMessage());
+                e.printStackTrace();
+                return matches;
+            }
+        }
+
         try {
             return productRepository.searchByName(searchTerm);
         } catch (SQLException e) {
@@ -86,6 +144,16 @@ public class ProductService {
         }
     }
 
+    /**
+     * Reload the product search index from the database.
+     * Picks up changes made outside this application instance.
+     * 
+     * @return true if the index was rebuilt
+     */
+    public boolean rebuildSearchIndex() {
+        return searchIndex.rebuild();
+    }
+
     /**
      * Get product by ID.
      * 
@@ -111,27 +179,7 @@ public class ProductService {
      *         price)
      */
     public BigDecimal getDisplayPrice(Product product) {
-        if (product == null || product.getPricePerKg() == null) {
-            return BigDecimal.ZERO;
-        }
-
-        BigDecimal basePrice = product.getPricePerKg();
-        BigDecimal stock = product.getStock();
-        BigDecimal threshold = product.getThreshold();
-
-        if (threshold == null) {
-            threshold = new BigDecimal("5.0");
-        }
-
-        if (stock == null || stock.compareTo(BigDecimal.ZERO) <= 0) {
-            return basePrice;
-        }
-
-        if (stock.compareTo(threshold) <= 0) {
-            return basePrice.multiply(new BigDecimal("2"));
-        }
-
-        return basePrice;
+        return PricingEngine.unitPrice(product);
     }
 
     /**
@@ -157,7 +205,11 @@ public class ProductService {
      */
     public boolean createProduct(Product product) {
         try {
-            return productRepository.create(product);
+            boolean created = productRepository.create(product);
+            if (created) {
+                searchIndex.upsert(product);
+            }
+            return created;
         } catch (SQLException e) {
             System.err.println("Error creating product: " + e.getMessage());
             e.printStackTrace();
@@ -177,7 +229,11 @@ public class ProductService {
                 System.err.println("Error: Invalid product ID: " + product.getProductId());
                 return false;
             }
-            return productRepository.update(product);
+            boolean updated = productRepository.update(product);
+            if (updated) {
+                searchIndex.upsert(product);
+            }
+            return updated;
         } catch (SQLException e) {
             System.err.println("Error updating product: " + e.getMessage());
             System.err.println("SQL State: " + e.getSQLState());
@@ -200,7 +256,11 @@ public class ProductService {
      */
     public boolean updateStock(int productId, BigDecimal newStock) {
         try {
-            return productRepository.updateStock(productId, newStock);
+            boolean updated = productRepository.updateStock(productId, newStock);
+            if (updated) {
+                searchIndex.updateStock(productId, newStock);
+            }
+            return updated;
         } catch (SQLException e) {
             System.err.println("Error updating stock: " + e.getMessage());
             e.printStackTrace();
@@ -216,7 +276,11 @@ public class ProductService {
      */
     public boolean deleteProduct(int productId) {
         try {
-            return productRepository.delete(productId);
+            boolean deleted = productRepository.delete(productId);
+            if (deleted) {
+                searchIndex.remove(productId);
+            }
+            return deleted;
         } catch (SQLException e) {
             System.err.println("Error deleting product: " + e.getMessage());
             e.printStackTrace();
@@ -0,0 +1,310 @@
+package com.group05.greengrocer.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.group05.greengrocer.model.Order;
+
+/**
+ * Plans a delivery route through a carrier's orders.
+ * Singleton pattern. Orders are grouped by a locality key parsed from the
+ * delivery address (neighbourhood or district). Localities found in the
+ * offline coordinate table are visited in the order of a nearest-neighbour
+ * tour improved with 2-opt; the rest follow, oldest first.
+ */
+public class RoutePlanner {
+    private static final String COORDINATES_RESOURCE = "/data/locality-coordinates.csv";
+    private static final String DEPOT = "depot";
+    private static final int MAX_TWO_OPT_PASSES = 50;
+
+    private static RoutePlanner instance;
+
+    private final Map<String, double[]> coordinates;
+
+    /**
+     * Private constructor for singleton pattern.
+     */
+    private RoutePlanner() {
+        this.coordinates = loadCoordinates();
+    }
+
+    /**
+     * Get singleton instance of RoutePlanner.
+     *
+     * @return The RoutePlanner instance
+     */
+    public static synchronized RoutePlanner getInstance() {
+        if (instance == null) {
+            instance = new RoutePlanner();
+        }
+        return instance;
+    }
+
+    /**
+     * Load the locality coordinate table from the classpath.
+     *
+     * @return Latitude/longitude keyed by locality; empty if the table is missing
+     */
+    private static Map<String, double[]> loadCoordinates() {
+        Map<String, double[]> table = new HashMap<>();
+        try (InputStream in = RoutePlanner.class.getResourceAsStream(COORDINATES_RESOURCE)) {
+            if (in == null) {
+                return table;
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (fields.length != 3) {
+                    continue;
+                }
+                try {
+                    table.put(normalize(fields[0]), new double[] {
+                            Double.parseDouble(fields[1].trim()), Double.parseDouble(fields[2].trim()) });
+                } catch (NumberFormatException e) {
+                    System.err.println("Skipping bad coordinate row: " + line);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading locality coordinates: " + e.getMessage());
+        }
+        return table;
+    }
+
+    /**
+     * Get the locality key of a delivery address.
+     * Prefers a district or neighbourhood from the coordinate table, then a
+     * "... Mahallesi" part, then the district before the city
+     * ("street, district, city"), and finally the street name.
+     *
+     * @param address The delivery address
+     * @return The normalized locality key, or "" if the address is empty
+     */
+    public String localityOf(String address) {
+        if (address == null || address.trim().isEmpty()) {
+            return "";
+        }
+        String[] parts = address.split("[,/\\n]");
+        List<String> normalizedParts = new ArrayList<>();
+        for (String part : parts) {
+            String normalized = normalize(part);
+            if (!normalized.isEmpty()) {
+                normalizedParts.add(normalized);
+            }
+        }
+        if (normalizedParts.isEmpty()) {
+            return "";
+        }
+
+        for (int i = normalizedParts.size() - 1; i >= 0; i--) {
+            for (String token : normalizedParts.get(i).split(" ")) {
+                if (!token.equals(DEPOT) && coordinates.containsKey(token)) {
+                    return token;
+                }
+            }
+        }
+        for (String part : normalizedParts) {
+            String neighbourhood = part.replaceFirst(" (mahallesi|mah|mh)( .*)?$", "");
+            if (!neighbourhood.equals(part) && !neighbourhood.isEmpty()) {
+                return neighbourhood;
+            }
+        }
+        if (normalizedParts.size() >= 3) {
+            return normalizedParts.get(normalizedParts.size() - 2);
+        }
+        if (normalizedParts.size() == 2) {
+            return normalizedParts.get(1);
+        }
+        StringBuilder street = new StringBuilder();
+        for (String token : normalizedParts.get(0).split(" ")) {
+            if (token.chars().noneMatch(Character::isDigit)) {
+                street.append(street.length() > 0 ? " " : "").append(token);
+            }
+        }
+        return street.length() > 0 ? street.toString() : normalizedParts.get(0);
+    }
+
+    /**
+     * Order a carrier's orders into a delivery route.
+     *
+     * @param orders The orders to deliver
+     * @return The same orders in visiting order
+     */
+    public List<Order> plan(List<Order> orders) {
+        List<Order> byAge = new ArrayList<>(orders);
+        byAge.sort(Comparator.comparing(Order::getOrderDate, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        Map<String, List<Order>> byLocality = new LinkedHashMap<>();
+        for (Order order : byAge) {
+            byLocality.computeIfAbsent(localityOf(order.getDeliveryAddress()), k -> new ArrayList<>()).add(order);
+        }
+
+        List<String> located = new ArrayList<>();
+        List<String> unlocated = new ArrayList<>();
+        for (String locality : byLocality.keySet()) {
+            (coordinates.containsKey(locality) ? located : unlocated).add(locality);
+        }
+
+        List<Order> route = new ArrayList<>(orders.size());
+        for (String locality : tour(located)) {
+            route.addAll(byLocality.get(locality));
+        }
+        for (String locality : unlocated) {
+            route.addAll(byLocality.get(locality));
+        }
+        return route;
+    }
+
+    /**
+     * Find a short open tour through localities with known coordinates.
+     * Starts at the depot if the table has one, otherwise at the first
+     * (oldest) locality.
+     *
+     * @param localities Localities with coordinates, oldest first
+     * @return The localities in visiting order
+     */
+    private List<String> tour(List<String> localities) {
+        if (localities.size() < 2) {
+            return localities;
+        }
+        double[] depot = coordinates.get(DEPOT);
+        int offset = depot != null ? 1 : 0;
+        int n = localities.size() + offset;
+        double[][] points = new double[n][];
+        if (depot != null) {
+            points[0] = depot;
+        }
+        for (int i = 0; i < localities.size(); i++) {
+            points[i + offset] = coordinates.get(localities.get(i));
+        }
+
+        double[][] distance = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                distance[i][j] = distance[j][i] = distanceKm(points[i], points[j]);
+            }
+        }
+
+        int[] path = nearestNeighbour(distance);
+        twoOpt(path, distance);
+
+        List<String> ordered = new ArrayList<>(localities.size());
+        for (int node : path) {
+            if (node >= offset) {
+                ordered.add(localities.get(node - offset));
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Build a path from node 0 by always moving to the closest unvisited node.
+     *
+     * @param distance Distance matrix
+     * @return Node indices in visiting order, starting with 0
+     */
+    private static int[] nearestNeighbour(double[][] distance) {
+        int n = distance.length;
+        int[] path = new int[n];
+        boolean[] visited = new boolean[n];
+        visited[0] = true;
+        for (int step = 1; step < n; step++) {
+            int from = path[step - 1];
+            int next = -1;
+            for (int candidate = 0; candidate < n; candidate++) {
+                if (!visited[candidate] && (next < 0 || distance[from][candidate] < distance[from][next])) {
+                    next = candidate;
+                }
+            }
+            path[step] = next;
+            visited[next] = true;
+        }
+        return path;
+    }
+
+    /**
+     * Improve an open path in place by reversing segments while that makes it
+     * shorter. The first node stays fixed.
+     *
+     * @param path     Node indices in visiting order
+     * @param distance Distance matrix
+     */
+    private static void twoOpt(int[] path, double[][] distance) {
+        int n = path.length;
+        boolean improved = true;
+        for (int pass = 0; improved && pass < MAX_TWO_OPT_PASSES; pass++) {
+            improved = false;
+            for (int i = 1; i < n - 1; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    double before = distance[path[i - 1]][path[i]]
+                            + (j + 1 < n ? distance[path[j]][path[j + 1]] : 0);
+                    double after = distance[path[i - 1]][path[j]]
+                            + (j + 1 < n ? distance[path[i]][path[j + 1]] : 0);
+                    if (after + 1e-9 < before) {
+                        reverse(path, i, j);
+                        improved = true;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reverse path[from..to] in place.
+     */
+    private static void reverse(int[] path, int from, int to) {
+        while (from < to) {
+            int swap = path[from];
+            path[from++] = path[to];
+            path[to--] = swap;
+        }
+    }
+
+    /**
+     * Approximate distance between two points (equirectangular projection,
+     * accurate enough within a city).
+     *
+     * @param a Latitude/longitude of the first point
+     * @param b Latitude/longitude of the second point
+     * @return Distance in kilometres
+     */
+    private static double distanceKm(double[] a, double[] b) {
+        double meanLat = Math.toRadians((a[0] + b[0]) / 2);
+        double x = Math.toRadians(b[1] - a[1]) * Math.cos(meanLat);
+        double y = Math.toRadians(b[0] - a[0]);
+        return Math.sqrt(x * x + y * y) * 6371.0;
+    }
+
+    /**
+     * Normalize address text: Turkish-aware folding, punctuation to spaces,
+     * single spaces.
+     *
+     * @param text The raw text
+     * @return The normalized text
+     */
+    private static String normalize(String text) {
+        StringBuilder normalized = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = ProductSearchIndex.fold(text.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(c);
+            } else if (normalized.length() > 0 && normalized.charAt(normalized.length() - 1) != ' ') {
+                normalized.append(' ');
+            }
+        }
+        return normalized.toString().trim();
+    }
+}
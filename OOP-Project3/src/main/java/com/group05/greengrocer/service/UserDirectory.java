@@ -0,0 +1,114 @@
+package com.group05.greengrocer.service;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.group05.greengrocer.model.User;
+import com.group05.greengrocer.repository.UserRepository;
+
+/**
+ * Cache of user display names keyed by user ID.
+ * Singleton pattern. Tables and reports resolve customer and carrier names
+ * through this class; missing names are fetched in one batch query. Only the
+ * display name is kept, never credentials.
+ */
+public class UserDirectory {
+    private static final String UNKNOWN = "Unknown";
+
+    private static UserDirectory instance;
+
+    private final UserRepository userRepository;
+    private final Map<Integer, String> displayNames = new ConcurrentHashMap<>();
+
+    /**
+     * Private constructor for singleton pattern.
+     */
+    private UserDirectory() {
+        this.userRepository = new UserRepository();
+    }
+
+    /**
+     * Get singleton instance of UserDirectory.
+     *
+     * @return The UserDirectory instance
+     */
+    public static synchronized UserDirectory getInstance() {
+        if (instance == null) {
+            instance = new UserDirectory();
+        }
+        return instance;
+    }
+
+    /**
+     * Make sure the names of the given users are cached.
+     * Runs at most one batch query for the IDs not yet cached; call it off
+     * the FX thread before showing rows that reference these users.
+     *
+     * @param userIds The user IDs (nulls are ignored)
+     */
+    public void preload(Collection<Integer> userIds) {
+        List<Integer> missing = new ArrayList<>();
+        for (Integer userId : userIds) {
+            if (userId != null && !displayNames.containsKey(userId) && !missing.contains(userId)) {
+                missing.add(userId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        try {
+            for (User user : userRepository.findByIds(missing)) {
+                put(user);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading user names: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Get the display names of many users.
+     *
+     * @param userIds The user IDs
+     * @return Display name keyed by user ID; users that do not exist are absent
+     */
+    public Map<Integer, String> getDisplayNames(Collection<Integer> userIds) {
+        preload(userIds);
+        Map<Integer, String> names = new HashMap<>();
+        for (Integer userId : userIds) {
+            String name = userId != null ? displayNames.get(userId) : null;
+            if (name != null) {
+                names.put(userId, name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Get a user's display name from the cache, without querying.
+     *
+     * @param userId The user ID
+     * @return The cached display name, or null if it is not cached
+     */
+    public String getCachedDisplayName(int userId) {
+        return displayNames.get(userId);
+    }
+
+    /**
+     * Cache or refresh a user's display name after it was created or changed.
+     *
+     * @param user The user
+     * @return The cached display name
+     */
+    public String put(User user) {
+        String name = user.getFullName() != null ? user.getFullName()
+                : user.getUsername() != null ? user.getUsername() : UNKNOWN;
+        displayNames.put(user.getUserId(), name);
+        return name;
+    }
+}
@@ -0,0 +1,253 @@
+package com.group05.greengrocer.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javafx.application.Platform;
+
+/**
+ * AsyncExecutor class for running service calls off the JavaFX Application
+ * Thread.
+ * Singleton pattern with a bounded worker pool. Tasks return CompletableFutures
+ * that support cancellation (interrupting the worker) and optional
+ * de-duplication of identical queued requests by key.
+ */
+public class AsyncExecutor {
+    private static final int WORKER_THREADS = 4;
+    private static final int QUEUE_CAPACITY = 100;
+
+    private static AsyncExecutor instance;
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, CompletableFuture<?>> queuedByKey = new HashMap<>();
+    private final Map<String, CompletableFuture<?>> runningByKey = new HashMap<>();
+
+    /**
+     * Private constructor for singleton pattern.
+     * Creates the bounded worker pool with daemon threads.
+     */
+    private AsyncExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "service-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Get singleton instance of AsyncExecutor.
+     *
+     * @return The AsyncExecutor instance
+     */
+    public static synchronized AsyncExecutor getInstance() {
+        if (instance == null) {
+            instance = new AsyncExecutor();
+        }
+        return instance;
+    }
+
+    /**
+     * Run a task on the worker pool.
+     * Cancelling the returned future interrupts the worker if the task is
+     * running, or removes it from the queue if it has not started yet.
+     * If the queue is full, the returned future completes exceptionally with a
+     * RejectedExecutionException instead of blocking the caller.
+     *
+     * @param <T>  The result type
+     * @param task The task to run
+     * @return A future completed with the task result
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        FutureTask<Void> worker = new FutureTask<>(() -> {
+            try {
+                future.complete(task.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        }, null);
+
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                worker.cancel(true);
+                executor.remove(worker);
+            }
+        });
+
+        try {
+            executor.execute(worker);
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Run a task on the worker pool, sharing the result with any identical
+     * request that has not started yet.
+     * Callers of a queued task receive the same future instead of issuing a
+     * second database round trip. A task with the same key that is already
+     * running may have read data from before the caller's latest write, so it
+     * is not shared; a fresh task is queued to start once it finishes.
+     *
+     * @param <T>  The result type
+     * @param key  The de-duplication key (e.g. "availableProducts")
+     * @param task The task to run
+     * @return A future completed with the task result
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> CompletableFuture<T> submit(String key, Supplier<T> task) {
+        CompletableFuture<?> queued = queuedByKey.get(key);
+        if (queued != null) {
+            return (CompletableFuture<T>) queued;
+        }
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        queuedByKey.put(key, future);
+        future.whenComplete((result, error) -> {
+            synchronized (this) {
+                queuedByKey.remove(key, future);
+                runningByKey.remove(key, future);
+            }
+        });
+
+        Runnable start = () -> {
+            if (future.isDone()) {
+                return;
+            }
+            CompletableFuture<T> inner = submit(() -> {
+                synchronized (this) {
+                    queuedByKey.remove(key, future);
+                    if (!future.isDone()) {
+                        runningByKey.put(key, future);
+                    }
+                }
+                return task.get();
+            });
+            inner.whenComplete((result, error) -> {
+                if (error != null) {
+                    future.completeExceptionally(unwrap(error));
+                } else {
+                    future.complete(result);
+                }
+            });
+            future.whenComplete((result, error) -> {
+                if (future.isCancelled()) {
+                    inner.cancel(true);
+                }
+            });
+        };
+
+        CompletableFuture<?> running = runningByKey.get(key);
+        if (running == null) {
+            start.run();
+        } else {
+            running.whenComplete((result, error) -> start.run());
+        }
+        return future;
+    }
+
+    /**
+     * Run a task on the worker pool and deliver the result on the JavaFX
+     * Application Thread.
+     *
+     * @param <T>       The result type
+     * @param task      The task to run
+     * @param onSuccess Callback invoked on the FX thread with the result
+     * @return A future completed with the task result
+     */
+    public <T> CompletableFuture<T> submitThenOnFx(Supplier<T> task, Consumer<T> onSuccess) {
+        CompletableFuture<T> future = submit(task);
+        onFx(future, onSuccess, null);
+        return future;
+    }
+
+    /**
+     * Attach FX-thread continuations to a future.
+     * Cancelled futures invoke neither callback.
+     *
+     * @param <T>       The result type
+     * @param future    The future to observe
+     * @param onSuccess Callback invoked on the FX thread with the result
+     * @param onError   Callback invoked on the FX thread with the failure, or null
+     *                  to log the failure
+     */
+    public static <T> void onFx(CompletableFuture<T> future, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                return;
+            }
+            Throwable cause = unwrap(error);
+            if (cause instanceof CancellationException) {
+                return;
+            }
+            runOnFx(() -> {
+                if (cause == null) {
+                    if (onSuccess != null) {
+                        onSuccess.accept(result);
+                    }
+                } else if (onError != null) {
+                    onError.accept(cause);
+                } else {
+                    System.err.println("Background task failed: " + cause.getMessage());
+                    cause.printStackTrace();
+                }
+            });
+        });
+    }
+
+    /**
+     * Run an action on the JavaFX Application Thread.
+     * Runs immediately if already on the FX thread.
+     *
+     * @param action The action to run
+     */
+    public static void runOnFx(Runnable action) {
+        if (Platform.isFxApplicationThread()) {
+            action.run();
+        } else {
+            Platform.runLater(action);
+        }
+    }
+
+    /**
+     * Stop accepting new tasks and interrupt running ones.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        synchronized (this) {
+            queuedByKey.clear();
+            runningByKey.clear();
+        }
+    }
+
+    /**
+     * Unwrap CompletionException wrappers to get the original failure.
+     *
+     * @param error The failure reported by a CompletableFuture
+     * @return The underlying cause, or null if there was no failure
+     */
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -10,6 +10,8 @@ import java.sql.Statement;
 /**
  * DatabaseAdapter class for managing database connections.
  * Handles JDBC connection to MySQL database and automatic schema migrations.
+ * Every call to getConnection returns a connection owned by the caller, so
+ * repositories can be used safely from background worker threads.
  */
 public class DatabaseAdapter {
     private static final String DB_URL = "jdbc:mysql://localhost:3306/greengrocer_db";
@@ -17,7 +19,8 @@ public class DatabaseAdapter {
     private static final String DB_PASSWORD = "1234";
 
     private static DatabaseAdapter instance;
-    private Connection connection;
+
+    private volatile boolean windowFunctionsSupported = true;
 
     /**
      * Private constructor for singleton pattern.
@@ -46,41 +49,36 @@ public class DatabaseAdapter {
 
     /**
      * Get database connection.
-     * Creates a new connection if one doesn't exist or is closed.
+     * Opens a new connection for the caller, who is responsible for closing it
+     * (repositories use try-with-resources). Connections are never shared
+     * between threads.
      * 
      * @return Connection object
      * @throws SQLException if connection fails
      */
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-        }
-        return connection;
+        return DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
     }
 
     /**
-     * Close database connection.
+     * Check whether the server supports window functions (MySQL 8 and
+     * later). Determined once by testConnection.
+     * 
+     * @return true if queries may use window functions
      */
-    public void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            System.err.println("Error closing database connection: " + e.getMessage());
-            e.printStackTrace();
-        }
+    public boolean supportsWindowFunctions() {
+        return windowFunctionsSupported;
     }
 
     /**
-     * Test database connection and run migrations.
+     * Test database connection, detect server features and run migrations.
      * 
      * @return true if connection is successful, false otherwise
      */
     public boolean testConnection() {
-        try {
-            Connection conn = getConnection();
+        try (Connection conn = getConnection()) {
             if (conn != null && !conn.isClosed()) {
+                windowFunctionsSupported = conn.getMetaData().getDatabaseMajorVersion() >= 8;
                 runMigrations(conn);
                 return true;
             }
@@ -93,8 +91,8 @@ public class DatabaseAdapter {
 
     /**
      * Run database migrations to add missing columns and tables.
-     * Automatically adds imageUrl, imageData, invoicePdf, originalPrice,
-     * discountPercent columns
+     * Automatically adds imageUrl, imageData, invoicePdf, invoiceHash, originalPrice,
+     * discountPercent, effectivePrice columns and catalog indexes,
      * and creates Coupon, CarrierRating, and Message tables if they don't exist.
      * 
      * @param conn The database connection
@@ -118,6 +116,15 @@ public class DatabaseAdapter {
             }
         }
 
+        if (!columnExists(conn, "ProductInfo", "imageVersion")) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE ProductInfo ADD COLUMN imageVersion INT NOT NULL DEFAULT 0 AFTER imageData");
+                System.out.println("✓ Added imageVersion column to ProductInfo");
+            } catch (SQLException e) {
+                System.err.println("Warning: Could not add imageVersion column: " + e.getMessage());
+            }
+        }
+
         if (!columnExists(conn, "OrderInfo", "invoicePdf")) {
             try (Statement stmt = conn.createStatement()) {
                 stmt.execute("ALTER TABLE OrderInfo ADD COLUMN invoicePdf LONGBLOB AFTER invoicePath");
@@ -127,6 +134,18 @@ public class DatabaseAdapter {
             }
         }
 
+        if (!columnExists(conn, "OrderInfo", "invoiceHash")) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE OrderInfo ADD COLUMN invoiceHash CHAR(64) AFTER invoicePdf");
+                // Same lowercase hex SHA-256 as InvoiceCache.hashOf
+                stmt.executeUpdate("UPDATE OrderInfo SET invoiceHash = SHA2(invoicePdf, 256) "
+                        + "WHERE invoicePdf IS NOT NULL");
+                System.out.println("✓ Added invoiceHash column to OrderInfo");
+            } catch (SQLException e) {
+                System.err.println("Warning: Could not add invoiceHash column: " + e.getMessage());
+            }
+        }
+
         if (!columnExists(conn, "ProductInfo", "originalPrice")) {
             try (Statement stmt = conn.createStatement()) {
                 stmt.execute("ALTER TABLE ProductInfo ADD COLUMN originalPrice DECIMAL(10, 2) AFTER pricePerKg");
@@ -155,6 +174,36 @@ public class DatabaseAdapter {
             }
         }
 
+        if (!columnExists(conn, "ProductInfo", "effectivePrice")) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE ProductInfo ADD COLUMN effectivePrice DECIMAL(10, 2) "
+                        + "GENERATED ALWAYS AS (CASE WHEN stock > 0 AND stock <= threshold "
+                        + "THEN pricePerKg * 2 ELSE pricePerKg END) STORED AFTER threshold");
+                System.out.println("✓ Added effectivePrice column to ProductInfo");
+            } catch (SQLException e) {
+                System.err.println("Warning: Could not add effectivePrice column: " + e.getMessage());
+            }
+        }
+
+        if (!columnExists(conn, "OrderInfo", "updatedAt")) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE OrderInfo ADD COLUMN updatedAt TIMESTAMP(3) NOT NULL "
+                        + "DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) AFTER canCancelUntil");
+                System.out.println("✓ Added updatedAt column to OrderInfo");
+            } catch (SQLException e) {
+                System.err.println("Warning: Could not add updatedAt column: " + e.getMessage());
+            }
+        }
+
+        createIndexIfMissing(conn, "ProductInfo", "idx_product_name", "productName");
+        createIndexIfMissing(conn, "ProductInfo", "idx_product_type_name", "productType, productName");
+        createIndexIfMissing(conn, "ProductInfo", "idx_product_type_price", "productType, effectivePrice");
+        createIndexIfMissing(conn, "ProductInfo", "idx_product_effective_price", "effectivePrice");
+        createIndexIfMissing(conn, "OrderInfo", "idx_order_dispatch", "status, carrierId, orderDate");
+        createIndexIfMissing(conn, "OrderInfo", "idx_order_updated", "updatedAt");
+        createIndexIfMissing(conn, "OrderInfo", "idx_order_carrier_history", "carrierId, status, deliveryDate");
+        createIndexIfMissing(conn, "OrderInfo", "idx_order_date", "orderDate, orderId");
+
         if (!tableExists(conn, "Coupon")) {
             try (Statement stmt = conn.createStatement()) {
                 stmt.execute("CREATE TABLE IF NOT EXISTS Coupon (" +
@@ -222,6 +271,85 @@ public class DatabaseAdapter {
                 System.err.println("Warning: Could not create Message table: " + e.getMessage());
             }
         }
+
+        if (!tableExists(conn, "DeliverySlot")) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS DeliverySlot (" +
+                        "slotStart DATETIME PRIMARY KEY, " +
+                        "capacity INT NOT NULL, " +
+                        "reserved INT NOT NULL DEFAULT 0, " +
+                        "CHECK (reserved >= 0 AND reserved <= capacity)" +
+                        ")");
+                System.out.println("✓ Created DeliverySlot table");
+            } catch (SQLException e) {
+                System.err.println("Warning: Could not create DeliverySlot table: " + e.getMessage());
+            }
+        }
+
+        if (!tableExists(conn, "InvoiceJob")) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS InvoiceJob (" +
+                        "jobId INT PRIMARY KEY AUTO_INCREMENT, " +
+                        "orderId INT NOT NULL UNIQUE, " +
+                        "status ENUM('Queued', 'Running', 'Done', 'Failed') NOT NULL DEFAULT 'Queued', " +
+                        "attempts INT NOT NULL DEFAULT 0, " +
+                        "invoicePath VARCHAR(255), " +
+                        "lastError VARCHAR(500), " +
+                        "createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                        "updatedAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, " +
+                        "FOREIGN KEY (orderId) REFERENCES OrderInfo(orderId) ON DELETE CASCADE, " +
+                        "INDEX idx_invoice_job_status (status, jobId)" +
+                        ")");
+                System.out.println("✓ Created InvoiceJob table");
+            } catch (SQLException e) {
+                System.err.println("Warning: Could not create InvoiceJob table: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Create an index if no index with that name exists on the table.
+     * 
+     * @param conn      The database connection
+     * @param tableName The name of the table
+     * @param indexName The name of the index
+     * @param columns   Comma-separated index columns
+     */
+    private void createIndexIfMissing(Connection conn, String tableName, String indexName, String columns) {
+        if (indexExists(conn, tableName, indexName)) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE INDEX " + indexName + " ON " + tableName + " (" + columns + ")");
+            System.out.println("✓ Created index " + indexName + " on " + tableName);
+        } catch (SQLException e) {
+            System.err.println("Warning: Could not create index " + indexName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Check if an index exists on a table.
+     * 
+     * @param conn      The database connection
+     * @param tableName The name of the table
+     * @param indexName The name of the index to check
+     * @return true if index exists, false otherwise
+     */
+    private boolean indexExists(Connection conn, String tableName, String indexName) {
+        try {
+            DatabaseMetaData metaData = conn.getMetaData();
+            try (ResultSet rs = metaData.getIndexInfo(null, null, tableName, false, false)) {
+                while (rs.next()) {
+                    if (indexName.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error checking index existence: " + e.getMessage());
+            return false;
+        }
     }
 
     /**
@@ -0,0 +1,289 @@
+package com.group05.greengrocer.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.image.Image;
+
+import com.group05.greengrocer.model.Product;
+
+/**
+ * ImageCache class for sharing decoded product images.
+ * Singleton pattern. Entries are keyed by product ID and a content version,
+ * so a changed image is decoded again while an unchanged one never is.
+ * Versions come from the stored image version, so lookups never hash the
+ * image bytes. The strong LRU tier is bounded by estimated decoded pixel
+ * bytes; an image still loading in the background is weighed again once it
+ * has loaded. Entries evicted from it stay reachable through soft references
+ * until the GC needs the memory, and cleared references are purged on the
+ * next access.
+ */
+public class ImageCache {
+    private static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private static ImageCache instance;
+
+    private final long maxBytes;
+    private final LinkedHashMap<Integer, Entry> strong = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<Integer, SoftEntry> soft = new HashMap<>();
+    private final ReferenceQueue<Image> cleared = new ReferenceQueue<>();
+    private long currentBytes;
+
+    private long hits;
+    private long softHits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * A decoded image held strongly in the LRU tier.
+     */
+    private static final class Entry {
+        final long version;
+        final Image image;
+        final long bytes;
+
+        Entry(long version, Image image, long bytes) {
+            this.version = version;
+            this.image = image;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * A decoded image evicted from the LRU tier.
+     */
+    private static final class SoftEntry extends SoftReference<Image> {
+        final int productId;
+        final long version;
+
+        SoftEntry(int productId, long version, Image image, ReferenceQueue<Image> queue) {
+            super(image, queue);
+            this.productId = productId;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Private constructor for singleton pattern.
+     *
+     * @param maxBytes Upper bound for estimated decoded bytes in the LRU tier
+     */
+    private ImageCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Get singleton instance of ImageCache.
+     *
+     * @return The ImageCache instance
+     */
+    public static synchronized ImageCache getInstance() {
+        if (instance == null) {
+            instance = new ImageCache(DEFAULT_MAX_BYTES);
+        }
+        return instance;
+    }
+
+    /**
+     * Compute a content version for a product's stored image.
+     *
+     * @param product The product
+     * @return A version that changes whenever the stored image changes
+     */
+    public static long versionOf(Product product) {
+        byte[] imageData = product.getImageData();
+        if (imageData == null) {
+            return 0;
+        }
+        return ((long) (product.getImageVersion() + 1) << 32) | (imageData.length & 0xffffffffL);
+    }
+
+    /**
+     * Compute a content version for an image URL.
+     *
+     * @param imageUrl The image URL
+     * @return A version that changes whenever the URL changes
+     */
+    public static long versionOf(String imageUrl) {
+        return imageUrl == null ? 0 : imageUrl.hashCode();
+    }
+
+    /**
+     * Get a cached image.
+     *
+     * @param productId The product ID
+     * @param version   The content version of the product image
+     * @return The decoded image, or null if not cached for this version
+     */
+    public synchronized Image get(int productId, long version) {
+        purgeCleared();
+        Entry entry = strong.get(productId);
+        if (entry != null && entry.version == version) {
+            hits++;
+            return entry.image;
+        }
+
+        SoftEntry softEntry = soft.remove(productId);
+        if (softEntry != null && softEntry.version == version) {
+            Image image = softEntry.get();
+            if (image != null) {
+                softHits++;
+                putStrong(productId, version, image);
+                return image;
+            }
+        }
+
+        misses++;
+        return null;
+    }
+
+    /**
+     * Get a cached image, decoding and caching it on a miss.
+     *
+     * @param productId The product ID
+     * @param version   The content version of the product image
+     * @param decoder   Decodes the image on a miss
+     * @return The decoded image, or null if the decoder returned null
+     */
+    public Image getOrDecode(int productId, long version, Supplier<Image> decoder) {
+        Image image = get(productId, version);
+        if (image == null) {
+            image = decoder.get();
+            if (image != null) {
+                put(productId, version, image);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Cache a decoded image, replacing any other version for the product.
+     *
+     * @param productId The product ID
+     * @param version   The content version of the product image
+     * @param image     The decoded image
+     */
+    public synchronized void put(int productId, long version, Image image) {
+        purgeCleared();
+        soft.remove(productId);
+        putStrong(productId, version, image);
+    }
+
+    /**
+     * Insert into the LRU tier and evict least recently used entries until the
+     * byte budget is met.
+     *
+     * @param productId The product ID
+     * @param version   The content version
+     * @param image     The decoded image
+     */
+    private void putStrong(int productId, long version, Image image) {
+        Entry previous = strong.put(productId, new Entry(version, image, estimateBytes(image)));
+        if (previous != null) {
+            currentBytes -= previous.bytes;
+        }
+        currentBytes += strong.get(productId).bytes;
+        if (image.getProgress() < 1) {
+            image.progressProperty().addListener(new ChangeListener<Number>() {
+                @Override
+                public void changed(ObservableValue<? extends Number> observable, Number oldValue,
+                        Number newValue) {
+                    if (newValue.doubleValue() >= 1) {
+                        observable.removeListener(this);
+                        reweigh(productId, version, image);
+                    }
+                }
+            });
+        }
+        evict(productId);
+    }
+
+    /**
+     * Replace the estimated size of an image that finished loading in the
+     * background with its decoded size.
+     *
+     * @param productId The product ID
+     * @param version   The content version
+     * @param image     The loaded image
+     */
+    private synchronized void reweigh(int productId, long version, Image image) {
+        Entry entry = strong.get(productId);
+        if (entry == null || entry.image != image) {
+            return;
+        }
+        Entry loaded = new Entry(version, image, estimateBytes(image));
+        strong.put(productId, loaded);
+        currentBytes += loaded.bytes - entry.bytes;
+        evict(productId);
+    }
+
+    /**
+     * Evict least recently used entries into the soft tier until the byte
+     * budget is met.
+     *
+     * @param keepProductId A product whose entry is never evicted
+     */
+    private void evict(int keepProductId) {
+        Iterator<Map.Entry<Integer, Entry>> iterator = strong.entrySet().iterator();
+        while (currentBytes > maxBytes && strong.size() > 1 && iterator.hasNext()) {
+            Map.Entry<Integer, Entry> eldest = iterator.next();
+            if (eldest.getKey() == keepProductId) {
+                continue;
+            }
+            iterator.remove();
+            currentBytes -= eldest.getValue().bytes;
+            soft.put(eldest.getKey(),
+                    new SoftEntry(eldest.getKey(), eldest.getValue().version, eldest.getValue().image, cleared));
+            evictions++;
+        }
+    }
+
+    /**
+     * Remove soft entries whose image the GC has reclaimed.
+     */
+    private void purgeCleared() {
+        Reference<? extends Image> reference;
+        while ((reference = cleared.poll()) != null) {
+            SoftEntry entry = (SoftEntry) reference;
+            soft.remove(entry.productId, entry);
+        }
+    }
+
+    /**
+     * Estimate the decoded size of an image.
+     * Images still loading in the background report their requested size,
+     * or nothing if none was requested, until they are weighed again.
+     *
+     * @param image The image
+     * @return Estimated bytes of decoded pixel data
+     */
+    private static long estimateBytes(Image image) {
+        double width = image.getWidth() > 0 ? image.getWidth() : image.getRequestedWidth();
+        double height = image.getHeight() > 0 ? image.getHeight() : image.getRequestedHeight();
+        return Math.max(1L, (long) Math.ceil(width) * (long) Math.ceil(height) * BYTES_PER_PIXEL);
+    }
+
+    /**
+     * Get a one-line summary of cache usage.
+     *
+     * @return Cache metrics
+     */
+    public synchronized String getStatsSummary() {
+        return "entries=" + strong.size()
+                + ", bytes=" + currentBytes + "/" + maxBytes
+                + ", hits=" + hits
+                + ", softHits=" + softHits
+                + ", misses=" + misses
+                + ", evictions=" + evictions
+                + ", softEntries=" + soft.size();
+    }
+}
@@ -0,0 +1,230 @@
+package com.group05.greengrocer.util;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.group05.greengrocer.model.Product;
+
+import javafx.beans.value.ChangeListener;
+import javafx.scene.Scene;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+/**
+ * ImageLoader class for decoding product images off the JavaFX Application
+ * Thread.
+ * Singleton pattern. The ImageView shows a placeholder immediately while the
+ * image is decoded (and scaled) on a small worker pool; the result is swapped
+ * in on the FX thread. A pending decode is cancelled when its ImageView leaves
+ * the scene or is asked to show another product.
+ */
+public class ImageLoader {
+    public static final int IMAGE_SIZE = 100;
+
+    private static final int DECODE_THREADS = 2;
+    private static final String PENDING_KEY = ImageLoader.class.getName() + ".pending";
+
+    private static ImageLoader instance;
+
+    private final ThreadPoolExecutor decoder;
+    private Image placeholder;
+
+    /**
+     * Decode request bound to a single ImageView.
+     */
+    private final class Request {
+        final ImageView view;
+        final FutureTask<Image> task;
+        final ChangeListener<Scene> sceneListener;
+
+        Request(ImageView view, FutureTask<Image> task) {
+            this.view = view;
+            this.task = task;
+            this.sceneListener = (obs, oldScene, newScene) -> {
+                if (newScene == null) {
+                    cancel();
+                }
+            };
+        }
+
+        /**
+         * Cancel the decode and detach from the view.
+         */
+        void cancel() {
+            task.cancel(true);
+            decoder.remove(task);
+            detach();
+        }
+
+        /**
+         * Stop listening to the view.
+         */
+        void detach() {
+            view.sceneProperty().removeListener(sceneListener);
+            if (view.getProperties().get(PENDING_KEY) == this) {
+                view.getProperties().remove(PENDING_KEY);
+            }
+        }
+    }
+
+    /**
+     * Private constructor for singleton pattern.
+     */
+    private ImageLoader() {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.decoder = new ThreadPoolExecutor(DECODE_THREADS, DECODE_THREADS, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "image-decoder-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                });
+        this.decoder.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Get singleton instance of ImageLoader.
+     *
+     * @return The ImageLoader instance
+     */
+    public static synchronized ImageLoader getInstance() {
+        if (instance == null) {
+            instance = new ImageLoader();
+        }
+        return instance;
+    }
+
+    /**
+     * Show a product's image in an ImageView.
+     * Must be called on the FX thread. Cached images are shown immediately;
+     * otherwise the placeholder is shown until decoding finishes.
+     *
+     * @param product The product whose image to show
+     * @param view    The target ImageView
+     */
+    public void load(Product product, ImageView view) {
+        cancel(view);
+
+        byte[] imageData = product.getImageData();
+        ImageCache imageCache = ImageCache.getInstance();
+
+        if (imageData == null || imageData.length == 0) {
+            String imageUrl = product.getImageUrl();
+            if (imageUrl == null || imageUrl.isEmpty()) {
+                view.setImage(getPlaceholder());
+                return;
+            }
+            // URL images already load in the background inside JavaFX
+            long version = ImageCache.versionOf(imageUrl);
+            Image image = imageCache.get(product.getProductId(), version);
+            if (image == null) {
+                image = new Image(imageUrl, IMAGE_SIZE, IMAGE_SIZE, true, true, true);
+                imageCache.put(product.getProductId(), version, image);
+            }
+            view.setImage(image);
+            return;
+        }
+
+        long version = ImageCache.versionOf(product);
+        Image cached = imageCache.get(product.getProductId(), version);
+        if (cached != null) {
+            view.setImage(cached);
+            return;
+        }
+
+        view.setImage(getPlaceholder());
+
+        Request[] holder = new Request[1];
+        FutureTask<Image> task = new FutureTask<>(() -> imageCache.getOrDecode(product.getProductId(), version,
+                () -> new Image(new ByteArrayInputStream(imageData), IMAGE_SIZE, IMAGE_SIZE, true, true))) {
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    return;
+                }
+                AsyncExecutor.runOnFx(() -> complete(holder[0], this));
+            }
+        };
+        Request request = new Request(view, task);
+        holder[0] = request;
+
+        view.getProperties().put(PENDING_KEY, request);
+        view.sceneProperty().addListener(request.sceneListener);
+        try {
+            decoder.execute(task);
+        } catch (RejectedExecutionException e) {
+            request.detach();
+        }
+    }
+
+    /**
+     * Cancel any pending decode for an ImageView.
+     *
+     * @param view The ImageView
+     */
+    public void cancel(ImageView view) {
+        Object pending = view.getProperties().get(PENDING_KEY);
+        if (pending instanceof Request) {
+            ((Request) pending).cancel();
+        }
+    }
+
+    /**
+     * Swap the decoded image into the view if the request is still current.
+     *
+     * @param request The finished request
+     * @param task    The finished decode task
+     */
+    private void complete(Request request, FutureTask<Image> task) {
+        if (request.view.getProperties().get(PENDING_KEY) != request) {
+            return;
+        }
+        request.detach();
+        try {
+            Image image = task.get();
+            if (image != null && !image.isError()) {
+                request.view.setImage(image);
+            }
+        } catch (CancellationException e) {
+            // Superseded by a newer request
+        } catch (Exception e) {
+            System.err.println("Error decoding image: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get the shared placeholder image, creating it on first use.
+     *
+     * @return A light grey square placeholder
+     */
+    public Image getPlaceholder() {
+        if (placeholder == null) {
+            WritableImage image = new WritableImage(IMAGE_SIZE, IMAGE_SIZE);
+            PixelWriter writer = image.getPixelWriter();
+            Color fill = Color.rgb(235, 235, 235);
+            for (int y = 0; y < IMAGE_SIZE; y++) {
+                for (int x = 0; x < IMAGE_SIZE; x++) {
+                    writer.setColor(x, y, fill);
+                }
+            }
+            placeholder = image;
+        }
+        return placeholder;
+    }
+
+    /**
+     * Stop the decode workers.
+     */
+    public void shutdown() {
+        decoder.shutdownNow();
+    }
+}
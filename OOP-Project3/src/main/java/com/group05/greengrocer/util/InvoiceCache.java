@@ -0,0 +1,375 @@
+package com.group05.greengrocer.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * InvoiceCache class for serving invoice PDFs from local disk.
+ * Singleton pattern. Files live under invoices/cache and are named by order
+ * ID and the SHA-256 of their content, so a file can always be checked
+ * against its name. Lookups name the hash stored with the order, so a file
+ * left over from an older version of the invoice is never served. An
+ * in-memory index is rebuilt from the directory on start, ordered by last use.
+ * Total file size is bounded and least recently used files are deleted
+ * first. A file is hashed the first time it is read in a process and its
+ * size is checked on every read; a file that fails either check is dropped.
+ * Hits are copied with FileChannel.transferTo.
+ */
+public class InvoiceCache {
+    private static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+    private static final Path CACHE_DIR = Paths.get("invoices", "cache");
+    private static final Pattern FILE_NAME = Pattern.compile("order_(\\d+)_([0-9a-f]{64})\\.pdf");
+
+    private static InvoiceCache instance;
+
+    private final long maxBytes;
+    private final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long currentBytes;
+
+    /**
+     * A cached invoice file.
+     */
+    private static final class Entry {
+        final String hash;
+        final Path path;
+        final long bytes;
+        boolean verified;
+
+        Entry(String hash, Path path, long bytes, boolean verified) {
+            this.hash = hash;
+            this.path = path;
+            this.bytes = bytes;
+            this.verified = verified;
+        }
+    }
+
+    /**
+     * Private constructor for singleton pattern.
+     *
+     * @param maxBytes Upper bound for the total size of cached files
+     */
+    private InvoiceCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        load();
+    }
+
+    /**
+     * Get singleton instance of InvoiceCache.
+     *
+     * @return The InvoiceCache instance
+     */
+    public static synchronized InvoiceCache getInstance() {
+        if (instance == null) {
+            instance = new InvoiceCache(DEFAULT_MAX_BYTES);
+        }
+        return instance;
+    }
+
+    /**
+     * Compute the content hash of invoice bytes.
+     *
+     * @param pdfBytes The PDF file as byte array
+     * @return The SHA-256 as lowercase hexadecimal
+     */
+    public static String hashOf(byte[] pdfBytes) {
+        MessageDigest digest = newDigest();
+        digest.update(pdfBytes);
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Compute the content hash of a file.
+     *
+     * @param path The file
+     * @return The SHA-256 as lowercase hexadecimal
+     * @throws IOException if the file cannot be read
+     */
+    public static String hashOf(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return hashOf(channel);
+        }
+    }
+
+    /**
+     * Cache an order's invoice, replacing any other version for the order.
+     *
+     * @param orderId  The order ID
+     * @param pdfBytes The PDF file as byte array
+     * @return The path of the cached file
+     * @throws IOException if the file cannot be written
+     */
+    public Path put(int orderId, byte[] pdfBytes) throws IOException {
+        String hash = hashOf(pdfBytes);
+        Path path = CACHE_DIR.resolve(fileName(orderId, hash));
+        synchronized (this) {
+            Entry existing = entries.get(orderId);
+            if (existing != null && existing.hash.equals(hash) && Files.isRegularFile(existing.path)) {
+                return existing.path;
+            }
+        }
+
+        Files.createDirectories(CACHE_DIR);
+        Path temp = Files.createTempFile(CACHE_DIR, "order_" + orderId + "_", ".tmp");
+        try {
+            Files.write(temp, pdfBytes);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        synchronized (this) {
+            Entry previous = entries.put(orderId, new Entry(hash, path, pdfBytes.length, true));
+            if (previous != null) {
+                currentBytes -= previous.bytes;
+                if (!previous.path.equals(path)) {
+                    deleteQuietly(previous.path);
+                }
+            }
+            currentBytes += pdfBytes.length;
+            evict(orderId);
+        }
+        return path;
+    }
+
+    /**
+     * Copy an order's cached invoice to a file.
+     *
+     * @param orderId      The order ID
+     * @param expectedHash The hash stored with the order
+     * @param target       The file to create or replace
+     * @return true if the invoice was cached and copied, false on a miss
+     * @throws IOException if the target cannot be written
+     */
+    public boolean copyTo(int orderId, String expectedHash, Path target) throws IOException {
+        FileChannel source = open(orderId, expectedHash);
+        if (source == null) {
+            return false;
+        }
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel in = source;
+                FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            transfer(in, out);
+        }
+        return true;
+    }
+
+    /**
+     * Open a verified cached invoice for reading and mark it as used, so a
+     * caller can check for a hit before preparing the target. Copy it with
+     * {@link #transfer}. The channel is opened under the lock, so a
+     * concurrent eviction cannot delete the file before it is open. A file of
+     * another version than the expected one is dropped.
+     *
+     * @param orderId      The order ID
+     * @param expectedHash The hash stored with the order, or null if it has
+     *                     none
+     * @return An open channel the caller must close, or null on a miss
+     */
+    public synchronized FileChannel open(int orderId, String expectedHash) {
+        Entry entry = entries.get(orderId);
+        if (entry == null || expectedHash == null) {
+            return null;
+        }
+        if (!entry.hash.equals(expectedHash)) {
+            entries.remove(orderId);
+            currentBytes -= entry.bytes;
+            deleteQuietly(entry.path);
+            return null;
+        }
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(entry.path, StandardOpenOption.READ);
+            if (channel.size() != entry.bytes || (!entry.verified && !entry.hash.equals(hashOf(channel)))) {
+                throw new IOException("content does not match " + entry.path.getFileName());
+            }
+            entry.verified = true;
+            Files.setLastModifiedTime(entry.path, FileTime.fromMillis(System.currentTimeMillis()));
+            return channel;
+        } catch (IOException e) {
+            System.err.println("Dropping cached invoice of order " + orderId + ": " + e.getMessage());
+            closeQuietly(channel);
+            entries.remove(orderId);
+            currentBytes -= entry.bytes;
+            deleteQuietly(entry.path);
+            return null;
+        }
+    }
+
+    /**
+     * Index the files already in the cache directory, least recently used
+     * first. Older versions of an order and leftover temporary files are
+     * deleted.
+     */
+    private void load() {
+        if (!Files.isDirectory(CACHE_DIR)) {
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(CACHE_DIR)) {
+            for (Path path : stream) {
+                files.add(path);
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading invoice cache: " + e.getMessage());
+            return;
+        }
+
+        Map<Path, FileTime> modified = new LinkedHashMap<>();
+        for (Path path : files) {
+            try {
+                modified.put(path, Files.getLastModifiedTime(path));
+            } catch (IOException e) {
+                modified.put(path, FileTime.fromMillis(0));
+            }
+        }
+        files.sort(Comparator.comparing(modified::get));
+
+        for (Path path : files) {
+            Matcher matcher = FILE_NAME.matcher(path.getFileName().toString());
+            if (!matcher.matches()) {
+                deleteQuietly(path);
+                continue;
+            }
+            long bytes;
+            try {
+                bytes = Files.size(path);
+            } catch (IOException e) {
+                continue;
+            }
+            int orderId = Integer.parseInt(matcher.group(1));
+            Entry previous = entries.put(orderId, new Entry(matcher.group(2), path, bytes, false));
+            if (previous != null) {
+                currentBytes -= previous.bytes;
+                deleteQuietly(previous.path);
+            }
+            currentBytes += bytes;
+        }
+        evict(-1);
+    }
+
+    /**
+     * Delete least recently used files until the size budget is met.
+     *
+     * @param keepOrderId An order whose file is never evicted, or -1
+     */
+    private void evict(int keepOrderId) {
+        Iterator<Map.Entry<Integer, Entry>> iterator = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<Integer, Entry> eldest = iterator.next();
+            if (eldest.getKey() == keepOrderId) {
+                continue;
+            }
+            iterator.remove();
+            currentBytes -= eldest.getValue().bytes;
+            deleteQuietly(eldest.getValue().path);
+        }
+    }
+
+    /**
+     * Copy a whole file to a channel.
+     *
+     * @param in  The file to copy
+     * @param out The channel to write to; left open
+     * @throws IOException if the copy fails
+     */
+    public static void transfer(FileChannel in, WritableByteChannel out) throws IOException {
+        long size = in.size();
+        long position = 0;
+        while (position < size) {
+            position += in.transferTo(position, size - position, out);
+        }
+    }
+
+    /**
+     * Hash the content of an open file without moving its position.
+     */
+    private static String hashOf(FileChannel channel) throws IOException {
+        MessageDigest digest = newDigest();
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long position = 0;
+        int read;
+        while ((read = channel.read(buffer, position)) > 0) {
+            buffer.flip();
+            digest.update(buffer);
+            buffer.clear();
+            position += read;
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Create a SHA-256 digest.
+     */
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    /**
+     * Format bytes as lowercase hexadecimal.
+     */
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Get the file name of a cached invoice.
+     */
+    private static String fileName(int orderId, String hash) {
+        return "order_" + orderId + "_" + hash + ".pdf";
+    }
+
+    /**
+     * Delete a file, logging instead of failing.
+     */
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("Could not delete cached invoice " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Close a channel, ignoring errors.
+     */
+    private static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Nothing to recover
+            }
+        }
+    }
+}